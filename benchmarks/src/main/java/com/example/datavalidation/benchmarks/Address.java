@@ -0,0 +1,37 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+
+/**
+ * The address of {@code examples/simple-validation}, validated by {@code benchmark-rules/address-validation.yml}.
+ */
+@ValidatedBy("address-validation.yml")
+public class Address {
+    private String street;
+    private String city;
+    private String state;
+    private String zipCode;
+
+    public Address(String street, String city, String state, String zipCode) {
+        this.street = street;
+        this.city = city;
+        this.state = state;
+        this.zipCode = zipCode;
+    }
+
+    public String getStreet() {
+        return street;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getZipCode() {
+        return zipCode;
+    }
+}
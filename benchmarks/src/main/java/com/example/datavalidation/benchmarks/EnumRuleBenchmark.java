@@ -0,0 +1,69 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.engine.rule.EnumRule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup cost of {@code enum} rules as the allowed value list grows. A linear {@link List#contains} scan is
+ * measured alongside as the baseline the hash index replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnumRuleBenchmark {
+    @Param({"5", "50", "500", "5000"})
+    public int size;
+
+    private List<String> values;
+    private EnumRule rule;
+    private EnumRule ignoreCaseRule;
+    private String hit;
+    private String hitOtherCase;
+    private String miss;
+
+    @Setup
+    public void setUp() {
+        values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add("CODE-" + i);
+        }
+        rule = new EnumRule("code", "code", "bad code", values, false);
+        ignoreCaseRule = new EnumRule("code", "code", "bad code", values, true);
+        // Worst case for the linear scan: the last value, and a value that is not present
+        hit = "CODE-" + (size - 1);
+        hitOtherCase = hit.toLowerCase();
+        miss = "CODE-" + size;
+    }
+
+    @Benchmark
+    public String enumRuleHit() {
+        return rule.check(hit);
+    }
+
+    @Benchmark
+    public String enumRuleMiss() {
+        return rule.check(miss);
+    }
+
+    @Benchmark
+    public String enumRuleIgnoreCaseHit() {
+        return ignoreCaseRule.check(hitOtherCase);
+    }
+
+    @Benchmark
+    public boolean listContainsHit() {
+        return values.contains(hit);
+    }
+
+    @Benchmark
+    public boolean listContainsMiss() {
+        return values.contains(miss);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationRuleLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ValidationEngine} with rule sets interpreted ({@code generateAfter} -1) against compiled to bytecode on
+ * first use (0), for the generated rule sets of {@link RuleSetShapeBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratedValidatorBenchmark {
+    @Param({"-1", "0"})
+    public int generateAfter;
+
+    @Param({"20", "80"})
+    public int rules;
+
+    private ValidationEngine engine;
+    private Map<String, Object> record;
+
+    @Setup
+    public void setUp() {
+        String location = RuleFiles.write(RuleSetShapeBenchmark.RULE_FILE, RuleFiles.yaml(3, rules));
+        engine = ValidationEngine.builder(new ValidationRuleLoader(location))
+                .generateAfter(generateAfter)
+                .build();
+        record = RuleFiles.record(3);
+        if (!engine.validate(record, RuleFiles.Node.class).isEmpty()) {
+            throw new IllegalStateException("Generated rules do not match the payload");
+        }
+    }
+
+    @Benchmark
+    public List<String> validateMap() {
+        return engine.validate(record, RuleFiles.Node.class);
+    }
+}
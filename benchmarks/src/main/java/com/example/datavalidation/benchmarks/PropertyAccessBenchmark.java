@@ -0,0 +1,79 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationRuleLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ValidationEngine#validate(Object)} of a POJO and of a record with eight properties and one
+ * {@code notNull} rule each, so the cost is dominated by reading the properties.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PropertyAccessBenchmark {
+    static final String RULE_FILE = "property-access.yml";
+    private static final List<String> PROPERTIES = List.of("a", "b", "c", "d", "e", "f", "g", "h");
+
+    private ValidationEngine engine;
+    private Pojo pojo;
+    private Record record;
+
+    @Setup
+    public void setUp() {
+        StringBuilder yaml = new StringBuilder("rules:\n");
+        for (String property : PROPERTIES) {
+            yaml.append("  - type: notNull\n    field: ").append(property).append('\n');
+        }
+        engine = new ValidationEngine(new ValidationRuleLoader(RuleFiles.write(RULE_FILE, yaml.toString())));
+        pojo = new Pojo("a", 1, "c", 3L, "e", 5, "g", true);
+        record = new Record("a", 1, "c", 3L, "e", 5, "g", true);
+        if (!engine.validate(pojo).isEmpty() || !engine.validate(record).isEmpty()) {
+            throw new IllegalStateException("Rules do not match the payloads");
+        }
+    }
+
+    @Benchmark
+    public List<String> pojo() {
+        return engine.validate(pojo);
+    }
+
+    @Benchmark
+    public List<String> record() {
+        return engine.validate(record);
+    }
+
+    @ValidatedBy(RULE_FILE)
+    public static final class Pojo {
+        private final String a;
+        private final int b;
+        private final String c;
+        private final long d;
+        private final String e;
+        private final Integer f;
+        private final String g;
+        private final boolean h;
+
+        Pojo(String a, int b, String c, long d, String e, Integer f, String g, boolean h) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+            this.e = e;
+            this.f = f;
+            this.g = g;
+            this.h = h;
+        }
+    }
+
+    @ValidatedBy(RULE_FILE)
+    public record Record(String a, int b, String c, long d, String e, Integer f, String g, boolean h) {
+    }
+}
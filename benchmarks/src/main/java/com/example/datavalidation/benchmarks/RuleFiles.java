@@ -0,0 +1,110 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generates rule files of a given size and nesting depth for {@link RuleSetShapeBenchmark} and
+ * {@link RuleLoaderBenchmark}.
+ * <p>
+ * Rules cycle through {@code notBlank} and {@code size} on {@code name}, {@code pattern} and {@code enum} on
+ * {@code code}, and {@code min} on {@code count}; every five rules move one level deeper through {@code child},
+ * wrapping around at {@code depth}. {@link #record(int)} and {@link Node#of(int)} build payloads that pass them.
+ */
+final class RuleFiles {
+    static final String CODE = "ABC-7";
+
+    private RuleFiles() {
+    }
+
+    static String yaml(int depth, int ruleCount) {
+        StringBuilder yaml = new StringBuilder("rules:\n");
+        for (int i = 0; i < ruleCount; i++) {
+            String prefix = "child.".repeat((i / 5) % depth);
+            yaml.append("  - name: rule-").append(i).append('\n');
+            switch (i % 5) {
+                case 0:
+                    yaml.append("    type: notBlank\n    field: ").append(prefix).append("name\n");
+                    break;
+                case 1:
+                    yaml.append("    type: size\n    field: ").append(prefix).append("name\n")
+                            .append("    min: 1\n    max: 64\n");
+                    break;
+                case 2:
+                    yaml.append("    type: pattern\n    field: ").append(prefix).append("code\n")
+                            .append("    pattern: \"^[A-Z]+-\\\\d+$\"\n");
+                    break;
+                case 3:
+                    yaml.append("    type: enum\n    field: ").append(prefix).append("code\n")
+                            .append("    values: [ABC-1, ABC-3, ABC-5, ABC-7, ABC-9]\n");
+                    break;
+                default:
+                    yaml.append("    type: min\n    field: ").append(prefix).append("count\n")
+                            .append("    value: 0\n");
+                    break;
+            }
+            yaml.append("    message: rule ").append(i).append(" failed\n");
+        }
+        return yaml.toString();
+    }
+
+    /**
+     * Writes the rule file into a new temporary directory.
+     *
+     * @return the directory, as a rules location
+     */
+    static String write(String ruleFile, String yaml) {
+        try {
+            Path dir = Files.createTempDirectory("validator-benchmark");
+            Files.write(dir.resolve(ruleFile), yaml.getBytes(StandardCharsets.UTF_8));
+            dir.toFile().deleteOnExit();
+            dir.resolve(ruleFile).toFile().deleteOnExit();
+            return "file:" + dir + "/";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return a map-shaped record nested {@code depth} levels deep
+     */
+    static Map<String, Object> record(int depth) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("name", "node-" + depth);
+        record.put("code", CODE);
+        record.put("count", depth);
+        if (depth > 1) {
+            record.put("child", record(depth - 1));
+        }
+        return record;
+    }
+
+    /**
+     * The POJO counterpart of {@link #record(int)}.
+     */
+    @ValidatedBy(RuleSetShapeBenchmark.RULE_FILE)
+    public static final class Node {
+        private final String name;
+        private final String code;
+        private final int count;
+        private final Node child;
+
+        private Node(String name, String code, int count, Node child) {
+            this.name = name;
+            this.code = code;
+            this.count = count;
+            this.child = child;
+        }
+
+        static Node of(int depth) {
+            return new Node("node-" + depth, CODE, depth, depth > 1 ? of(depth - 1) : null);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.engine.ValidationRuleLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ValidationRuleLoader#loadRules} cost by rule file size: a cache hit, a cache hit that re-checks the file
+ * for changes, and a full read, parse and compile of an uncached file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleLoaderBenchmark {
+    private static final String RULE_FILE = "loader-validation.yml";
+
+    @Param({"5", "50", "500"})
+    public int rules;
+
+    private ValidationRuleLoader cachedLoader;
+    private ValidationRuleLoader checkingLoader;
+
+    @Setup
+    public void setUp() throws IOException {
+        String location = RuleFiles.write(RULE_FILE, RuleFiles.yaml(3, rules));
+        cachedLoader = ValidationRuleLoader.builder(location)
+                .maxCachedRuleSets(16)
+                .refreshInterval(Duration.ofSeconds(-1))
+                .build();
+        checkingLoader = ValidationRuleLoader.builder(location)
+                .maxCachedRuleSets(16)
+                .refreshInterval(Duration.ZERO)
+                .build();
+        if (cachedLoader.loadRules(RULE_FILE).size() != rules
+                || checkingLoader.loadRules(RULE_FILE).size() != rules) {
+            throw new IllegalStateException("Generated rule file did not load");
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> loadRulesCached() throws IOException {
+        return cachedLoader.loadRules(RULE_FILE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> loadRulesChecked() throws IOException {
+        return checkingLoader.loadRules(RULE_FILE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> loadRulesUncached() throws IOException {
+        cachedLoader.invalidate(RULE_FILE);
+        return cachedLoader.loadRules(RULE_FILE);
+    }
+}
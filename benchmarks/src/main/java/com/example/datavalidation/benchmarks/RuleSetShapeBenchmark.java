@@ -0,0 +1,54 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationRuleLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ValidationEngine} cost of a valid record as the rule count and the nesting depth of the validated
+ * fields grow, for map-shaped and POJO records. See {@link RuleFiles} for the generated rules.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleSetShapeBenchmark {
+    static final String RULE_FILE = "shape-validation.yml";
+
+    @Param({"1", "3", "6"})
+    public int depth;
+
+    @Param({"5", "20", "80"})
+    public int rules;
+
+    private ValidationEngine engine;
+    private Map<String, Object> record;
+    private RuleFiles.Node node;
+
+    @Setup
+    public void setUp() {
+        String location = RuleFiles.write(RULE_FILE, RuleFiles.yaml(depth, rules));
+        engine = new ValidationEngine(new ValidationRuleLoader(location));
+        record = RuleFiles.record(depth);
+        node = RuleFiles.Node.of(depth);
+        if (!engine.validate(record, RuleFiles.Node.class).isEmpty() || !engine.validate(node).isEmpty()) {
+            throw new IllegalStateException("Generated rules do not match the payloads");
+        }
+    }
+
+    @Benchmark
+    public List<String> validateMap() {
+        return engine.validate(record, RuleFiles.Node.class);
+    }
+
+    @Benchmark
+    public List<String> validateObject() {
+        return engine.validate(node);
+    }
+}
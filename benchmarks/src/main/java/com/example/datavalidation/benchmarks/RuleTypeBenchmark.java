@@ -0,0 +1,105 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.engine.PatternCache;
+import com.example.datavalidation.engine.rule.MinRule;
+import com.example.datavalidation.engine.rule.NotBlankRule;
+import com.example.datavalidation.engine.rule.PatternRule;
+import com.example.datavalidation.engine.rule.SizeRule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single evaluation of each rule type, passing and failing, with the patterns of
+ * {@code examples/simple-validation}. {@code enum} rules are covered by {@link EnumRuleBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleTypeBenchmark {
+    private PatternRule zipCodeRule;
+    private PatternRule passwordRule;
+    private PatternRule emailRule;
+    private SizeRule sizeRule;
+    private MinRule minRule;
+    private NotBlankRule notBlankRule;
+    private List<String> tags;
+
+    @Setup
+    public void setUp() {
+        PatternCache patterns = new PatternCache();
+        zipCodeRule = new PatternRule("zip-code-format", "zipCode", null, patterns.compile("^\\d{5}(-\\d{4})?$"));
+        passwordRule = new PatternRule("password-complexity", "password", null,
+                patterns.compile("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d).+$"));
+        emailRule = new PatternRule("email-domain", "email", null,
+                patterns.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"));
+        sizeRule = new SizeRule("name-length", "name", null, 2, 50);
+        minRule = new MinRule("age-minimum", "age", null, 0);
+        notBlankRule = new NotBlankRule("name-required", "name", null);
+        tags = List.of("a", "b", "c");
+    }
+
+    @Benchmark
+    public String patternZipCodeMatch() {
+        return zipCodeRule.check("62701-1234");
+    }
+
+    @Benchmark
+    public String patternZipCodeMismatch() {
+        return zipCodeRule.check("6270");
+    }
+
+    @Benchmark
+    public String patternPasswordMatch() {
+        return passwordRule.check("Secret123");
+    }
+
+    @Benchmark
+    public String patternEmailMatch() {
+        return emailRule.check("jane.doe@example.com");
+    }
+
+    @Benchmark
+    public String sizeStringPass() {
+        return sizeRule.check("Jane Doe");
+    }
+
+    @Benchmark
+    public String sizeStringFail() {
+        return sizeRule.check("J");
+    }
+
+    @Benchmark
+    public String sizeCollection() {
+        return sizeRule.check(tags);
+    }
+
+    @Benchmark
+    public String minIntegerPass() {
+        return minRule.check(42);
+    }
+
+    @Benchmark
+    public String minIntegerFail() {
+        return minRule.check(-1);
+    }
+
+    @Benchmark
+    public String minNumericString() {
+        return minRule.check("42");
+    }
+
+    @Benchmark
+    public String notBlankPass() {
+        return notBlankRule.check("Jane");
+    }
+
+    @Benchmark
+    public String notBlankFail() {
+        return notBlankRule.check("   ");
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+
+/**
+ * The user of {@code examples/simple-validation}, validated by {@code benchmark-rules/user-validation.yml}.
+ */
+@ValidatedBy("user-validation.yml")
+public class User {
+    private String username;
+    private String email;
+    private String password;
+    private Address address;
+
+    public User(String username, String email, String password, Address address) {
+        this.username = username;
+        this.email = email;
+        this.password = password;
+        this.address = address;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public Address getAddress() {
+        return address;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.datavalidation.benchmarks;
+
+import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationRuleLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link ValidationEngine} cost for the user and address rules of {@code examples/simple-validation},
+ * for map-shaped and POJO records, valid and with every rule failing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserValidationBenchmark {
+    private ValidationEngine engine;
+    private Map<String, Object> validUserMap;
+    private Map<String, Object> invalidUserMap;
+    private Map<String, Object> validAddressMap;
+    private User validUser;
+    private User invalidUser;
+    private Address validAddress;
+
+    @Setup
+    public void setUp() {
+        engine = new ValidationEngine(new ValidationRuleLoader("classpath:benchmark-rules/"));
+
+        validAddress = new Address("1 Main Street", "Springfield", "IL", "62701-1234");
+        validUser = new User("jane_doe", "jane.doe@example.com", "Secret123", validAddress);
+        invalidUser = new User("jane doe!", "jane.doe@", "secret",
+                new Address("", "", "Illinois", "6270"));
+
+        validAddressMap = addressMap(validAddress);
+        validUserMap = userMap(validUser);
+        invalidUserMap = userMap(invalidUser);
+
+        // Fail early rather than measuring an error path
+        if (!engine.validate(validUserMap, User.class).isEmpty() || !engine.validate(validUser).isEmpty()
+                || engine.validate(invalidUserMap, User.class).isEmpty()) {
+            throw new IllegalStateException("Benchmark rules do not match the payloads");
+        }
+    }
+
+    @Benchmark
+    public List<String> validateMapValid() {
+        return engine.validate(validUserMap, User.class);
+    }
+
+    @Benchmark
+    public List<String> validateMapInvalid() {
+        return engine.validate(invalidUserMap, User.class);
+    }
+
+    @Benchmark
+    public List<String> validateObjectValid() {
+        return engine.validate(validUser);
+    }
+
+    @Benchmark
+    public List<String> validateObjectInvalid() {
+        return engine.validate(invalidUser);
+    }
+
+    @Benchmark
+    public List<String> validateAddressMap() {
+        return engine.validate(validAddressMap, Address.class);
+    }
+
+    @Benchmark
+    public List<String> validateAddressObject() {
+        return engine.validate(validAddress);
+    }
+
+    private static Map<String, Object> userMap(User user) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("username", user.getUsername());
+        map.put("email", user.getEmail());
+        map.put("password", user.getPassword());
+        map.put("address", addressMap(user.getAddress()));
+        return map;
+    }
+
+    private static Map<String, Object> addressMap(Address address) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("street", address.getStreet());
+        map.put("city", address.getCity());
+        map.put("state", address.getState());
+        map.put("zipCode", address.getZipCode());
+        return map;
+    }
+}
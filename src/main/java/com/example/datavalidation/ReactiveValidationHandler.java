@@ -0,0 +1,329 @@
+package com.example.datavalidation;
+
+import com.example.datavalidation.config.ValidationProperties;
+import com.example.datavalidation.engine.RuleReloader;
+import com.example.datavalidation.engine.ValidatedEntityRegistry;
+import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationError;
+import com.example.datavalidation.engine.ValidationOptions;
+import com.example.datavalidation.engine.ValidationResult;
+import com.example.datavalidation.engine.ValidationState;
+import com.example.datavalidation.engine.ValidationStateStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The validation and rule endpoints of {@link ValidationController} and {@link ValidationRuleController} for
+ * reactive applications, routed by {@link ValidationRouter}. Requests and responses are the same.
+ * <p>
+ * No thread waits on a client: bodies are decoded as they arrive and validated on the event loop, which takes
+ * microseconds per record once the entity's rule set is cached. A record whose rule set is not cached, or is due
+ * for its check for changes, is validated on the bounded elastic scheduler instead, as the rule file is read
+ * from the rules location; the rule sets of the registered entities are precompiled at startup, so this is the
+ * exception. Batch records are validated on the parallel scheduler, at most {@code validation.batch.concurrency}
+ * at a time per request, or likewise on the bounded elastic scheduler, and their results are streamed back in
+ * input order; a client that reads slowly holds back decoding of its own request and nothing else. Rule files
+ * are written on the bounded elastic scheduler, as they are persisted to disk.
+ */
+public class ReactiveValidationHandler {
+    private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final ValidationEngine validationEngine;
+    private final ValidatedEntityRegistry entityRegistry;
+    private final ObjectMapper objectMapper;
+    private final ValidationProperties properties;
+    private final ValidationStateStore stateStore;
+    private final ValidationRuleRepository ruleRepository;
+    private final RuleReloader ruleReloader;
+
+    public ReactiveValidationHandler(ValidationEngine validationEngine, ValidatedEntityRegistry entityRegistry,
+                                     ObjectMapper objectMapper, ValidationProperties properties,
+                                     ValidationStateStore stateStore, ValidationRuleRepository ruleRepository,
+                                     RuleReloader ruleReloader) {
+        this.validationEngine = validationEngine;
+        this.entityRegistry = entityRegistry;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.stateStore = stateStore;
+        this.ruleRepository = ruleRepository;
+        this.ruleReloader = ruleReloader;
+    }
+
+    /**
+     * See {@link ValidationController#validate}.
+     */
+    public Mono<ServerResponse> validate(ServerRequest request) {
+        Locale locale = locale(request);
+        return result(request).flatMap(result -> ServerResponse.ok().bodyValue(result.getMessages(locale)));
+    }
+
+    /**
+     * See {@link ValidationController#validateResult}.
+     */
+    public Mono<ServerResponse> validateResult(ServerRequest request) {
+        return result(request).flatMap(result -> ServerResponse.ok().bodyValue(result));
+    }
+
+    /**
+     * See {@link ValidationController#validateState}.
+     */
+    public Mono<ServerResponse> validateState(ServerRequest request) {
+        String entityClass = request.pathVariable("entityClass");
+        Class<?> clazz = entityRegistry.resolve(entityClass);
+        if (clazz == null) {
+            return ServerResponse.ok()
+                    .bodyValue(ValidationResult.of(ValidationError.of("entity.unknown", entityClass)));
+        }
+        ValidationOptions options = options(request, clazz);
+        return body(request.bodyToMono(MAP_TYPE))
+                .flatMap(data -> validation(clazz, () -> stored(validationEngine.checkState(data, clazz, options))))
+                .flatMap(this::stateResponse);
+    }
+
+    /**
+     * See {@link ValidationController#validatePatch}.
+     */
+    public Mono<ServerResponse> validatePatch(ServerRequest request) {
+        String entityClass = request.pathVariable("entityClass");
+        Class<?> clazz = entityRegistry.resolve(entityClass);
+        if (clazz == null) {
+            return ServerResponse.ok()
+                    .bodyValue(ValidationResult.of(ValidationError.of("entity.unknown", entityClass)));
+        }
+        String token = request.headers().firstHeader(ValidationController.TOKEN_HEADER);
+        if (token == null) {
+            return Mono.error(new ServerWebInputException(
+                    "Missing request header '" + ValidationController.TOKEN_HEADER + "'"));
+        }
+        ValidationState previous = stateStore.get(token);
+        if (previous == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Unknown or expired validation token"));
+        }
+        if (previous.getEntityClass() != clazz) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Validation token is for " + previous.getEntityClass().getName()));
+        }
+        ValidationOptions options = options(request, clazz);
+        return body(request.bodyToMono(MAP_TYPE))
+                .flatMap(patch -> validation(clazz,
+                        () -> stored(validationEngine.checkPatch(previous, patch, options))))
+                .flatMap(this::stateResponse);
+    }
+
+    /**
+     * See {@link ValidationController#validateBatch}. Records are decoded one by one from the JSON array or
+     * newline-delimited JSON as the request streams in.
+     */
+    public Mono<ServerResponse> validateBatch(ServerRequest request) {
+        String entityClass = request.pathVariable("entityClass");
+        Locale locale = locale(request);
+        Class<?> clazz = entityRegistry.resolve(entityClass);
+        if (clazz == null) {
+            return ServerResponse.badRequest()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .bodyValue(errorLine(ValidationError.of("entity.unknown", entityClass).getMessage(locale)));
+        }
+
+        ValidationOptions options = options(request, clazz);
+        int maxSize = properties.getBatch().getMaxSize();
+        int concurrency = Math.max(1, properties.getBatch().getConcurrency());
+        AtomicLong validated = new AtomicLong();
+        Flux<String> lines = request.bodyToFlux(JsonNode.class)
+                .index()
+                .<Tuple2<Long, JsonNode>>handle((record, sink) -> {
+                    if (record.getT1() >= maxSize) {
+                        sink.error(new BatchLimitException(maxSize));
+                    } else {
+                        sink.next(record);
+                    }
+                })
+                .flatMapSequentialDelayError(record -> Mono
+                        .fromCallable(() -> resultLine(record.getT1(),
+                                validationEngine.check(record.getT2(), clazz, options), locale))
+                        .subscribeOn(validationEngine.isRuleSetCached(clazz)
+                                ? Schedulers.parallel() : Schedulers.boundedElastic()), concurrency, concurrency)
+                .doOnNext(line -> validated.incrementAndGet())
+                .onErrorResume(BatchLimitException.class, e -> Mono.just(errorLine(e.getMessage())))
+                .onErrorResume(ServerWebInputException.class, e -> Mono.just(errorLine(
+                        "Malformed JSON after record " + validated.get() + ": " + rootMessage(e))));
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(lines, String.class);
+    }
+
+    /**
+     * See {@link ValidationRuleController#listRules}.
+     */
+    public Mono<ServerResponse> listRules(ServerRequest request) {
+        return ServerResponse.ok().bodyValue(ruleRepository.getSnapshot().getRuleNames());
+    }
+
+    /**
+     * See {@link ValidationRuleController#getRule}.
+     */
+    public Mono<ServerResponse> getRule(ServerRequest request) {
+        String ruleName = request.pathVariable("ruleName");
+        StoredRule rule = ruleRepository.getSnapshot().getRule(ruleName);
+        if (rule == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "No rule file " + ruleName));
+        }
+        return ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue(rule.getContent());
+    }
+
+    /**
+     * See {@link ValidationRuleController#saveRule}.
+     */
+    public Mono<ServerResponse> saveRule(ServerRequest request) {
+        Optional<String> ruleName = request.queryParam("ruleName");
+        if (ruleName.isEmpty()) {
+            return Mono.error(new ServerWebInputException("Missing request parameter 'ruleName'"));
+        }
+        return body(request.bodyToMono(String.class))
+                .flatMap(content -> Mono.fromCallable(() -> {
+                    ruleRepository.saveRule(ruleName.get(), content);
+                    ruleReloader.reload(ruleName.get());
+                    return content;
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(content -> ServerResponse.ok().build());
+    }
+
+    /**
+     * See {@link ValidationRuleController#deleteRule}.
+     */
+    public Mono<ServerResponse> deleteRule(ServerRequest request) {
+        String ruleName = request.pathVariable("ruleName");
+        return Mono.fromCallable(() -> {
+            ruleRepository.deleteRule(ruleName);
+            ruleReloader.reload(ruleName);
+            return ruleName;
+        }).subscribeOn(Schedulers.boundedElastic()).flatMap(name -> ServerResponse.ok().build());
+    }
+
+    private Mono<ValidationResult> result(ServerRequest request) {
+        String entityClass = request.pathVariable("entityClass");
+        Class<?> clazz = entityRegistry.resolve(entityClass);
+        if (clazz == null) {
+            return Mono.just(ValidationResult.of(ValidationError.of("entity.unknown", entityClass)));
+        }
+        ValidationOptions options = options(request, clazz);
+        return body(request.bodyToMono(JsonNode.class))
+                .flatMap(data -> validation(clazz, () -> validationEngine.check(data, clazz, options)));
+    }
+
+    /**
+     * Runs a validation of an {@code entityClass} record on the calling thread, the event loop, if its rule set is
+     * cached, and on the bounded elastic scheduler if the rule file has to be read first.
+     */
+    private <T> Mono<T> validation(Class<?> entityClass, Callable<T> validation) {
+        Mono<T> result = Mono.fromCallable(validation);
+        return validationEngine.isRuleSetCached(entityClass)
+                ? result : result.subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * @return the state with the token it was stored under
+     */
+    private Tuple2<String, ValidationState> stored(ValidationState state) {
+        return Tuples.of(stateStore.put(state), state);
+    }
+
+    private Mono<ServerResponse> stateResponse(Tuple2<String, ValidationState> stored) {
+        return ServerResponse.ok()
+                .header(ValidationController.TOKEN_HEADER, stored.getT1())
+                .bodyValue(stored.getT2().getResult());
+    }
+
+    /**
+     * The entity's configured options with the query parameters that were given applied on top, see
+     * {@link ValidationController#validate}.
+     */
+    private ValidationOptions options(ServerRequest request, Class<?> entityClass) {
+        Integer maxErrors = request.queryParam("maxErrors").map(ReactiveValidationHandler::parseMaxErrors)
+                .orElse(null);
+        if (maxErrors != null && maxErrors < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxErrors must not be negative");
+        }
+        ValidationProperties.Options overrides = new ValidationProperties.Options();
+        overrides.setFailFast(request.queryParam("failFast").map(Boolean::valueOf).orElse(null));
+        overrides.setMaxErrors(maxErrors);
+        overrides.setSkipFieldAfterFailure(request.queryParam("skipFieldAfterFailure").map(Boolean::valueOf)
+                .orElse(null));
+        return overrides.applyTo(validationEngine.getOptions(entityClass));
+    }
+
+    private static Integer parseMaxErrors(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("maxErrors must be a number");
+        }
+    }
+
+    private static <T> Mono<T> body(Mono<T> body) {
+        return body.switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")));
+    }
+
+    private static Locale locale(ServerRequest request) {
+        Locale locale = request.exchange().getLocaleContext().getLocale();
+        return locale != null ? locale : Locale.getDefault();
+    }
+
+    private String resultLine(long index, ValidationResult result, Locale locale) throws JsonProcessingException {
+        List<String> errors = new ArrayList<>(result.getErrors().size());
+        for (ValidationError error : result.getErrors()) {
+            errors.add(error.getMessage(locale));
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("index", index);
+        line.put("valid", result.isValid());
+        line.put("errors", errors);
+        return objectMapper.writeValueAsString(line) + "\n";
+    }
+
+    private String errorLine(String message) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("error", message)) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof JsonProcessingException
+                ? ((JsonProcessingException) cause).getOriginalMessage()
+                : cause.getMessage();
+    }
+
+    private static final class BatchLimitException extends RuntimeException {
+        BatchLimitException(int maxSize) {
+            super("Batch size limit of " + maxSize + " records exceeded", null, false, false);
+        }
+    }
+}
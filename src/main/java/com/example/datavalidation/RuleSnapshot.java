@@ -0,0 +1,71 @@
+package com.example.datavalidation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable view of every rule in the {@link ValidationRuleRepository} at one version.
+ * <p>
+ * Each write to the repository publishes a new snapshot with the next version; a snapshot obtained earlier keeps
+ * showing the rules as they were.
+ */
+public final class RuleSnapshot {
+    static final RuleSnapshot EMPTY = new RuleSnapshot(0, new TreeMap<>());
+
+    private final long version;
+    private final Map<String, StoredRule> rules;
+
+    private RuleSnapshot(long version, TreeMap<String, StoredRule> rules) {
+        this.version = version;
+        this.rules = Collections.unmodifiableMap(rules);
+    }
+
+    /**
+     * @param rules the rules by name, not modified afterwards
+     */
+    static RuleSnapshot of(long version, TreeMap<String, StoredRule> rules) {
+        return new RuleSnapshot(version, rules);
+    }
+
+    /**
+     * @return a snapshot at the next version with {@code rule} added or replaced
+     */
+    RuleSnapshot with(StoredRule rule) {
+        TreeMap<String, StoredRule> next = new TreeMap<>(rules);
+        next.put(rule.getName(), rule);
+        return new RuleSnapshot(rule.getVersion(), next);
+    }
+
+    /**
+     * @return a snapshot at {@code version} without the rule
+     */
+    RuleSnapshot without(String name, long version) {
+        TreeMap<String, StoredRule> next = new TreeMap<>(rules);
+        next.remove(name);
+        return new RuleSnapshot(version, next);
+    }
+
+    /**
+     * @return the version of the last write, increasing with every write and never reused after a restart when
+     *         the rules are persisted
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the rule names in alphabetical order
+     */
+    public List<String> getRuleNames() {
+        return List.copyOf(rules.keySet());
+    }
+
+    /**
+     * @return the rule, or null if there is none with that name
+     */
+    public StoredRule getRule(String name) {
+        return rules.get(name);
+    }
+}
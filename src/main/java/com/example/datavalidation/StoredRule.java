@@ -0,0 +1,39 @@
+package com.example.datavalidation;
+
+import java.time.Instant;
+
+/**
+ * One rule file held by the {@link ValidationRuleRepository}: its content and when it was last written.
+ */
+public final class StoredRule {
+    private final String name;
+    private final String content;
+    private final long version;
+    private final Instant modified;
+
+    StoredRule(String name, String content, long version, Instant modified) {
+        this.name = name;
+        this.content = content;
+        this.version = version;
+        this.modified = modified;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * @return the repository version that last wrote this rule
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getModified() {
+        return modified;
+    }
+}
@@ -1,30 +1,243 @@
 package com.example.datavalidation;
 
+import com.example.datavalidation.config.ValidationProperties;
+import com.example.datavalidation.engine.ValidatedEntityRegistry;
 import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationError;
+import com.example.datavalidation.engine.ValidationOptions;
+import com.example.datavalidation.engine.ValidationResult;
+import com.example.datavalidation.engine.ValidationState;
+import com.example.datavalidation.engine.ValidationStateStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/validation")
 public class ValidationController {
+    // Push results to the client every this many records, the generator buffers in between
+    private static final int FLUSH_INTERVAL = 64;
+    static final String TOKEN_HEADER = "Validation-Token";
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final ValidationEngine validationEngine;
+    private final ValidatedEntityRegistry entityRegistry;
     private final ObjectMapper objectMapper;
+    private final ValidationProperties properties;
+    private final ValidationStateStore stateStore;
 
-    public ValidationController(ValidationEngine validationEngine, ObjectMapper objectMapper) {
+    public ValidationController(ValidationEngine validationEngine, ValidatedEntityRegistry entityRegistry,
+                                ObjectMapper objectMapper, ValidationProperties properties,
+                                ValidationStateStore stateStore) {
         this.validationEngine = validationEngine;
+        this.entityRegistry = entityRegistry;
         this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.stateStore = stateStore;
     }
 
+    /**
+     * Validates one record. {@code entityClass} is either the fully-qualified name or the alias of an entity
+     * registered in the {@link ValidatedEntityRegistry}, e.g. {@code /validate/user}. The optional
+     * {@code failFast}, {@code maxErrors} and {@code skipFieldAfterFailure} parameters override the entity's
+     * configured {@link ValidationOptions} for this request; all validation endpoints accept them.
+     * <p>
+     * The body is validated as a {@link JsonNode} and never converted to a {@code Map}: entities validated by a
+     * JSON Schema ({@code .json} rule file) are checked against the request's JSON as it is, and YAML rules read
+     * only the fields on their paths from it.
+     */
     @PostMapping("/validate/{entityClass}")
-    public List<String> validate(@RequestBody Map<String, Object> data, @PathVariable String entityClass) {
-        try {
-            Class<?> clazz = Class.forName(entityClass);
-            return validationEngine.validate(data, clazz);
-        } catch (ClassNotFoundException e) {
-            return List.of("Invalid entity class: " + entityClass);
+    public List<String> validate(@RequestBody JsonNode data, @PathVariable String entityClass,
+                                 @RequestParam(required = false) Boolean failFast,
+                                 @RequestParam(required = false) Integer maxErrors,
+                                 @RequestParam(required = false) Boolean skipFieldAfterFailure,
+                                 Locale locale) {
+        return validateResult(data, entityClass, failFast, maxErrors, skipFieldAfterFailure).getMessages(locale);
+    }
+
+    /**
+     * Same as {@link #validate}, answering with the structured result:
+     * {@code {"valid":false,"errors":[{"rule":..,"field":..,"code":..,"parameters":[..],"message":..}]}}.
+     * Messages are in the request's {@code Accept-Language} where a translation exists.
+     */
+    @PostMapping("/validate/{entityClass}/result")
+    public ValidationResult validateResult(@RequestBody JsonNode data, @PathVariable String entityClass,
+                                           @RequestParam(required = false) Boolean failFast,
+                                           @RequestParam(required = false) Integer maxErrors,
+                                           @RequestParam(required = false) Boolean skipFieldAfterFailure) {
+        Class<?> clazz = entityRegistry.resolve(entityClass);
+        if (clazz == null) {
+            return ValidationResult.of(ValidationError.of("entity.unknown", entityClass));
+        }
+        return validationEngine.check(data, clazz, options(clazz, failFast, maxErrors, skipFieldAfterFailure));
+    }
+
+    /**
+     * Same as {@link #validateResult}, also returning a token for the validated record in the
+     * {@code Validation-Token} response header. Changes to the record can then be validated with
+     * {@link #validatePatch} without sending the whole record again.
+     */
+    @PostMapping("/validate/{entityClass}/state")
+    public ValidationResult validateState(@RequestBody Map<String, Object> data, @PathVariable String entityClass,
+                                          @RequestParam(required = false) Boolean failFast,
+                                          @RequestParam(required = false) Integer maxErrors,
+                                          @RequestParam(required = false) Boolean skipFieldAfterFailure,
+                                          HttpServletResponse response) {
+        Class<?> clazz = entityRegistry.resolve(entityClass);
+        if (clazz == null) {
+            return ValidationResult.of(ValidationError.of("entity.unknown", entityClass));
+        }
+        ValidationState state = validationEngine.checkState(data, clazz,
+                options(clazz, failFast, maxErrors, skipFieldAfterFailure));
+        response.setHeader(TOKEN_HEADER, stateStore.put(state));
+        return state.getResult();
+    }
+
+    /**
+     * Validates a JSON Merge Patch (RFC 7386) to the record of a {@code Validation-Token} from {@link #validateState}
+     * or an earlier patch. Only the rules on the patched field paths, and on the paths above and below them, run
+     * again. Answers like {@link #validateResult} for the patched record, with the patched record's token in the
+     * {@code Validation-Token} header; the patched token stays valid. An unknown or expired token is answered with
+     * {@code 412 Precondition Failed}, after which the client sends the whole record to {@link #validateState}.
+     */
+    @PatchMapping(value = "/validate/{entityClass}",
+            consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ValidationResult validatePatch(@RequestBody Map<String, Object> patch, @PathVariable String entityClass,
+                                          @RequestHeader(TOKEN_HEADER) String token,
+                                          @RequestParam(required = false) Boolean failFast,
+                                          @RequestParam(required = false) Integer maxErrors,
+                                          @RequestParam(required = false) Boolean skipFieldAfterFailure,
+                                          HttpServletResponse response) {
+        Class<?> clazz = entityRegistry.resolve(entityClass);
+        if (clazz == null) {
+            return ValidationResult.of(ValidationError.of("entity.unknown", entityClass));
+        }
+        ValidationState previous = stateStore.get(token);
+        if (previous == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Unknown or expired validation token");
+        }
+        if (previous.getEntityClass() != clazz) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Validation token is for " + previous.getEntityClass().getName());
+        }
+        ValidationState state = validationEngine.checkPatch(previous, patch,
+                options(clazz, failFast, maxErrors, skipFieldAfterFailure));
+        response.setHeader(TOKEN_HEADER, stateStore.put(state));
+        return state.getResult();
+    }
+
+    /**
+     * Validates a batch of records, given either as a JSON array or as newline-delimited JSON, and streams one
+     * NDJSON result line per record back as it is validated: {@code {"index":0,"valid":false,"errors":[...]}}.
+     * <p>
+     * Records are validated one at a time straight from the token stream, without building a {@code Map} per
+     * record, so memory use does not depend on the batch size. A record
+     * that is not a JSON object gets an error result; malformed JSON or exceeding
+     * {@code validation.batch.max-size} ends the stream with a final {@code {"error":"..."}} line.
+     */
+    @PostMapping(value = "/validate/{entityClass}/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void validateBatch(@PathVariable String entityClass, InputStream body, HttpServletResponse response,
+                              @RequestParam(required = false) Boolean failFast,
+                              @RequestParam(required = false) Integer maxErrors,
+                              @RequestParam(required = false) Boolean skipFieldAfterFailure,
+                              Locale locale) throws IOException {
+        Class<?> clazz = entityRegistry.resolve(entityClass);
+        if (clazz == null) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            try (JsonGenerator generator = createGenerator(response.getOutputStream())) {
+                writeError(generator, ValidationError.of("entity.unknown", entityClass).getMessage(locale));
+            }
+            return;
+        }
+
+        ValidationOptions options = options(clazz, failFast, maxErrors, skipFieldAfterFailure);
+        int maxSize = properties.getBatch().getMaxSize();
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body);
+             JsonGenerator generator = createGenerator(response.getOutputStream())) {
+            int index = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    if (index >= maxSize) {
+                        writeError(generator, "Batch size limit of " + maxSize + " records exceeded");
+                        return;
+                    }
+                    writeResult(generator, index, validationEngine.check(parser, clazz, options), locale);
+                    if (++index % FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                writeError(generator, "Malformed JSON after record " + index + ": " + e.getOriginalMessage());
+            }
         }
     }
+
+    /**
+     * The entity's configured options with the query parameters that were given applied on top.
+     */
+    private ValidationOptions options(Class<?> entityClass, Boolean failFast, Integer maxErrors,
+                                      Boolean skipFieldAfterFailure) {
+        if (maxErrors != null && maxErrors < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxErrors must not be negative");
+        }
+        ValidationProperties.Options overrides = new ValidationProperties.Options();
+        overrides.setFailFast(failFast);
+        overrides.setMaxErrors(maxErrors);
+        overrides.setSkipFieldAfterFailure(skipFieldAfterFailure);
+        return overrides.applyTo(validationEngine.getOptions(entityClass));
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // Lines are terminated explicitly, don't let Jackson put a space between root values
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private static void writeResult(JsonGenerator generator, int index, ValidationResult result, Locale locale)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeBooleanField("valid", result.isValid());
+        generator.writeArrayFieldStart("errors");
+        for (ValidationError error : result.getErrors()) {
+            generator.writeString(error.getMessage(locale));
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeError(JsonGenerator generator, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("error", message);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
 }
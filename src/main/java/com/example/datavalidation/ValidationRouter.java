@@ -0,0 +1,63 @@
+package com.example.datavalidation;
+
+import com.example.datavalidation.config.ValidationAutoConfiguration;
+import com.example.datavalidation.config.ValidationProperties;
+import com.example.datavalidation.engine.RuleReloader;
+import com.example.datavalidation.engine.ValidatedEntityRegistry;
+import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationStateStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+
+/**
+ * Routes the validation and rule endpoints to a {@link ReactiveValidationHandler} when the application runs on
+ * WebFlux, e.g. with {@code spring-boot-starter-webflux} instead of {@code spring-boot-starter-web}. Servlet
+ * applications get {@link ValidationController} and {@link ValidationRuleController} instead.
+ * <p>
+ * Registered as an auto-configuration, so the routes do not depend on the application scanning this package.
+ */
+@AutoConfiguration(after = ValidationAutoConfiguration.class)
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.server.RouterFunction")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ValidationRouter {
+
+    @Bean
+    public ReactiveValidationHandler reactiveValidationHandler(ValidationEngine validationEngine,
+                                                               ValidatedEntityRegistry entityRegistry,
+                                                               ObjectMapper objectMapper,
+                                                               ValidationProperties properties,
+                                                               ValidationStateStore stateStore,
+                                                               ValidationRuleRepository ruleRepository,
+                                                               RuleReloader ruleReloader) {
+        return new ReactiveValidationHandler(validationEngine, entityRegistry, objectMapper, properties, stateStore,
+                ruleRepository, ruleReloader);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> validationRoutes(ReactiveValidationHandler handler) {
+        MediaType mergePatch = MediaType.parseMediaType(ValidationController.MERGE_PATCH_JSON_VALUE);
+        return RouterFunctions.route()
+                .path("/api/validation/validate/{entityClass}", builder -> builder
+                        .POST("", handler::validate)
+                        .POST("/result", handler::validateResult)
+                        .POST("/state", handler::validateState)
+                        .POST("/batch", contentType(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON),
+                                handler::validateBatch)
+                        .PATCH("", contentType(mergePatch, MediaType.APPLICATION_JSON), handler::validatePatch))
+                .path("/rules", builder -> builder
+                        .GET("", handler::listRules)
+                        .POST("", handler::saveRule)
+                        .GET("/{ruleName}", handler::getRule)
+                        .DELETE("/{ruleName}", handler::deleteRule))
+                .build();
+    }
+}
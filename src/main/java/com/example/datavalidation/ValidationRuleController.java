@@ -1,16 +1,21 @@
 package com.example.datavalidation;
 
+import com.example.datavalidation.engine.RuleReloader;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.*;
 import java.io.IOException;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/rules")
 public class ValidationRuleController {
     private final ValidationRuleRepository repository;
+    private final RuleReloader ruleReloader;
 
-    public ValidationRuleController(ValidationRuleRepository repository) {
+    public ValidationRuleController(ValidationRuleRepository repository, RuleReloader ruleReloader) {
         this.repository = repository;
+        this.ruleReloader = ruleReloader;
     }
 
     @GetMapping
@@ -26,10 +31,12 @@ public class ValidationRuleController {
     @PostMapping
     public void saveRule(@RequestParam String ruleName, @RequestBody String content) throws IOException {
         repository.saveRule(ruleName, content);
+        ruleReloader.reload(ruleName);
     }
 
     @DeleteMapping("/{ruleName}")
     public void deleteRule(@PathVariable String ruleName) throws IOException {
         repository.deleteRule(ruleName);
+        ruleReloader.reload(ruleName);
     }
 }
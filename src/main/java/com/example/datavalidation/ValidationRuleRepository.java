@@ -1,126 +1,204 @@
 package com.example.datavalidation;
 
 import com.example.datavalidation.config.ValidationProperties;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
-import org.springframework.stereotype.Component;
-import jakarta.annotation.PreDestroy;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import java.nio.file.*;
+import java.time.Instant;
 import java.util.*;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 
-@Component
+/**
+ * Holds the rule files served by the {@code /rules} API in memory, as immutable {@link RuleSnapshot}s.
+ * <p>
+ * Rules are read once from the rules location, at startup and on {@link #reload()}; reads never touch the disk.
+ * For a {@code file:} location every write is also persisted: the rule file is written to a temporary
+ * {@code .rule-write-*.tmp} file and renamed over the old one, so it is never seen half-written, and the change
+ * is appended to the {@value #CHANGE_LOG} file in the rules directory. The log keeps the version sequence across
+ * restarts. Once it holds {@code validation.rules.change-log-max-entries} changes it is renamed to
+ * {@value #CHANGE_LOG}{@code .1}, replacing the previous backup, and a new log is started. For other locations
+ * writes are kept in memory only.
+ * <p>
+ * Defined by {@link com.example.datavalidation.config.ValidationAutoConfiguration} in web applications, unless
+ * the application defines its own.
+ */
 public class ValidationRuleRepository {
+    static final String CHANGE_LOG = ".rule-changes.log";
+    static final String PREVIOUS_CHANGE_LOG = CHANGE_LOG + ".1";
+    private static final String[] EXTENSIONS = {"json", "yml", "yaml"};
+    private static final String TEMP_PREFIX = ".rule-write-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
     private final String rulesLocation;
-    private final String rulesFile;
-    private Path tempDirectory;
+    private final Path directory;
+    private final int changeLogMaxEntries;
+    private volatile RuleSnapshot snapshot = RuleSnapshot.EMPTY;
+    // Changes in the current change log, guarded by this
+    private int changeLogEntries;
 
-    @Autowired
     public ValidationRuleRepository(ValidationProperties properties) {
         this.rulesLocation = properties.getRules().getLocation();
-        this.rulesFile = properties.getRules().getFile();
-        initializeTempDirectory();
+        this.directory = rulesLocation.startsWith("file:")
+                ? Paths.get(rulesLocation.substring("file:".length()))
+                : null;
+        this.changeLogMaxEntries = Math.max(1, properties.getRules().getChangeLogMaxEntries());
+        try {
+            reload();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize rules directory", e);
+        }
     }
 
-    private void initializeTempDirectory() {
-        try {
-            if (rulesLocation.startsWith("file:")) {
-                String path = rulesLocation.substring("file:".length());
-                tempDirectory = Paths.get(path);
-                Files.createDirectories(tempDirectory);
-            } else {
-                // For both classpath and regular paths, use a temp directory
-                tempDirectory = Files.createTempDirectory("validation-rules-");
-                
-                // If it's a classpath resource, copy the files
-                if (rulesLocation.startsWith("classpath:")) {
-                    String path = rulesLocation.substring("classpath:".length());
-                    copyClasspathResources(path);
+    /**
+     * @return the current rules
+     */
+    public RuleSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Reads every rule again from the rules location, replacing the rules in memory, e.g. after rule files were
+     * changed on disk. The version keeps increasing.
+     */
+    public synchronized void reload() throws IOException {
+        long version = Math.max(snapshot.getVersion(), lastLoggedVersion()) + 1;
+        Instant now = Instant.now();
+        TreeMap<String, StoredRule> rules = new TreeMap<>();
+        if (directory != null) {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path entry : stream) {
+                    String name = entry.getFileName().toString();
+                    if (name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX)) {
+                        // Left over from a write of ours that did not complete
+                        Files.deleteIfExists(entry);
+                    } else if (isRuleFile(name) && Files.isRegularFile(entry)) {
+                        rules.put(name, new StoredRule(name, Files.readString(entry), version,
+                                Files.getLastModifiedTime(entry).toInstant()));
+                    }
+                }
+            }
+        } else if (rulesLocation.startsWith("classpath:")) {
+            String path = rulesLocation.substring("classpath:".length());
+            path = path.endsWith("/") ? path : path + "/";
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+            for (String extension : EXTENSIONS) {
+                for (Resource resource : resolver.getResources("classpath*:" + path + "*." + extension)) {
+                    String name = resource.getFilename();
+                    if (name != null && !rules.containsKey(name) && resource.isReadable()) {
+                        try (InputStream is = resource.getInputStream()) {
+                            rules.put(name, new StoredRule(name, new String(is.readAllBytes(), StandardCharsets.UTF_8),
+                                    version, now));
+                        }
+                    }
                 }
             }
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to initialize rules directory", e);
         }
+        snapshot = RuleSnapshot.of(version, rules);
     }
 
-    private void copyClasspathResources(String path) throws IOException {
-        Resource resource = new ClassPathResource(path);
-        if (resource.exists() && resource.isReadable()) {
-            try (InputStream is = resource.getInputStream()) {
-                Files.copy(is, tempDirectory.resolve(rulesFile), StandardCopyOption.REPLACE_EXISTING);
-            }
+    public List<String> listRuleNames() throws IOException {
+        return snapshot.getRuleNames();
+    }
+
+    public String loadRule(String fileName) throws IOException {
+        StoredRule rule = snapshot.getRule(fileName);
+        if (rule == null) {
+            throw new NoSuchFileException(fileName);
         }
+        return rule.getContent();
     }
 
-    @PreDestroy
-    public void cleanup() {
-        if (tempDirectory != null && Files.exists(tempDirectory)) {
+    public synchronized void saveRule(String ruleName, String content) throws IOException {
+        long version = snapshot.getVersion() + 1;
+        Instant now = Instant.now();
+        if (directory != null) {
+            Path rulePath = directory.resolve(ruleName);
+            Path temp = rulePath.resolveSibling(TEMP_PREFIX + rulePath.getFileName() + TEMP_SUFFIX);
+            Files.writeString(temp, content, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
             try {
-                Files.walk(tempDirectory)
-                    .sorted(Comparator.reverseOrder())
-                    .forEach(p -> {
-                        try {
-                            Files.delete(p);
-                        } catch (IOException e) {
-                            // Log but don't throw
-                            System.err.println("Failed to delete: " + p);
-                        }
-                    });
-            } catch (IOException e) {
-                System.err.println("Failed to cleanup temp directory: " + tempDirectory);
+                Files.move(temp, rulePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, rulePath, StandardCopyOption.REPLACE_EXISTING);
             }
+            logChange(version, "save", ruleName, now);
         }
+        snapshot = snapshot.with(new StoredRule(ruleName, content, version, now));
     }
 
-    private Path getRulesDirectory() {
-        return tempDirectory;
+    public synchronized void deleteRule(String ruleName) throws IOException {
+        if (snapshot.getRule(ruleName) == null && (directory == null || !Files.exists(directory.resolve(ruleName)))) {
+            return;
+        }
+        long version = snapshot.getVersion() + 1;
+        if (directory != null) {
+            Files.deleteIfExists(directory.resolve(ruleName));
+            logChange(version, "delete", ruleName, Instant.now());
+        }
+        snapshot = snapshot.without(ruleName, version);
     }
 
-    public List<String> listRuleNames() throws IOException {
-        Path dir = getRulesDirectory();
-        if (!Files.exists(dir)) {
-            Files.createDirectories(dir);
-        }
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.{json,yml,yaml}")) {
-            List<String> names = new ArrayList<>();
-            for (Path entry : stream) {
-                names.add(entry.getFileName().toString());
+    private void logChange(long version, String operation, String ruleName, Instant time) throws IOException {
+        Path log = directory.resolve(CHANGE_LOG);
+        if (changeLogEntries >= changeLogMaxEntries) {
+            // The rotated log still holds the last version in case the new one is lost before its first line
+            try {
+                Files.move(log, directory.resolve(PREVIOUS_CHANGE_LOG), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(log, directory.resolve(PREVIOUS_CHANGE_LOG), StandardCopyOption.REPLACE_EXISTING);
+            } catch (NoSuchFileException e) {
+                // Removed by someone else; there is nothing to keep
             }
-            return names;
+            changeLogEntries = 0;
         }
+        String line = version + "\t" + operation + "\t" + time + "\t" + ruleName + "\n";
+        Files.writeString(log, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        changeLogEntries++;
     }
 
-    public String loadRule(String fileName) throws IOException {
-        Path rulePath = getRulesDirectory().resolve(fileName);
-        if (!Files.exists(rulePath)) {
-            // Try loading from classpath if file doesn't exist in temp directory
-            if (rulesLocation.startsWith("classpath:")) {
-                Resource resource = new ClassPathResource(rulesLocation.substring("classpath:".length()) + "/" + fileName);
-                if (resource.exists()) {
-                    try (InputStream is = resource.getInputStream()) {
-                        byte[] content = is.readAllBytes();
-                        String ruleContent = new String(content, StandardCharsets.UTF_8);
-                        // Cache the content in temp directory
-                        Files.writeString(rulePath, ruleContent);
-                        return ruleContent;
-                    }
+    /**
+     * Reads the change log and its rotated predecessor, and counts the changes of the current log.
+     *
+     * @return the version of the last change logged, or 0 if nothing was logged
+     */
+    private long lastLoggedVersion() throws IOException {
+        if (directory == null) {
+            return 0;
+        }
+        long version = 0;
+        changeLogEntries = 0;
+        for (String fileName : new String[] {PREVIOUS_CHANGE_LOG, CHANGE_LOG}) {
+            Path log = directory.resolve(fileName);
+            if (!Files.isRegularFile(log)) {
+                continue;
+            }
+            List<String> lines = Files.readAllLines(log);
+            for (String line : lines) {
+                int tab = line.indexOf('\t');
+                try {
+                    version = Math.max(version, Long.parseLong(tab < 0 ? line : line.substring(0, tab)));
+                } catch (NumberFormatException e) {
+                    // A line torn by a crash while appending
                 }
             }
-            throw new NoSuchFileException(rulePath.toString());
+            if (fileName.equals(CHANGE_LOG)) {
+                changeLogEntries = lines.size();
+            }
         }
-        return Files.readString(rulePath);
+        return version;
     }
 
-    public void saveRule(String ruleName, String content) throws IOException {
-        Path rulePath = getRulesDirectory().resolve(ruleName);
-        Files.writeString(rulePath, content);
-    }
-
-    public void deleteRule(String ruleName) throws IOException {
-        Path rulePath = getRulesDirectory().resolve(ruleName);
-        Files.deleteIfExists(rulePath);
+    private static boolean isRuleFile(String name) {
+        for (String extension : EXTENSIONS) {
+            if (name.endsWith("." + extension)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -7,8 +7,9 @@ import java.lang.annotation.Target;
 
 /**
  * Annotation to specify the validation rules file for a class.
- * The rules file should be in YAML format and contain validation rules
- * for the annotated class's fields.
+ * The rules file is either a YAML file ({@code .yml} or {@code .yaml}) containing
+ * validation rules for the annotated class's fields, or a JSON Schema ({@code .json})
+ * the class's records must conform to.
  */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
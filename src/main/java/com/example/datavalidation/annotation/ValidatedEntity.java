@@ -12,4 +12,10 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ValidatedEntity {
+    /**
+     * Short name the entity is addressed by in the REST API, e.g. {@code user} for
+     * {@code /api/validation/validate/user}. Defaults to the lower-cased simple class name.
+     * @return the entity alias
+     */
+    String value() default "";
 } 
\ No newline at end of file
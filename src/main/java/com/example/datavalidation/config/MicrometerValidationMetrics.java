@@ -0,0 +1,172 @@
+package com.example.datavalidation.config;
+
+import com.example.datavalidation.engine.RuleSetSource;
+import com.example.datavalidation.engine.ValidationMetrics;
+import com.example.datavalidation.engine.ValidationResultCache;
+import com.example.datavalidation.engine.ValidationRuleLoader;
+import com.example.datavalidation.engine.rule.CompiledRule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link ValidationMetrics} to a Micrometer {@link MeterRegistry}:
+ * <ul>
+ *     <li>{@code validation.requests}: timer per validated record, tagged {@code entity} and {@code outcome}</li>
+ *     <li>{@code validation.rule.failures}: counter per rule, tagged {@code rule}, {@code type}, {@code field}
+ *     and the rule {@code file}</li>
+ *     <li>{@code validation.rule.duration}: timer per rule with the same tags, only when rule timing is on</li>
+ *     <li>{@code validation.ruleset.load}: timer per rule file, tagged {@code file} and {@code source}
+ *     ({@code yaml}, {@code schema}, {@code index} or {@code snapshot})</li>
+ *     <li>{@code validation.ruleset.cache.*} and {@code validation.pattern.cache.size}: the loader's cache
+ *     statistics</li>
+ *     <li>{@code validation.result.cache.*}: the engine's result cache statistics, if it has one</li>
+ * </ul>
+ * Meters are looked up once per entity class or compiled rule and kept, so recording is an identity map lookup
+ * and a meter update, without allocating. The meters of a rule file's previous rules are forgotten when the file
+ * is loaded again.
+ */
+public class MicrometerValidationMetrics implements ValidationMetrics {
+    private final MeterRegistry registry;
+    private final boolean ruleTiming;
+    private final ConcurrentMap<Class<?>, EntityMeters> entityMeters = new ConcurrentHashMap<>();
+    // Keyed by rule instance, which compares by identity; the registry hands a reloaded rule the same meter
+    private final ConcurrentMap<CompiledRule, Counter> ruleFailures = new ConcurrentHashMap<>();
+    private final ConcurrentMap<CompiledRule, Timer> ruleTimers = new ConcurrentHashMap<>();
+
+    /**
+     * @param ruleTiming whether every rule evaluation is timed; adds two clock reads per rule
+     */
+    public MicrometerValidationMetrics(MeterRegistry registry, boolean ruleTiming) {
+        this.registry = registry;
+        this.ruleTiming = ruleTiming;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isRuleTimingEnabled() {
+        return ruleTiming;
+    }
+
+    @Override
+    public void recordValidation(Class<?> entityClass, long nanos, boolean valid) {
+        EntityMeters meters = entityMeters.get(entityClass);
+        if (meters == null) {
+            meters = entityMeters.computeIfAbsent(entityClass, this::entityMeters);
+        }
+        (valid ? meters.valid : meters.invalid).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRule(String ruleFile, CompiledRule rule, long nanos) {
+        Timer timer = ruleTimers.get(rule);
+        if (timer == null) {
+            timer = ruleTimers.computeIfAbsent(rule, r -> Timer.builder("validation.rule.duration")
+                    .description("Time spent evaluating a single rule")
+                    .tags(ruleTags(ruleFile, r))
+                    .register(registry));
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRuleFailure(String ruleFile, CompiledRule rule) {
+        Counter counter = ruleFailures.get(rule);
+        if (counter == null) {
+            counter = ruleFailures.computeIfAbsent(rule, r -> Counter.builder("validation.rule.failures")
+                    .description("Number of times a rule reported an error")
+                    .tags(ruleTags(ruleFile, r))
+                    .register(registry));
+        }
+        counter.increment();
+    }
+
+    @Override
+    public void recordRuleSetLoad(String ruleFile, long nanos, RuleSetSource source) {
+        // The file's rules were replaced; the meters stay registered and are found again through their tags
+        ruleFailures.values().removeIf(counter -> ruleFile.equals(counter.getId().getTag("file")));
+        ruleTimers.values().removeIf(timer -> ruleFile.equals(timer.getId().getTag("file")));
+        Timer.builder("validation.ruleset.load")
+                .description("Time spent reading and compiling a rule file")
+                .tags("file", ruleFile, "source", source.getTag())
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void monitor(ValidationRuleLoader ruleLoader) {
+        FunctionCounter.builder("validation.ruleset.cache.hits", ruleLoader,
+                        loader -> loader.getCacheStats().getHitCount())
+                .description("Rule set lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("validation.ruleset.cache.misses", ruleLoader,
+                        loader -> loader.getCacheStats().getMissCount())
+                .description("Rule set lookups that had to read the rule file")
+                .register(registry);
+        FunctionCounter.builder("validation.ruleset.cache.evictions", ruleLoader,
+                        loader -> loader.getCacheStats().getEvictionCount())
+                .register(registry);
+        Gauge.builder("validation.ruleset.cache.size", ruleLoader, loader -> loader.getCacheStats().getSize())
+                .register(registry);
+        Gauge.builder("validation.ruleset.cache.hit.ratio", ruleLoader,
+                        loader -> loader.getCacheStats().getHitRate())
+                .register(registry);
+        Gauge.builder("validation.pattern.cache.size", ruleLoader, loader -> loader.getPatternCache().size())
+                .register(registry);
+    }
+
+    @Override
+    public void monitor(ValidationResultCache resultCache) {
+        FunctionCounter.builder("validation.result.cache.hits", resultCache, ValidationResultCache::getHitCount)
+                .description("Records answered with the cached result of an identical record")
+                .register(registry);
+        FunctionCounter.builder("validation.result.cache.misses", resultCache, ValidationResultCache::getMissCount)
+                .description("Records that had to be validated")
+                .register(registry);
+        FunctionCounter.builder("validation.result.cache.evictions", resultCache,
+                        ValidationResultCache::getEvictionCount)
+                .register(registry);
+        Gauge.builder("validation.result.cache.size", resultCache, ValidationResultCache::size)
+                .register(registry);
+        Gauge.builder("validation.result.cache.hit.ratio", resultCache, ValidationResultCache::getHitRate)
+                .register(registry);
+    }
+
+    private static Tags ruleTags(String ruleFile, CompiledRule rule) {
+        String field = rule.getField() != null ? rule.getField() : "";
+        String name = rule.getName() != null ? rule.getName() : field + "." + rule.getType();
+        return Tags.of("rule", name, "type", rule.getType(), "field", field, "file", ruleFile);
+    }
+
+    private EntityMeters entityMeters(Class<?> entityClass) {
+        return new EntityMeters(requestTimer(entityClass, "valid"), requestTimer(entityClass, "invalid"));
+    }
+
+    private Timer requestTimer(Class<?> entityClass, String outcome) {
+        return Timer.builder("validation.requests")
+                .description("Time spent validating a record")
+                .tags("entity", entityClass.getName(), "outcome", outcome)
+                .register(registry);
+    }
+
+    private static final class EntityMeters {
+        final Timer valid;
+        final Timer invalid;
+
+        EntityMeters(Timer valid, Timer invalid) {
+            this.valid = valid;
+            this.invalid = invalid;
+        }
+    }
+}
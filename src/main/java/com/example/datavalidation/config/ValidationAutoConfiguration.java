@@ -1,17 +1,51 @@
 package com.example.datavalidation.config;
 
+import com.example.datavalidation.ValidationRuleRepository;
+import com.example.datavalidation.engine.RuleReloader;
+import com.example.datavalidation.engine.RuleSetSnapshot;
+import com.example.datavalidation.engine.ValidatedEntityRegistry;
 import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationMetrics;
+import com.example.datavalidation.engine.ValidationOptions;
+import com.example.datavalidation.engine.ValidationResultCache;
+import com.example.datavalidation.engine.RuleIndex;
 import com.example.datavalidation.engine.ValidationRuleLoader;
+import com.example.datavalidation.engine.ValidationStateStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.util.StringUtils;
 
-@Configuration
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The validation engine and its collaborators, every bean backing off when the application defines its own.
+ * Listed in {@code META-INF/spring/org.springframework.boot.autoconfigure.AutoConfiguration.imports}, so it
+ * applies without the application scanning this package.
+ */
+@AutoConfiguration
 @EnableConfigurationProperties(ValidationProperties.class)
-@ComponentScan(basePackages = {"com.example.datavalidation.engine"})
 public class ValidationAutoConfiguration {
 
     private final ValidationProperties properties;
@@ -20,19 +54,175 @@ public class ValidationAutoConfiguration {
         this.properties = properties;
     }
 
+    /**
+     * Keeps the parsed YAML and {@code enum} tables of rule files outside the packaged rule index in
+     * {@code validation.rules.snapshot-directory} for the next start. Written once the entities' rule sets are
+     * precompiled, after the warm-up, and again on shutdown if the loaded files changed since.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "validation.rules", name = "snapshot-directory")
+    public RuleSetSnapshot ruleSetSnapshot() {
+        return new RuleSetSnapshot(Paths.get(properties.getRules().getSnapshotDirectory()));
+    }
+
+    /**
+     * Compiles the rule sets of the snapshot once the application context is up, see
+     * {@link ValidationRuleLoader#warmUp()}. Readiness is {@link ReadinessState#REFUSING_TRAFFIC} meanwhile:
+     * Spring Boot only switches it to accepting traffic after every application runner has completed.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "validation.rules", name = "snapshot-directory")
+    public ApplicationRunner ruleSetSnapshotWarmUp(ValidationRuleLoader ruleLoader,
+                                                   ObjectProvider<RuleSetSnapshot> ruleSetSnapshot,
+                                                   ApplicationEventPublisher eventPublisher) {
+        return args -> {
+            AvailabilityChangeEvent.publish(eventPublisher, ruleLoader, ReadinessState.REFUSING_TRAFFIC);
+            ruleLoader.warmUp();
+            ruleSetSnapshot.ifAvailable(RuleSetSnapshot::write);
+        };
+    }
+
     @Bean
     @ConditionalOnMissingBean
-    public ValidationRuleLoader validationRuleLoader() {
+    public ValidationRuleLoader validationRuleLoader(ObjectProvider<ValidationMetrics> validationMetrics,
+                                                     ObjectProvider<RuleSetSnapshot> ruleSetSnapshot) {
         String rulesLocation = properties.getRules().getLocation();
         if (!StringUtils.hasText(rulesLocation)) {
             rulesLocation = "classpath:validation/";
         }
-        return new ValidationRuleLoader(rulesLocation);
+        ValidationProperties.Cache cache = properties.getRules().getCache();
+        return ValidationRuleLoader.builder(rulesLocation)
+                .maxCachedRuleSets(cache.getMaxSize())
+                .refreshInterval(cache.getRefreshInterval())
+                .ruleIndex(RuleIndex.load(getClass().getClassLoader()))
+                .metrics(validationMetrics.getIfAvailable(() -> ValidationMetrics.NOOP))
+                .snapshot(ruleSetSnapshot.getIfAvailable())
+                .build();
+    }
+
+    /**
+     * Recompiles rule files in the background when they change: watched on disk for a {@code file:} rules
+     * location (unless {@code validation.rules.watch} is off), and on request after writes through the REST API.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public RuleReloader ruleReloader(ValidationRuleLoader ruleLoader) throws IOException {
+        String rulesLocation = properties.getRules().getLocation();
+        Path watched = null;
+        if (properties.getRules().isWatch() && rulesLocation != null && rulesLocation.startsWith("file:")) {
+            watched = Paths.get(rulesLocation.substring("file:".length()));
+        }
+        RuleReloader reloader = new RuleReloader(ruleLoader, watched);
+        reloader.start();
+        return reloader;
+    }
+
+    /**
+     * The pool bulk validation runs on: a dedicated pool when {@code validation.bulk.parallelism} is set,
+     * otherwise the common pool (for which shutdown is a no-op).
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "validationBulkPool")
+    public ForkJoinPool validationBulkPool() {
+        int parallelism = properties.getBulk().getParallelism();
+        return parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * The engine, with the default validation options from {@code validation.options} and per-entity overrides
+     * from {@code validation.entities.options}. Rule sets are compiled to bytecode after
+     * {@code validation.bytecode.threshold} evaluations when {@code validation.bytecode.enabled} is on, and
+     * results of identical records are reused when {@code validation.result-cache.enabled} is on.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ValidationEngine validationEngine(ValidationRuleLoader ruleLoader,
+                                             @Qualifier("validationBulkPool") ForkJoinPool bulkPool,
+                                             ValidatedEntityRegistry entityRegistry,
+                                             ObjectProvider<ValidationMetrics> validationMetrics) {
+        ValidationOptions defaultOptions = properties.getOptions().applyTo(ValidationOptions.DEFAULT);
+        Map<Class<?>, ValidationOptions> entityOptions = new HashMap<>();
+        for (Map.Entry<String, ValidationProperties.Options> entry
+                : properties.getEntities().getOptions().entrySet()) {
+            Class<?> entityClass = entityRegistry.resolve(entry.getKey());
+            if (entityClass == null) {
+                throw new IllegalStateException("validation.entities.options refers to unknown entity '"
+                        + entry.getKey() + "'");
+            }
+            entityOptions.put(entityClass, entry.getValue().applyTo(defaultOptions));
+        }
+        ValidationProperties.ResultCache resultCache = properties.getResultCache();
+        ValidationProperties.Bytecode bytecode = properties.getBytecode();
+        return ValidationEngine.builder(ruleLoader)
+                .bulkPool(bulkPool)
+                .defaultOptions(defaultOptions)
+                .entityOptions(entityOptions)
+                .metrics(validationMetrics.getIfAvailable(() -> ValidationMetrics.NOOP))
+                .generateAfter(bytecode.isEnabled() ? Math.max(bytecode.getThreshold(), 0) : -1)
+                .resultCache(resultCache.isEnabled()
+                        ? new ValidationResultCache(resultCache.getMaxSize(), resultCache.getTtl())
+                        : null)
+                .build();
+    }
+
+    /**
+     * The validated records REST clients can send merge patches for, see {@code validation.delta}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ValidationStateStore validationStateStore() {
+        ValidationProperties.Delta delta = properties.getDelta();
+        return new ValidationStateStore(delta.getMaxStates(), delta.getTtl());
+    }
+
+    /**
+     * The rule files served by the {@code /rules} API, for the servlet controllers and the reactive routes alike.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication
+    public ValidationRuleRepository validationRuleRepository() {
+        return new ValidationRuleRepository(properties);
     }
 
+    /**
+     * The entities the REST API can validate, scanned once at startup with their rule sets precompiled.
+     */
     @Bean
     @ConditionalOnMissingBean
-    public ValidationEngine validationEngine(ValidationRuleLoader ruleLoader) {
-        return new ValidationEngine(ruleLoader);
+    public ValidatedEntityRegistry validatedEntityRegistry(BeanFactory beanFactory, ValidationRuleLoader ruleLoader,
+                                                           ObjectProvider<RuleSetSnapshot> ruleSetSnapshot) {
+        List<String> basePackages = properties.getEntities().getBasePackages();
+        if (basePackages.isEmpty() && AutoConfigurationPackages.has(beanFactory)) {
+            basePackages = AutoConfigurationPackages.get(beanFactory);
+        }
+        ValidatedEntityRegistry registry =
+                ValidatedEntityRegistry.scan(getClass().getClassLoader(), basePackages);
+        registry.precompile(ruleLoader);
+        ruleSetSnapshot.ifAvailable(RuleSetSnapshot::write);
+        return registry;
+    }
+
+    /**
+     * Publishes validation metrics to the application's {@link MeterRegistry}, or the global registry when
+     * there is none, unless {@code validation.metrics.enabled} is off. Without Micrometer on the classpath the
+     * loader and engine get {@link ValidationMetrics#NOOP}.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class MicrometerMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        ValidationMetrics micrometerValidationMetrics(ValidationProperties properties,
+                                                      ObjectProvider<MeterRegistry> meterRegistry) {
+            ValidationProperties.Metrics metrics = properties.getMetrics();
+            if (!metrics.isEnabled()) {
+                return ValidationMetrics.NOOP;
+            }
+            return new MicrometerValidationMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                    metrics.isRuleTiming());
+        }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,10 +1,27 @@
 package com.example.datavalidation.config;
 
+import com.example.datavalidation.engine.ValidationOptions;
+import com.example.datavalidation.engine.ValidationResultCache;
+import com.example.datavalidation.engine.ValidationStateStore;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @ConfigurationProperties(prefix = "validation")
 public class ValidationProperties {
     private Rules rules = new Rules();
+    private Batch batch = new Batch();
+    private Bulk bulk = new Bulk();
+    private Entities entities = new Entities();
+    private Options options = new Options();
+    private Metrics metrics = new Metrics();
+    private Bytecode bytecode = new Bytecode();
+    private ResultCache resultCache = new ResultCache();
+    private Delta delta = new Delta();
 
     public Rules getRules() {
         return rules;
@@ -14,9 +31,89 @@ public class ValidationProperties {
         this.rules = rules;
     }
 
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public void setBulk(Bulk bulk) {
+        this.bulk = bulk;
+    }
+
+    public Entities getEntities() {
+        return entities;
+    }
+
+    public void setEntities(Entities entities) {
+        this.entities = entities;
+    }
+
+    public Options getOptions() {
+        return options;
+    }
+
+    public void setOptions(Options options) {
+        this.options = options;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public Bytecode getBytecode() {
+        return bytecode;
+    }
+
+    public void setBytecode(Bytecode bytecode) {
+        this.bytecode = bytecode;
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    public Delta getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Delta delta) {
+        this.delta = delta;
+    }
+
     public static class Rules {
         private String location = "classpath:validation/";
         private String file = "validation-rules.yml";
+        /**
+         * Watch a {@code file:} rules location and recompile rule files in the background when they change.
+         */
+        private boolean watch = true;
+        /**
+         * Directory keeping the parsed YAML of rule files outside the packaged rule index across restarts, so
+         * that unchanged files are not parsed again; they are still compiled. Unset to parse every such file on
+         * each start.
+         */
+        private String snapshotDirectory;
+        /**
+         * Number of changes the rule change log of a {@code file:} location holds before it is rotated; the
+         * previous log is kept as one backup.
+         */
+        private int changeLogMaxEntries = 10_000;
+        private Cache cache = new Cache();
 
         public String getLocation() {
             return location;
@@ -33,5 +130,321 @@ public class ValidationProperties {
         public void setFile(String file) {
             this.file = file;
         }
+
+        public boolean isWatch() {
+            return watch;
+        }
+
+        public void setWatch(boolean watch) {
+            this.watch = watch;
+        }
+
+        public String getSnapshotDirectory() {
+            return snapshotDirectory;
+        }
+
+        public void setSnapshotDirectory(String snapshotDirectory) {
+            this.snapshotDirectory = snapshotDirectory;
+        }
+
+        public int getChangeLogMaxEntries() {
+            return changeLogMaxEntries;
+        }
+
+        public void setChangeLogMaxEntries(int changeLogMaxEntries) {
+            this.changeLogMaxEntries = changeLogMaxEntries;
+        }
+
+        public Cache getCache() {
+            return cache;
+        }
+
+        public void setCache(Cache cache) {
+            this.cache = cache;
+        }
+    }
+
+    public static class Cache {
+        /**
+         * Maximum number of parsed rule files kept in memory.
+         */
+        private int maxSize = 256;
+
+        /**
+         * How long a cached rule file is trusted before it is checked for changes. Negative disables checks.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(2);
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+    }
+
+    public static class Batch {
+        /**
+         * Maximum number of records accepted by one batch validation request.
+         */
+        private int maxSize = 100_000;
+        /**
+         * Records of one batch validated at a time by the reactive endpoints; reading the request pauses while
+         * that many are in flight.
+         */
+        private int concurrency = Runtime.getRuntime().availableProcessors();
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+    }
+
+    public static class Bulk {
+        /**
+         * Worker threads of the pool ValidationEngine.validateAll runs on. Zero uses the common ForkJoinPool.
+         */
+        private int parallelism = 0;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+
+    public static class Entities {
+        /**
+         * Packages scanned for validated entities at startup. Empty uses the application's auto-configuration
+         * packages.
+         */
+        private List<String> basePackages = new ArrayList<>();
+
+        /**
+         * Validation options per entity, keyed by entity alias or class name. Unset values fall back to
+         * {@code validation.options}.
+         */
+        private Map<String, Options> options = new LinkedHashMap<>();
+
+        public List<String> getBasePackages() {
+            return basePackages;
+        }
+
+        public void setBasePackages(List<String> basePackages) {
+            this.basePackages = basePackages;
+        }
+
+        public Map<String, Options> getOptions() {
+            return options;
+        }
+
+        public void setOptions(Map<String, Options> options) {
+            this.options = options;
+        }
+    }
+
+    public static class Options {
+        /**
+         * Stop at the first error. Takes precedence over max-errors.
+         */
+        private Boolean failFast;
+
+        /**
+         * Stop after this many errors; 0 means no limit.
+         */
+        private Integer maxErrors;
+
+        /**
+         * Skip the remaining rules of a field once one of its rules failed.
+         */
+        private Boolean skipFieldAfterFailure;
+
+        public Boolean getFailFast() {
+            return failFast;
+        }
+
+        public void setFailFast(Boolean failFast) {
+            this.failFast = failFast;
+        }
+
+        public Integer getMaxErrors() {
+            return maxErrors;
+        }
+
+        public void setMaxErrors(Integer maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        public Boolean getSkipFieldAfterFailure() {
+            return skipFieldAfterFailure;
+        }
+
+        public void setSkipFieldAfterFailure(Boolean skipFieldAfterFailure) {
+            this.skipFieldAfterFailure = skipFieldAfterFailure;
+        }
+
+        /**
+         * @return {@code base} with the values set here applied on top
+         */
+        public ValidationOptions applyTo(ValidationOptions base) {
+            ValidationOptions result = base;
+            if (maxErrors != null) {
+                result = result.withMaxErrors(maxErrors);
+            }
+            if (Boolean.TRUE.equals(failFast)) {
+                result = result.withMaxErrors(1);
+            }
+            if (skipFieldAfterFailure != null) {
+                result = result.withSkipFieldAfterFailure(skipFieldAfterFailure);
+            }
+            return result;
+        }
+    }
+
+    public static class Metrics {
+        /**
+         * Publish validation metrics to Micrometer when it is on the classpath.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Also time every single rule evaluation. Adds two clock reads per rule, so it is off by default.
+         */
+        private boolean ruleTiming = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isRuleTiming() {
+            return ruleTiming;
+        }
+
+        public void setRuleTiming(boolean ruleTiming) {
+            this.ruleTiming = ruleTiming;
+        }
+    }
+
+    public static class Bytecode {
+        /**
+         * Compile frequently evaluated rule sets to dedicated bytecode validators.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Evaluations of a rule set before it is compiled; 0 compiles on first use.
+         */
+        private int threshold = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(int threshold) {
+            this.threshold = threshold;
+        }
+    }
+
+    public static class ResultCache {
+        /**
+         * Reuse the result of an identical record validated before, instead of validating it again.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of results kept; the oldest are evicted first.
+         */
+        private int maxSize = ValidationResultCache.DEFAULT_MAX_SIZE;
+
+        /**
+         * How long a result is reused after it was computed.
+         */
+        private Duration ttl = ValidationResultCache.DEFAULT_TTL;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Delta {
+        /**
+         * Maximum number of validated records kept for PATCH requests; the oldest are dropped first.
+         */
+        private int maxStates = ValidationStateStore.DEFAULT_MAX_SIZE;
+
+        /**
+         * How long a validation token can be patched after it was issued.
+         */
+        private Duration ttl = ValidationStateStore.DEFAULT_TTL;
+
+        public int getMaxStates() {
+            return maxStates;
+        }
+
+        public void setMaxStates(int maxStates) {
+            this.maxStates = maxStates;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,254 @@
+package com.example.datavalidation.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A record's content in a canonical encoding, used as the {@link ValidationResultCache} key: two payloads are
+ * equal exactly when their encodings are, so a hash collision can never return another record's result.
+ * <p>
+ * The encoding is a sequence of 64-bit words. Map and set entries are sorted by their encoding, so a map encodes
+ * the same whatever its iteration order, and a {@link JsonNode} encodes like the {@code Map} Jackson would read
+ * from the same JSON, so a payload is recognized however it reached the engine. Values that validate
+ * differently, such as {@code 1} and {@code 1.0} or {@code 1} and {@code "1"}, encode differently. Other objects
+ * are encoded by class and {@code toString()}. Text takes two bytes per character.
+ * <p>
+ * The hash of the encoding is seeded per process, so colliding payloads cannot be prepared in advance.
+ */
+final class CanonicalPayload {
+    private static final long SEED = new SecureRandom().nextLong();
+    private static final long K1 = 0x87c37b91114253d5L;
+    private static final long K2 = 0x4cf5ad432745937fL;
+    private static final long K3 = 0x9e3779b97f4a7c15L;
+
+    private static final int NULL = 1;
+    private static final int TRUE = 2;
+    private static final int FALSE = 3;
+    private static final int INTEGER = 4;
+    private static final int FLOATING = 5;
+    private static final int TEXT = 6;
+    private static final int MAP = 7;
+    private static final int LIST = 8;
+    private static final int SET = 9;
+    private static final int OTHER = 10;
+
+    private final long[] words;
+    private final long hash;
+
+    CanonicalPayload(long[] words) {
+        this.words = words;
+        this.hash = hash(words);
+    }
+
+    static CanonicalPayload of(Object payload) {
+        Encoder encoder = new Encoder();
+        encoder.value(payload);
+        return new CanonicalPayload(Arrays.copyOf(encoder.words, encoder.size));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CanonicalPayload)) {
+            return false;
+        }
+        CanonicalPayload other = (CanonicalPayload) o;
+        return hash == other.hash && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x (%d words)", hash, words.length);
+    }
+
+    private static long hash(long[] words) {
+        long h = SEED;
+        for (long word : words) {
+            h = Long.rotateLeft(h ^ word * K1, 31) * K2 + K3;
+        }
+        return fmix(h ^ words.length);
+    }
+
+    private static long fmix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Appends the encoding of a value to one growing word buffer, shared by every nested value.
+     */
+    private static final class Encoder {
+        long[] words = new long[64];
+        int size;
+
+        void add(long word) {
+            if (size == words.length) {
+                words = Arrays.copyOf(words, size * 2);
+            }
+            words[size++] = word;
+        }
+
+        void value(Object value) {
+            if (value == null) {
+                add(NULL);
+            } else if (value instanceof CharSequence) {
+                text((CharSequence) value);
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                    || value instanceof Byte) {
+                add(INTEGER);
+                add(((Number) value).longValue());
+            } else if (value instanceof Double) {
+                add(FLOATING);
+                add(Double.doubleToLongBits((Double) value));
+            } else if (value instanceof Boolean) {
+                add((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Map) {
+                map((Map<?, ?>) value);
+            } else if (value instanceof List) {
+                add(LIST);
+                List<?> list = (List<?>) value;
+                add(list.size());
+                for (Object element : list) {
+                    value(element);
+                }
+            } else if (value instanceof Set) {
+                set((Set<?>) value);
+            } else if (value instanceof Collection) {
+                add(LIST);
+                add(((Collection<?>) value).size());
+                for (Object element : (Collection<?>) value) {
+                    value(element);
+                }
+            } else if (value instanceof JsonNode) {
+                node((JsonNode) value);
+            } else {
+                add(OTHER);
+                text(value.getClass().getName());
+                text(value.toString());
+            }
+        }
+
+        private void node(JsonNode node) {
+            switch (node.getNodeType()) {
+                case OBJECT:
+                    add(MAP);
+                    add(node.size());
+                    int[] starts = new int[node.size() + 1];
+                    int count = 0;
+                    for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                        Map.Entry<String, JsonNode> field = it.next();
+                        starts[count++] = size;
+                        text(field.getKey());
+                        node(field.getValue());
+                    }
+                    sortEntries(starts, count);
+                    break;
+                case ARRAY:
+                    add(LIST);
+                    add(node.size());
+                    for (JsonNode element : node) {
+                        node(element);
+                    }
+                    break;
+                case STRING:
+                    text(node.textValue());
+                    break;
+                case BOOLEAN:
+                    add(node.booleanValue() ? TRUE : FALSE);
+                    break;
+                case NUMBER:
+                    value(node.numberValue());
+                    break;
+                case NULL:
+                case MISSING:
+                    add(NULL);
+                    break;
+                default:
+                    value(node.toString());
+            }
+        }
+
+        private void map(Map<?, ?> map) {
+            add(MAP);
+            add(map.size());
+            int[] starts = new int[map.size() + 1];
+            int count = 0;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                starts[count++] = size;
+                value(e.getKey());
+                value(e.getValue());
+            }
+            sortEntries(starts, count);
+        }
+
+        private void set(Set<?> set) {
+            add(SET);
+            add(set.size());
+            int[] starts = new int[set.size() + 1];
+            int count = 0;
+            for (Object element : set) {
+                starts[count++] = size;
+                value(element);
+            }
+            sortEntries(starts, count);
+        }
+
+        /**
+         * Puts the last {@code count} encoded entries, starting at {@code starts}, in the order of their encodings.
+         */
+        private void sortEntries(int[] starts, int count) {
+            if (count < 2) {
+                return;
+            }
+            starts[count] = size;
+            int from = starts[0];
+            long[] entries = Arrays.copyOfRange(words, from, size);
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (x, y) -> Arrays.compare(entries, starts[x] - from, starts[x + 1] - from,
+                    entries, starts[y] - from, starts[y + 1] - from));
+            int position = from;
+            for (int i : order) {
+                int length = starts[i + 1] - starts[i];
+                System.arraycopy(entries, starts[i] - from, words, position, length);
+                position += length;
+            }
+        }
+
+        private void text(CharSequence text) {
+            int length = text.length();
+            add(TEXT);
+            add(length);
+            int i = 0;
+            for (; i + 4 <= length; i += 4) {
+                add((long) text.charAt(i) << 48 | (long) text.charAt(i + 1) << 32
+                        | (long) text.charAt(i + 2) << 16 | text.charAt(i + 3));
+            }
+            long tail = 0;
+            for (; i < length; i++) {
+                tail = tail << 16 | text.charAt(i);
+            }
+            add(tail);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.CompiledRule;
+import com.networknt.schema.JsonSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The immutable, compiled form of one rule file: either YAML rules or, for a {@code .json} file, a JSON Schema.
+ */
+public final class CompiledRuleSet {
+    private final String source;
+    private final List<CompiledRule> rules;
+    private final List<Map<String, Object>> definitions;
+    private final FieldPathTree fieldPaths;
+    private final int[] ruleNodes;
+    private final boolean[] inspectedNodes;
+    private final RulePlan plan;
+    private final JsonSchemaRules schema;
+    private final RuleTables tables;
+
+    CompiledRuleSet(String source, List<CompiledRule> rules, List<Map<String, Object>> definitions) {
+        this(source, rules, definitions, RuleTables.NONE);
+    }
+
+    CompiledRuleSet(String source, List<CompiledRule> rules, List<Map<String, Object>> definitions,
+                    RuleTables tables) {
+        this(source, rules, definitions, tables, null);
+    }
+
+    CompiledRuleSet(String source, JsonSchemaRules schema) {
+        this(source, List.of(), List.of(), RuleTables.NONE, schema);
+    }
+
+    private CompiledRuleSet(String source, List<CompiledRule> rules, List<Map<String, Object>> definitions,
+                            RuleTables tables, JsonSchemaRules schema) {
+        this.source = source;
+        this.schema = schema;
+        this.tables = tables;
+        this.rules = List.copyOf(rules);
+        this.definitions = definitions;
+
+        List<String> paths = new ArrayList<>(rules.size());
+        for (CompiledRule rule : rules) {
+            paths.add(rule.getField());
+        }
+        this.fieldPaths = FieldPathTree.of(paths);
+        this.ruleNodes = new int[rules.size()];
+        this.inspectedNodes = new boolean[fieldPaths.size()];
+        for (int i = 0; i < ruleNodes.length; i++) {
+            ruleNodes[i] = fieldPaths.indexOf(rules.get(i).getField());
+            inspectedNodes[ruleNodes[i]] |= rules.get(i).inspectsValue();
+        }
+        this.plan = new RulePlan(source, this.rules, ruleNodes, fieldPaths);
+    }
+
+    /**
+     * @return the rule file this set was compiled from
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return the compiled rules, in rule file order
+     */
+    public List<CompiledRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * @return the prefix tree of every field path referenced by the rules
+     */
+    public FieldPathTree getFieldPaths() {
+        return fieldPaths;
+    }
+
+    /**
+     * @return the {@link #getFieldPaths() field path} node the rule at {@code ruleIndex} validates
+     */
+    public int getRuleNode(int ruleIndex) {
+        return ruleNodes[ruleIndex];
+    }
+
+    /**
+     * @return whether any rule on the node looks at its value, not only at its presence
+     */
+    boolean isInspected(int node) {
+        return inspectedNodes[node];
+    }
+
+    /**
+     * @return the order the rules are evaluated in
+     */
+    RulePlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * @return the compiled JSON Schema of a {@code .json} rule file, or null for YAML rules
+     */
+    public JsonSchema getSchema() {
+        return schema == null ? null : schema.getSchema();
+    }
+
+    JsonSchemaRules getSchemaRules() {
+        return schema;
+    }
+
+    /**
+     * @return the lookup tables built for the rules, by rule definition index
+     */
+    RuleTables getTables() {
+        return tables;
+    }
+
+    /**
+     * @return the raw rule definitions as read from the rule file; empty for a JSON Schema
+     */
+    public List<Map<String, Object>> getDefinitions() {
+        return definitions;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.datavalidation.engine;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Reads one named property of an object through a {@link Function} bound to that property.
+ * <p>
+ * Accessors are resolved once per (class, property name) and cached in a {@link ClassValue}, so validating a
+ * POJO does no reflective lookups after the first object of its class. A property resolves, in order, to a
+ * record component accessor or to a field declared on the class or any of its superclasses.
+ * <p>
+ * A {@link MethodHandle} held in an instance field is not a constant to the JIT, so calling it is not inlined.
+ * Record component accessors are therefore bound with {@link LambdaMetafactory}, a direct call to the accessor
+ * method. Fields, which {@code LambdaMetafactory} cannot target, get a hidden class holding their getter handle
+ * in a {@code static final} field, which the JIT does treat as a constant. Where neither can be defined, e.g.
+ * for a class whose package is not open to this module, the handle is called as is.
+ */
+final class FieldAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType FUNCTION_TYPE = MethodType.methodType(Function.class);
+    private static final FieldAccessor MISSING = new FieldAccessor(null);
+    private static final byte[] HANDLE_FUNCTION = handleFunction();
+
+    private static final ClassValue<ConcurrentMap<String, FieldAccessor>> ACCESSORS =
+            new ClassValue<>() {
+                @Override
+                protected ConcurrentMap<String, FieldAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Function<Object, Object> getter;
+
+    private FieldAccessor(Function<Object, Object> getter) {
+        this.getter = getter;
+    }
+
+    /**
+     * @return the accessor for {@code name} on {@code type}; reading a property that does not exist yields null
+     */
+    static FieldAccessor of(Class<?> type, String name) {
+        ConcurrentMap<String, FieldAccessor> accessors = ACCESSORS.get(type);
+        FieldAccessor accessor = accessors.get(name);
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(name, n -> resolve(type, n));
+        }
+        return accessor;
+    }
+
+    /**
+     * @return the property value, or {@code null} if the target is null or has no such property
+     */
+    Object get(Object target) {
+        if (getter == null || target == null) {
+            return null;
+        }
+        return getter.apply(target);
+    }
+
+    boolean exists() {
+        return getter != null;
+    }
+
+    private static FieldAccessor resolve(Class<?> type, String name) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            if (type.isRecord()) {
+                for (RecordComponent component : type.getRecordComponents()) {
+                    if (component.getName().equals(name)) {
+                        Method accessor = component.getAccessor();
+                        accessor.setAccessible(true);
+                        return new FieldAccessor(bindMethod(type, lookup.unreflect(accessor)));
+                    }
+                }
+            }
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        return new FieldAccessor(bindHandle(lookup.unreflectGetter(field).asType(GETTER_TYPE)));
+                    }
+                }
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            // Inaccessible (e.g. JDK-internal fields in a closed module): treat as absent, like a missing field
+        }
+        return MISSING;
+    }
+
+    /**
+     * @return a lambda calling the instance method {@code accessor} of {@code type}
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> bindMethod(Class<?> type, MethodHandle accessor) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply", FUNCTION_TYPE,
+                    GETTER_TYPE, accessor, accessor.type().wrap());
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            return bindHandle(accessor.asType(GETTER_TYPE));
+        }
+    }
+
+    /**
+     * @return an instance of a hidden class calling {@code getter} from a {@code static final} field
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> bindHandle(MethodHandle getter) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(HANDLE_FUNCTION, getter, true);
+            return (Function<Object, Object>) lookup.lookupClass().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return target -> {
+                try {
+                    return getter.invokeExact(target);
+                } catch (RuntimeException | Error failure) {
+                    throw failure;
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * The class of {@link #bindHandle}: {@code apply(target)} is {@code (Object) GETTER.invokeExact(target)},
+     * with {@code GETTER} read from the class data.
+     */
+    private static byte[] handleFunction() {
+        String className = FieldAccessor.class.getPackageName().replace('.', '/') + "/HandleFunction";
+        String handle = Type.getInternalName(MethodHandle.class);
+        String handleDescriptor = Type.getDescriptor(MethodHandle.class);
+        String object = Type.getInternalName(Object.class);
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, object,
+                new String[]{Type.getInternalName(Function.class)});
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, "GETTER", handleDescriptor,
+                null, null).visitEnd();
+
+        MethodVisitor code = writer.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+        code.visitCode();
+        code.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup",
+                "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+        code.visitLdcInsn("_");
+        code.visitLdcInsn(Type.getType(MethodHandle.class));
+        code.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;",
+                false);
+        code.visitTypeInsn(Opcodes.CHECKCAST, handle);
+        code.visitFieldInsn(Opcodes.PUTSTATIC, className, "GETTER", handleDescriptor);
+        code.visitInsn(Opcodes.RETURN);
+        code.visitMaxs(0, 0);
+        code.visitEnd();
+
+        code = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        code.visitCode();
+        code.visitVarInsn(Opcodes.ALOAD, 0);
+        code.visitMethodInsn(Opcodes.INVOKESPECIAL, object, "<init>", "()V", false);
+        code.visitInsn(Opcodes.RETURN);
+        code.visitMaxs(0, 0);
+        code.visitEnd();
+
+        code = writer.visitMethod(Opcodes.ACC_PUBLIC, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+        code.visitCode();
+        code.visitFieldInsn(Opcodes.GETSTATIC, className, "GETTER", handleDescriptor);
+        code.visitVarInsn(Opcodes.ALOAD, 1);
+        code.visitMethodInsn(Opcodes.INVOKEVIRTUAL, handle, "invokeExact",
+                "(Ljava/lang/Object;)Ljava/lang/Object;", false);
+        code.visitInsn(Opcodes.ARETURN);
+        code.visitMaxs(0, 0);
+        code.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.datavalidation.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The field paths of a rule set, pre-split and merged into a prefix tree.
+ * <p>
+ * Nodes are stored in pre-order, so a parent always comes before its children and a node's subtree is the
+ * contiguous range {@code [node, subtreeEnd(node))}. Resolving the tree against a record reads every
+ * intermediate value exactly once: {@code address.state} and {@code address.zipCode} share the lookup of
+ * {@code address}. Node 0 is the root and resolves to the record itself.
+ */
+public final class FieldPathTree {
+    private final String[] paths;
+    private final String[] segments;
+    private final int[] parents;
+    private final int[] subtreeEnds;
+    private final Map<String, Integer> indexes;
+    private final Map<String, Integer>[] children;
+    // Per-node monomorphic inline cache of the last POJO accessor used, see resolveObject
+    private final CachedAccessor[] accessorCaches;
+
+    @SuppressWarnings("unchecked")
+    private FieldPathTree(List<Builder.Node> nodes) {
+        int size = nodes.size();
+        this.paths = new String[size];
+        this.segments = new String[size];
+        this.parents = new int[size];
+        this.subtreeEnds = new int[size];
+        this.indexes = new HashMap<>(size * 2);
+        this.accessorCaches = new CachedAccessor[size];
+        this.children = new Map[size];
+        for (int i = 0; i < size; i++) {
+            Builder.Node node = nodes.get(i);
+            paths[i] = node.path;
+            segments[i] = node.segment;
+            parents[i] = node.parent == null ? -1 : node.parent.index;
+            subtreeEnds[i] = node.subtreeEnd;
+            indexes.putIfAbsent(node.path, i);
+            Map<String, Integer> nodeChildren = new HashMap<>(node.children.size() * 2);
+            for (Builder.Node child : node.children.values()) {
+                nodeChildren.put(child.segment, child.index);
+            }
+            children[i] = nodeChildren;
+        }
+    }
+
+    /**
+     * Builds the tree for the given dotted field paths.
+     */
+    public static FieldPathTree of(Collection<String> fieldPaths) {
+        Builder builder = new Builder();
+        for (String fieldPath : fieldPaths) {
+            builder.add(fieldPath);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the number of nodes, including the root
+     */
+    public int size() {
+        return paths.length;
+    }
+
+    /**
+     * @return the node index of a field path given to {@link #of}, or -1 if it is not part of the tree
+     */
+    public int indexOf(String fieldPath) {
+        Integer index = indexes.get(fieldPath);
+        return index == null ? -1 : index;
+    }
+
+    public String path(int node) {
+        return paths[node];
+    }
+
+    public String segment(int node) {
+        return segments[node];
+    }
+
+    /**
+     * @return the parent node index, or -1 for the root
+     */
+    public int parent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @return the exclusive end of the pre-order range holding {@code node} and its descendants
+     */
+    public int subtreeEnd(int node) {
+        return subtreeEnds[node];
+    }
+
+    /**
+     * @return the index of the child of {@code node} named {@code segment}, or -1 if no rule path goes there
+     */
+    public int child(int node, String segment) {
+        Integer child = children[node].get(segment);
+        return child == null ? -1 : child;
+    }
+
+    /**
+     * Resolves every node against a map-shaped record. A value is null when it, or any ancestor, is absent or
+     * an ancestor is not a map.
+     */
+    Object[] resolveMap(Map<String, Object> data) {
+        Object[] values = new Object[paths.length];
+        values[0] = data;
+        resolveDescendants(values, 0);
+        return values;
+    }
+
+    /**
+     * Resolves the descendants of {@code node} from its already resolved value, with the same map semantics as
+     * {@link #resolveMap}.
+     */
+    void resolveDescendants(Object[] values, int node) {
+        for (int i = node + 1; i < subtreeEnds[node]; i++) {
+            Object parent = values[parents[i]];
+            values[i] = parent instanceof Map ? ((Map<?, ?>) parent).get(segments[i]) : null;
+        }
+    }
+
+    /**
+     * Resolves every node against an object graph, reading properties through {@link FieldAccessor}s.
+     */
+    Object[] resolveObject(Object object) {
+        Object[] values = new Object[paths.length];
+        values[0] = object;
+        for (int i = 1; i < values.length; i++) {
+            Object parent = values[parents[i]];
+            values[i] = parent == null ? null : accessor(i, parent.getClass()).get(parent);
+        }
+        return values;
+    }
+
+    private FieldAccessor accessor(int node, Class<?> type) {
+        CachedAccessor cached = accessorCaches[node];
+        if (cached != null && cached.type == type) {
+            return cached.accessor;
+        }
+        FieldAccessor accessor = FieldAccessor.of(type, segments[node]);
+        // Racy but safe: CachedAccessor is immutable, a lost update only costs another ClassValue lookup
+        accessorCaches[node] = new CachedAccessor(type, accessor);
+        return accessor;
+    }
+
+    private static final class CachedAccessor {
+        final Class<?> type;
+        final FieldAccessor accessor;
+
+        CachedAccessor(Class<?> type, FieldAccessor accessor) {
+            this.type = type;
+            this.accessor = accessor;
+        }
+    }
+
+    private static final class Builder {
+        private final Node root = new Node(null, "", "");
+
+        void add(String fieldPath) {
+            Node current = root;
+            StringBuilder path = new StringBuilder();
+            for (String segment : fieldPath.split("\\.")) {
+                if (path.length() > 0) {
+                    path.append('.');
+                }
+                path.append(segment);
+                Node parent = current;
+                current = parent.children.computeIfAbsent(segment, s -> new Node(parent, s, path.toString()));
+            }
+            // Paths such as "a..b" or "a." still map to the node they resolve through
+            if (!current.path.equals(fieldPath)) {
+                current.aliases.add(fieldPath);
+            }
+        }
+
+        FieldPathTree build() {
+            List<Node> nodes = new ArrayList<>();
+            flatten(root, nodes);
+            FieldPathTree tree = new FieldPathTree(nodes);
+            for (Node node : nodes) {
+                for (String alias : node.aliases) {
+                    tree.indexes.putIfAbsent(alias, node.index);
+                }
+            }
+            return tree;
+        }
+
+        private static void flatten(Node node, List<Node> nodes) {
+            node.index = nodes.size();
+            nodes.add(node);
+            for (Node child : node.children.values()) {
+                flatten(child, nodes);
+            }
+            node.subtreeEnd = nodes.size();
+        }
+
+        private static final class Node {
+            final Node parent;
+            final String segment;
+            final String path;
+            final Map<String, Node> children = new LinkedHashMap<>();
+            final List<String> aliases = new ArrayList<>(0);
+            int index;
+            int subtreeEnd;
+
+            Node(Node parent, String segment, String path) {
+                this.parent = parent;
+                this.segment = segment;
+                this.path = path;
+            }
+        }
+    }
+}
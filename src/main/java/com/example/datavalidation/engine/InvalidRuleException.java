@@ -0,0 +1,17 @@
+package com.example.datavalidation.engine;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a rule file is readable but one of its rules is malformed, e.g. a missing parameter, a parameter
+ * of the wrong type or a regular expression that does not compile.
+ */
+public class InvalidRuleException extends IOException {
+    public InvalidRuleException(String message) {
+        super(message);
+    }
+
+    public InvalidRuleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
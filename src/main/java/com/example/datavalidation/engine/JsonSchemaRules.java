@@ -0,0 +1,102 @@
+package com.example.datavalidation.engine;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaException;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.SpecVersionDetector;
+import com.networknt.schema.ValidationMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The rules of a {@code .json} rule file: a JSON Schema, compiled once by the networknt validator.
+ * <p>
+ * Schemas without {@code $schema} are read as draft 7. Each schema violation becomes a {@link ValidationError}
+ * with code {@code schema}, the violated keyword (e.g. {@code minLength}) as its rule, the instance path
+ * without the leading {@code $.} as its field, and the validator's message.
+ */
+final class JsonSchemaRules {
+    static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    // Reads POJOs the way FieldAccessor does: declared fields, not getters
+    private static final ObjectMapper FIELD_MAPPER = new ObjectMapper()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    private final JsonSchema schema;
+
+    private JsonSchemaRules(JsonSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * @return whether the rule file is a JSON Schema rather than YAML rules
+     */
+    static boolean isSchemaFile(String ruleFile) {
+        return ruleFile.toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    static JsonSchemaRules compile(String source, byte[] content) throws InvalidRuleException {
+        JsonNode node;
+        try {
+            node = JSON_MAPPER.readTree(content);
+        } catch (IOException e) {
+            throw new InvalidRuleException("Invalid JSON Schema " + source + ": " + e.getMessage(), e);
+        }
+        if (node == null || !node.isObject()) {
+            throw new InvalidRuleException("Invalid JSON Schema " + source + ": must be a JSON object");
+        }
+        try {
+            SpecVersion.VersionFlag version = node.has("$schema")
+                    ? SpecVersionDetector.detect(node)
+                    : SpecVersion.VersionFlag.V7;
+            JsonSchema schema = JsonSchemaFactory.getInstance(version).getSchema(node);
+            // Resolve $refs and build every keyword validator now rather than on the first request
+            schema.initializeValidators();
+            return new JsonSchemaRules(schema);
+        } catch (JsonSchemaException e) {
+            throw new InvalidRuleException("Invalid JSON Schema " + source + ": " + e.getMessage(), e);
+        }
+    }
+
+    JsonSchema getSchema() {
+        return schema;
+    }
+
+    ValidationResult validate(JsonNode node, ValidationOptions options) {
+        Set<ValidationMessage> messages = schema.validate(node);
+        if (messages.isEmpty()) {
+            return ValidationResult.valid();
+        }
+        List<ValidationError> errors = new ArrayList<>(Math.min(messages.size(), options.getMaxErrors()));
+        for (ValidationMessage message : messages) {
+            if (errors.size() >= options.getMaxErrors()) {
+                break;
+            }
+            errors.add(new ValidationError(message.getType(), field(message.getPath()), "schema",
+                    message.getMessage(), (Object[]) message.getArguments()));
+        }
+        return ValidationResult.of(errors);
+    }
+
+    static JsonNode toTree(Object object) {
+        return FIELD_MAPPER.valueToTree(object);
+    }
+
+    private static String field(String path) {
+        if (path == null || path.equals("$")) {
+            return null;
+        }
+        return path.startsWith("$.") ? path.substring(2) : path;
+    }
+}
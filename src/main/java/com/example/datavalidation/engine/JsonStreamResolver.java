@@ -0,0 +1,129 @@
+package com.example.datavalidation.engine;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Resolves the field path values of a rule set directly from a JSON token stream.
+ * <p>
+ * Only members on a rule's field path are looked at; everything else is skipped with
+ * {@link JsonParser#skipChildren()} without being deserialized. Object and array values are materialized only
+ * when a rule on that exact path inspects them (e.g. {@code size} on an object). The resulting values are the
+ * ones {@link FieldPathTree#resolveMap} would produce for the same document deserialized into a {@code Map},
+ * including last-one-wins for duplicate keys, so rules see identical input. Already parsed {@link JsonNode}
+ * trees are resolved the same way, through a parser walking the tree.
+ */
+final class JsonStreamResolver {
+    // Stands in for an object or array value that no rule needs to see, only to know it is present
+    private static final Object PRESENT = new Object() {
+        @Override
+        public String toString() {
+            return "{}";
+        }
+    };
+
+    private final ObjectMapper mapper;
+
+    JsonStreamResolver(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Reads one JSON object, starting at the parser's current token (or the next one if there is none yet),
+     * and leaves the parser on its closing {@code END_OBJECT}.
+     */
+    Object[] resolve(JsonParser parser, CompiledRuleSet ruleSet) throws IOException {
+        JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Record must be a JSON object");
+        }
+        FieldPathTree tree = ruleSet.getFieldPaths();
+        Object[] values = new Object[tree.size()];
+        values[0] = PRESENT;
+        readObject(parser, ruleSet, tree, 0, values);
+        return values;
+    }
+
+    /**
+     * Resolves a JSON object tree, such as a REST request body, by walking it like a token stream: only the
+     * nodes on a rule's field path are looked at, and no {@code Map} is built for the record.
+     */
+    Object[] resolve(JsonNode node, CompiledRuleSet ruleSet) throws IOException {
+        try (JsonParser parser = node.traverse()) {
+            return resolve(parser, ruleSet);
+        }
+    }
+
+    private void readObject(JsonParser parser, CompiledRuleSet ruleSet, FieldPathTree tree, int node,
+                            Object[] values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int child = tree.child(node, parser.currentName());
+            JsonToken token = parser.nextToken();
+            if (child < 0) {
+                parser.skipChildren();
+                continue;
+            }
+            // A repeated key replaces everything read for the earlier occurrence
+            for (int i = child + 1; i < tree.subtreeEnd(child); i++) {
+                values[i] = null;
+            }
+            readValue(parser, token, ruleSet, tree, child, values);
+        }
+    }
+
+    private void readValue(JsonParser parser, JsonToken token, CompiledRuleSet ruleSet, FieldPathTree tree,
+                           int node, Object[] values) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                if (ruleSet.isInspected(node)) {
+                    values[node] = mapper.readValue(parser, Object.class);
+                    tree.resolveDescendants(values, node);
+                } else {
+                    values[node] = PRESENT;
+                    readObject(parser, ruleSet, tree, node, values);
+                }
+                break;
+            case START_ARRAY:
+                // Paths never descend into arrays, so only the array itself can be of interest
+                if (ruleSet.isInspected(node)) {
+                    values[node] = mapper.readValue(parser, Object.class);
+                } else {
+                    values[node] = PRESENT;
+                    parser.skipChildren();
+                }
+                break;
+            case VALUE_STRING:
+                values[node] = parser.getText();
+                break;
+            case VALUE_NUMBER_INT:
+                values[node] = mapper.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)
+                        ? parser.getBigIntegerValue()
+                        : mapper.isEnabled(DeserializationFeature.USE_LONG_FOR_INTS)
+                        ? (Object) parser.getLongValue()
+                        : parser.getNumberValue();
+                break;
+            case VALUE_NUMBER_FLOAT:
+                values[node] = mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                        ? parser.getDecimalValue()
+                        : parser.getNumberValue();
+                break;
+            case VALUE_TRUE:
+                values[node] = Boolean.TRUE;
+                break;
+            case VALUE_FALSE:
+                values[node] = Boolean.FALSE;
+                break;
+            case VALUE_NULL:
+                values[node] = null;
+                break;
+            default:
+                values[node] = mapper.readValue(parser, Object.class);
+                break;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.datavalidation.engine;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Applies a JSON Merge Patch (RFC 7386) to a map-shaped record and records which {@link FieldPathTree} nodes it
+ * touched.
+ * <p>
+ * The patched record is a new map; maps of the original record are copied only along the patched paths and
+ * shared otherwise, and the original is never modified. A node counts as changed when the patch sets or
+ * removes its value or anything below it, or replaces one of its ancestors; so are the nodes above it, whose
+ * values contain it.
+ */
+final class MergePatch {
+    private final FieldPathTree tree;
+    private final boolean[] changed;
+
+    private MergePatch(FieldPathTree tree) {
+        this.tree = tree;
+        this.changed = new boolean[tree.size()];
+    }
+
+    /**
+     * @param tree the field paths whose changes are recorded
+     */
+    static MergePatch of(FieldPathTree tree) {
+        return new MergePatch(tree);
+    }
+
+    /**
+     * @return {@code target} with {@code patch} applied
+     */
+    Map<String, Object> apply(Map<String, Object> target, Map<String, Object> patch) {
+        return apply(target, patch, 0);
+    }
+
+    /**
+     * @return the nodes changed by the patches applied so far, indexed by node
+     */
+    boolean[] getChanged() {
+        return changed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> apply(Map<String, Object> target, Map<String, Object> patch, int node) {
+        Map<String, Object> result = target == null ? new LinkedHashMap<>() : new LinkedHashMap<>(target);
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            int child = node < 0 ? -1 : tree.child(node, key);
+            if (value == null) {
+                result.remove(key);
+                changedSubtree(node, child);
+            } else if (value instanceof Map && result.get(key) instanceof Map) {
+                result.put(key, apply((Map<String, Object>) result.get(key), (Map<String, Object>) value, child));
+                if (child < 0 && !((Map<?, ?>) value).isEmpty()) {
+                    // No rule path below here, but the value of node still changed
+                    changedSubtree(node, -1);
+                }
+            } else if (value instanceof Map) {
+                // Merging into anything but an object replaces it, with the patch's nulls dropped
+                result.put(key, apply(null, (Map<String, Object>) value, -1));
+                changedSubtree(node, child);
+            } else {
+                result.put(key, value);
+                changedSubtree(node, child);
+            }
+        }
+        return result;
+    }
+
+    private void changedSubtree(int parent, int child) {
+        if (child >= 0) {
+            Arrays.fill(changed, child, tree.subtreeEnd(child), true);
+        }
+        for (int node = parent; node >= 0 && !changed[node]; node = tree.parent(node)) {
+            changed[node] = true;
+        }
+    }
+}
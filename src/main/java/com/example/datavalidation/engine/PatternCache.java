@@ -0,0 +1,118 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.CompiledPattern;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles each distinct regular expression once and shares the result across rules and rule set reloads.
+ * <p>
+ * The cache is bounded; evicting a pattern only stops it being shared, rules that already hold it keep working.
+ */
+public class PatternCache {
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = allocationTrackingBean();
+
+    private final ConcurrentMap<String, CompiledPattern> patterns = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PatternCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public PatternCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the shared compiled form of a regular expression, compiling it on first use.
+     *
+     * @throws PatternSyntaxException if the expression is invalid
+     */
+    public CompiledPattern compile(String regex) {
+        CompiledPattern cached = patterns.get(regex);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        CompiledPattern compiled = patterns.computeIfAbsent(regex, PatternCache::doCompile);
+        if (patterns.size() > maxSize) {
+            evict(regex);
+        }
+        return compiled;
+    }
+
+    /**
+     * @return the currently cached patterns with their compile time and allocation figures
+     */
+    public List<CompiledPattern> getPatterns() {
+        return List.copyOf(patterns.values());
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public void clear() {
+        patterns.clear();
+    }
+
+    private void evict(String keep) {
+        Iterator<String> keys = patterns.keySet().iterator();
+        while (patterns.size() > maxSize && keys.hasNext()) {
+            if (!keys.next().equals(keep)) {
+                keys.remove();
+            }
+        }
+    }
+
+    private static CompiledPattern doCompile(String regex) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        Pattern pattern = Pattern.compile(regex);
+        long compileTime = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        return new CompiledPattern(pattern, compileTime, allocated);
+    }
+
+    private static long allocatedBytes() {
+        return THREAD_MX_BEAN == null ? -1 : THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationTrackingBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                    return bean;
+                }
+            }
+        } catch (LinkageError e) {
+            // Not a HotSpot-compatible JVM, allocation figures are reported as unknown
+        }
+        return null;
+    }
+}
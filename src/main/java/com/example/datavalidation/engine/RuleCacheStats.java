@@ -0,0 +1,66 @@
+package com.example.datavalidation.engine;
+
+/**
+ * Immutable point-in-time view of the {@link ValidationRuleLoader} rule-set cache counters.
+ */
+public final class RuleCacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long loadCount;
+    private final long evictionCount;
+    private final long totalLoadTimeNanos;
+    private final int size;
+
+    public RuleCacheStats(long hitCount, long missCount, long loadCount, long evictionCount,
+                          long totalLoadTimeNanos, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadCount = loadCount;
+        this.evictionCount = evictionCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of times a rule file was actually read and parsed, including reloads of changed files
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public long getAverageLoadTimeNanos() {
+        return loadCount == 0 ? 0 : totalLoadTimeNanos / loadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleCacheStats{hits=" + hitCount + ", misses=" + missCount + ", loads=" + loadCount
+                + ", evictions=" + evictionCount + ", totalLoadTimeNanos=" + totalLoadTimeNanos
+                + ", size=" + size + "}";
+    }
+}
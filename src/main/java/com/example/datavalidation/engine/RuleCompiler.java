@@ -0,0 +1,252 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.CompiledPattern;
+import com.example.datavalidation.engine.rule.CompiledRule;
+import com.example.datavalidation.engine.rule.DecimalRule;
+import com.example.datavalidation.engine.rule.EnumLookup;
+import com.example.datavalidation.engine.rule.EnumRule;
+import com.example.datavalidation.engine.rule.IntegerRule;
+import com.example.datavalidation.engine.rule.MaxRule;
+import com.example.datavalidation.engine.rule.MinRule;
+import com.example.datavalidation.engine.rule.NotBlankRule;
+import com.example.datavalidation.engine.rule.NotNullRule;
+import com.example.datavalidation.engine.rule.PatternRule;
+import com.example.datavalidation.engine.rule.PositiveRule;
+import com.example.datavalidation.engine.rule.RangeRule;
+import com.example.datavalidation.engine.rule.SizeRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles raw rule definitions, as read from a rule file, into typed {@link CompiledRule}s.
+ * <p>
+ * Every parameter is checked here so that a malformed rule fails the load of its rule file rather than a
+ * validation request. Rules of an unknown type are skipped, as they always have been.
+ */
+public class RuleCompiler {
+    private static final Logger log = LoggerFactory.getLogger(RuleCompiler.class);
+
+    private final PatternCache patternCache;
+
+    public RuleCompiler() {
+        this(new PatternCache());
+    }
+
+    public RuleCompiler(PatternCache patternCache) {
+        this.patternCache = patternCache;
+    }
+
+    /**
+     * Compiles the JSON Schema of a {@code .json} rule file.
+     *
+     * @throws InvalidRuleException if the content is not a valid JSON Schema
+     */
+    public CompiledRuleSet compileSchema(String source, byte[] content) throws InvalidRuleException {
+        return new CompiledRuleSet(source, JsonSchemaRules.compile(source, content));
+    }
+
+    public CompiledRuleSet compile(String source, List<Map<String, Object>> definitions) throws InvalidRuleException {
+        return compile(source, definitions, RuleTables.NONE);
+    }
+
+    /**
+     * @param tables the tables of an earlier compilation of the same definitions, reused instead of building them
+     */
+    CompiledRuleSet compile(String source, List<Map<String, Object>> definitions, RuleTables tables)
+            throws InvalidRuleException {
+        List<CompiledRule> rules = new ArrayList<>(definitions.size());
+        Map<Integer, EnumLookup> enumLookups = new HashMap<>();
+        for (int i = 0; i < definitions.size(); i++) {
+            Object definition = definitions.get(i);
+            if (!(definition instanceof Map)) {
+                throw invalid(source, i, null, "rule must be a mapping");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> rule = (Map<String, Object>) definition;
+            CompiledRule compiled = compileRule(source, i, rule, tables.getEnumLookup(i));
+            if (compiled instanceof EnumRule) {
+                enumLookups.put(i, ((EnumRule) compiled).getLookup());
+            }
+            if (compiled != null) {
+                rules.add(compiled);
+            }
+        }
+        return new CompiledRuleSet(source, rules, definitions, new RuleTables(enumLookups));
+    }
+
+    private CompiledRule compileRule(String source, int index, Map<String, Object> rule, EnumLookup enumLookup)
+            throws InvalidRuleException {
+        String name = optionalString(source, index, rule, "name");
+        String type = requiredString(source, index, name, rule, "type");
+        String field = requiredString(source, index, name, rule, "field");
+        String message = optionalString(source, index, rule, "message");
+
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case "notblank":
+                return new NotBlankRule(name, field, message);
+            case "notnull":
+                return new NotNullRule(name, field, message);
+            case "size":
+                int min = requiredInt(source, index, name, rule, "min");
+                int max = requiredInt(source, index, name, rule, "max");
+                try {
+                    return new SizeRule(name, field, message, min, max);
+                } catch (IllegalArgumentException e) {
+                    throw invalid(source, index, name, e.getMessage());
+                }
+            case "min":
+                return new MinRule(name, field, message, requiredNumber(source, index, name, rule, "value"),
+                        optionalBoolean(source, index, name, rule, "required"));
+            case "max":
+                return new MaxRule(name, field, message, requiredNumber(source, index, name, rule, "value"),
+                        optionalBoolean(source, index, name, rule, "required"));
+            case "range":
+                Number rangeMin = requiredNumber(source, index, name, rule, "min");
+                Number rangeMax = requiredNumber(source, index, name, rule, "max");
+                try {
+                    return new RangeRule(name, field, message, rangeMin, rangeMax,
+                            optionalBoolean(source, index, name, rule, "required"));
+                } catch (IllegalArgumentException e) {
+                    throw invalid(source, index, name, e.getMessage());
+                }
+            case "integer":
+                Number integerMin = optionalNumber(source, index, name, rule, "min");
+                Number integerMax = optionalNumber(source, index, name, rule, "max");
+                try {
+                    return new IntegerRule(name, field, message, integerMin, integerMax,
+                            optionalBoolean(source, index, name, rule, "required"));
+                } catch (IllegalArgumentException e) {
+                    throw invalid(source, index, name, e.getMessage());
+                }
+            case "decimal":
+                Number decimalMin = optionalNumber(source, index, name, rule, "min");
+                Number decimalMax = optionalNumber(source, index, name, rule, "max");
+                Object scale = rule.get("scale");
+                if (scale != null && (!(scale instanceof Integer) || (Integer) scale < 0)) {
+                    throw invalid(source, index, name, "'scale' must be a non-negative integer");
+                }
+                int maxScale = scale == null ? -1 : (Integer) scale;
+                try {
+                    return new DecimalRule(name, field, message, decimalMin, decimalMax, maxScale,
+                            optionalBoolean(source, index, name, rule, "required"));
+                } catch (IllegalArgumentException e) {
+                    throw invalid(source, index, name, e.getMessage());
+                }
+            case "positive":
+                return new PositiveRule(name, field, message, optionalBoolean(source, index, name, rule, "required"));
+            case "pattern":
+                return new PatternRule(name, field, message, compilePattern(source, index, name, rule));
+            case "enum":
+                List<String> values = requiredValues(source, index, name, rule);
+                boolean ignoreCase = optionalBoolean(source, index, name, rule, "ignoreCase");
+                if (enumLookup != null && enumLookup.isIgnoreCase() == ignoreCase
+                        && enumLookup.size() <= values.size()) {
+                    return new EnumRule(name, field, message, values, enumLookup);
+                }
+                return new EnumRule(name, field, message, values, ignoreCase);
+            default:
+                log.warn("Ignoring rule #{} ({}) in {}: unknown type '{}'", index, name, source, type);
+                return null;
+        }
+    }
+
+    private CompiledPattern compilePattern(String source, int index, String name, Map<String, Object> rule)
+            throws InvalidRuleException {
+        String regex = requiredString(source, index, name, rule, "pattern");
+        try {
+            return patternCache.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new InvalidRuleException(describe(source, index, name) + "invalid pattern: " + e.getDescription(), e);
+        }
+    }
+
+    private static List<String> requiredValues(String source, int index, String name, Map<String, Object> rule)
+            throws InvalidRuleException {
+        Object values = rule.get("values");
+        if (!(values instanceof List)) {
+            throw invalid(source, index, name, "'values' must be a list");
+        }
+        List<String> result = new ArrayList<>(((List<?>) values).size());
+        for (Object value : (List<?>) values) {
+            if (value == null) {
+                throw invalid(source, index, name, "'values' must not contain null");
+            }
+            result.add(value.toString());
+        }
+        return result;
+    }
+
+    private static int requiredInt(String source, int index, String name, Map<String, Object> rule, String key)
+            throws InvalidRuleException {
+        Object value = rule.get(key);
+        if (!(value instanceof Number)) {
+            throw invalid(source, index, name, "'" + key + "' must be a number");
+        }
+        return ((Number) value).intValue();
+    }
+
+    private static Number requiredNumber(String source, int index, String name, Map<String, Object> rule,
+                                         String key) throws InvalidRuleException {
+        Number value = optionalNumber(source, index, name, rule, key);
+        if (value == null) {
+            throw invalid(source, index, name, "'" + key + "' must be a number");
+        }
+        return value;
+    }
+
+    private static Number optionalNumber(String source, int index, String name, Map<String, Object> rule,
+                                         String key) throws InvalidRuleException {
+        Object value = rule.get(key);
+        if (value == null) {
+            return null;
+        }
+        boolean finite = value instanceof Number && !(value instanceof Double && !Double.isFinite((Double) value))
+                && !(value instanceof Float && !Float.isFinite((Float) value));
+        if (!finite) {
+            throw invalid(source, index, name, "'" + key + "' must be a number");
+        }
+        return (Number) value;
+    }
+
+    private static boolean optionalBoolean(String source, int index, String name, Map<String, Object> rule,
+                                           String key) throws InvalidRuleException {
+        Object value = rule.get(key);
+        if (value != null && !(value instanceof Boolean)) {
+            throw invalid(source, index, name, "'" + key + "' must be true or false");
+        }
+        return Boolean.TRUE.equals(value);
+    }
+
+    private static String requiredString(String source, int index, String name, Map<String, Object> rule, String key)
+            throws InvalidRuleException {
+        Object value = rule.get(key);
+        if (!(value instanceof String) || ((String) value).isEmpty()) {
+            throw invalid(source, index, name, "'" + key + "' is required");
+        }
+        return (String) value;
+    }
+
+    private static String optionalString(String source, int index, Map<String, Object> rule, String key)
+            throws InvalidRuleException {
+        Object value = rule.get(key);
+        if (value != null && !(value instanceof String)) {
+            throw invalid(source, index, null, "'" + key + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    private static InvalidRuleException invalid(String source, int index, String name, String problem) {
+        return new InvalidRuleException(describe(source, index, name) + problem);
+    }
+
+    private static String describe(String source, int index, String name) {
+        return "Invalid rule #" + (index + 1) + (name != null ? " '" + name + "'" : "") + " in " + source + ": ";
+    }
+}
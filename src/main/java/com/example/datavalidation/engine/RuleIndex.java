@@ -0,0 +1,193 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.EnumLookup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pre-parsed rule definitions of every rule file of an application's rule directory, written at build time by
+ * {@link RuleIndexCompiler} and packaged in the application's jar at {@link #LOCATION}.
+ * <p>
+ * The index is a single Smile document read in one pass. Each entry carries the checksum of the YAML file it
+ * was built from, and {@link ValidationRuleLoader} only uses an entry when the rule file it resolved has that
+ * exact content. An edited file in development, or a rule file from another location, is parsed as YAML.
+ * <p>
+ * An entry can also carry the {@link RuleTables} its rule set was compiled with, as a {@link RuleSetSnapshot}
+ * does; they are valid for the same content as the definitions.
+ */
+public final class RuleIndex {
+    /**
+     * Class path location of the index packaged with the application.
+     */
+    public static final String LOCATION = "META-INF/validation/rules.idx";
+
+    static final RuleIndex EMPTY = new RuleIndex(Collections.emptyMap());
+
+    private static final Logger log = LoggerFactory.getLogger(RuleIndex.class);
+    private static final int FORMAT_VERSION = 2;
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+
+    private final Map<String, Entry> entries;
+
+    private RuleIndex(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Reads the index packaged at {@link #LOCATION}. A missing or unreadable index is not an error, every rule
+     * file is then parsed from YAML.
+     */
+    public static RuleIndex load(ClassLoader classLoader) {
+        try (InputStream in = classLoader.getResourceAsStream(LOCATION)) {
+            return in == null ? EMPTY : read(in);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable rule index {}: {}", LOCATION, e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    public static RuleIndex read(InputStream in) throws IOException {
+        Document document = SMILE_MAPPER.readValue(in, Document.class);
+        if (document.format != FORMAT_VERSION) {
+            throw new IOException("Unsupported rule index format " + document.format);
+        }
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (Document.File file : document.files) {
+            Map<Integer, EnumLookup> enumLookups = new HashMap<>();
+            for (Document.EnumTable table : file.enums) {
+                try {
+                    enumLookups.put(table.rule, EnumLookup.restore(table.table, table.hashes, table.ignoreCase));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Invalid enum table of rule #" + (table.rule + 1) + " in " + file.name, e);
+                }
+            }
+            entries.put(file.name, new Entry(file.checksum, Collections.unmodifiableList(file.rules),
+                    enumLookups.isEmpty() ? RuleTables.NONE : new RuleTables(enumLookups)));
+        }
+        return new RuleIndex(Collections.unmodifiableMap(entries));
+    }
+
+    public void write(OutputStream out) throws IOException {
+        Document document = new Document();
+        document.format = FORMAT_VERSION;
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            Document.File file = new Document.File();
+            file.name = entry.getKey();
+            file.checksum = entry.getValue().checksum;
+            file.rules = entry.getValue().definitions;
+            for (Map.Entry<Integer, EnumLookup> lookup : entry.getValue().tables.getEnumLookups().entrySet()) {
+                Document.EnumTable table = new Document.EnumTable();
+                table.rule = lookup.getKey();
+                table.ignoreCase = lookup.getValue().isIgnoreCase();
+                table.table = lookup.getValue().getTable();
+                table.hashes = lookup.getValue().getHashes();
+                file.enums.add(table);
+            }
+            document.files.add(file);
+        }
+        SMILE_MAPPER.writeValue(out, document);
+    }
+
+    /**
+     * @return the indexed definitions of {@code ruleFile} if they were built from content with this checksum,
+     * otherwise {@code null}
+     */
+    List<Map<String, Object>> get(String ruleFile, long checksum) {
+        Entry entry = entries.get(ruleFile);
+        return entry != null && entry.checksum == checksum ? entry.definitions : null;
+    }
+
+    /**
+     * @return the tables the definitions {@link #get} returns for the same checksum were compiled with, or
+     * {@link RuleTables#NONE}
+     */
+    RuleTables getTables(String ruleFile, long checksum) {
+        Entry entry = entries.get(ruleFile);
+        return entry != null && entry.checksum == checksum ? entry.tables : RuleTables.NONE;
+    }
+
+    /**
+     * @return the checksum of the content {@code ruleFile} was indexed from, or null if it is not indexed
+     */
+    Long getChecksum(String ruleFile) {
+        Entry entry = entries.get(ruleFile);
+        return entry == null ? null : entry.checksum;
+    }
+
+    /**
+     * @return the indexed rule files
+     */
+    public Set<String> getRuleFiles() {
+        return entries.keySet();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder {
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+        Builder add(String ruleFile, long checksum, List<Map<String, Object>> definitions) {
+            return add(ruleFile, checksum, definitions, RuleTables.NONE);
+        }
+
+        Builder add(String ruleFile, long checksum, List<Map<String, Object>> definitions, RuleTables tables) {
+            entries.put(ruleFile, new Entry(checksum, definitions, tables));
+            return this;
+        }
+
+        RuleIndex build() {
+            return new RuleIndex(Collections.unmodifiableMap(new LinkedHashMap<>(entries)));
+        }
+    }
+
+    private static final class Entry {
+        final long checksum;
+        final List<Map<String, Object>> definitions;
+        final RuleTables tables;
+
+        Entry(long checksum, List<Map<String, Object>> definitions, RuleTables tables) {
+            this.checksum = checksum;
+            this.definitions = definitions;
+            this.tables = tables;
+        }
+    }
+
+    // Serialized form; fields are public for Jackson only
+    private static final class Document {
+        public int format;
+        public List<File> files = new ArrayList<>();
+
+        private static final class File {
+            public String name;
+            public long checksum;
+            public List<Map<String, Object>> rules;
+            public List<EnumTable> enums = new ArrayList<>();
+        }
+
+        private static final class EnumTable {
+            public int rule;
+            public boolean ignoreCase;
+            public String[] table;
+            public int[] hashes;
+        }
+    }
+}
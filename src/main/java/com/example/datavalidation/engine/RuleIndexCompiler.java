@@ -0,0 +1,85 @@
+package com.example.datavalidation.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build step that validates every YAML rule file in a directory and writes them into a {@link RuleIndex}.
+ * <p>
+ * Run by the build, e.g. at {@code process-classes}, with the rule source directory and the index file as
+ * arguments. Every file is compiled exactly as {@link ValidationRuleLoader} would at runtime, so a malformed rule
+ * fails the build instead of the first request that needs it.
+ * <p>
+ * Not part of the runtime jar: it is published as the {@code index-compiler} classifier, which the build adds to
+ * the class path of this step.
+ */
+public final class RuleIndexCompiler {
+    private static final Logger log = LoggerFactory.getLogger(RuleIndexCompiler.class);
+
+    private RuleIndexCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: RuleIndexCompiler <rule source directory> <index file>");
+        }
+        Path sourceDir = Paths.get(args[0]);
+        Path indexFile = Paths.get(args[1]);
+        if (!Files.isDirectory(sourceDir)) {
+            log.info("No rule directory {}, skipping rule index", sourceDir);
+            return;
+        }
+
+        RuleIndex index = compile(sourceDir);
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            index.write(out);
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Compiled {} rule files into {}", index.size(), indexFile);
+    }
+
+    /**
+     * Parses and compiles every {@code .yml}/{@code .yaml} file below {@code sourceDir}, keyed by its path
+     * relative to it.
+     *
+     * @throws InvalidRuleException if any file contains a malformed rule
+     */
+    static RuleIndex compile(Path sourceDir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(sourceDir)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(RuleIndexCompiler::isRuleFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        RuleCompiler compiler = new RuleCompiler();
+        RuleIndex.Builder builder = RuleIndex.builder();
+        for (Path file : files) {
+            String ruleFile = sourceDir.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+            byte[] content = Files.readAllBytes(file);
+            List<Map<String, Object>> definitions = ValidationRuleLoader.parse(ruleFile, content);
+            compiler.compile(ruleFile, definitions);
+            builder.add(ruleFile, ValidationRuleLoader.checksum(content), definitions);
+        }
+        return builder.build();
+    }
+
+    private static boolean isRuleFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".yml") || name.endsWith(".yaml");
+    }
+}
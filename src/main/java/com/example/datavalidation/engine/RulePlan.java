@@ -0,0 +1,292 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.CompiledRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The evaluation order of a rule set: its rules grouped by field and walked along the {@link FieldPathTree}.
+ * <p>
+ * Each field's presence rules ({@link CompiledRule#checksPresence()}) run first, then its other rules,
+ * cheapest first by {@link CompiledRule#getCost()}. All other rules pass an absent value, so an absent field
+ * runs only its presence rules, and an absent field with no presence rules below it skips its whole subtree in
+ * one step; descendants of an absent value are absent too. With
+ * {@link ValidationOptions#isSkipFieldAfterFailure()}, a failed presence rule skips the field's subtree and any
+ * other failure the field's remaining rules.
+ * <p>
+ * Errors are still reported in rule file order, whatever order the rules ran in.
+ * <p>
+ * A plan evaluated often enough can be compiled to a {@link RuleSetValidator} by {@link ValidatorGenerator}, see
+ * {@link #evaluate(Object[], ValidationOptions, ValidationMetrics, int)}; the interpreted walk stays the fallback.
+ */
+final class RulePlan {
+    private static final Logger log = LoggerFactory.getLogger(RulePlan.class);
+    // Stands in for a plan that could not be compiled, so generation is attempted only once
+    private static final RuleSetValidator NOT_GENERATED = new RuleSetValidator() {
+        @Override
+        public ValidationError[] evaluate(Object[] values, int maxErrors, boolean skipAfterFailure) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ValidationError[] evaluateTimed(Object[] values, int maxErrors, boolean skipAfterFailure,
+                                               ValidationMetrics metrics, String source) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private final String source;
+    private final CompiledRule[] rules;
+    private final CompiledRule[] rulesByIndex;
+    private final int[] ruleIndexes;
+    private final int[] nodeStarts;
+    private final int[] presenceEnds;
+    private final int[] subtreeEnds;
+    private final boolean[] presenceBelow;
+    private final AtomicInteger evaluations = new AtomicInteger();
+    private volatile RuleSetValidator validator;
+
+    /**
+     * @param source the rule file the rules were compiled from, reported to {@link ValidationMetrics}
+     */
+    RulePlan(String source, List<CompiledRule> ruleList, int[] ruleNodes, FieldPathTree tree) {
+        this.source = source;
+        int nodes = tree.size();
+        List<List<Integer>> byNode = new ArrayList<>(nodes);
+        for (int node = 0; node < nodes; node++) {
+            byNode.add(new ArrayList<>(2));
+        }
+        for (int i = 0; i < ruleNodes.length; i++) {
+            byNode.get(ruleNodes[i]).add(i);
+        }
+
+        Comparator<Integer> order = Comparator
+                .comparing((Integer i) -> !ruleList.get(i).checksPresence())
+                .thenComparingInt(i -> ruleList.get(i).getCost());
+        this.rules = new CompiledRule[ruleNodes.length];
+        this.rulesByIndex = ruleList.toArray(new CompiledRule[0]);
+        this.ruleIndexes = new int[ruleNodes.length];
+        this.nodeStarts = new int[nodes + 1];
+        this.presenceEnds = new int[nodes];
+        this.subtreeEnds = new int[nodes];
+        this.presenceBelow = new boolean[nodes];
+        int next = 0;
+        for (int node = 0; node < nodes; node++) {
+            List<Integer> nodeRules = byNode.get(node);
+            nodeRules.sort(order);
+            nodeStarts[node] = next;
+            presenceEnds[node] = next;
+            for (int index : nodeRules) {
+                rules[next] = ruleList.get(index);
+                ruleIndexes[next] = index;
+                if (rules[next].checksPresence()) {
+                    presenceEnds[node] = next + 1;
+                }
+                next++;
+            }
+            subtreeEnds[node] = tree.subtreeEnd(node);
+        }
+        nodeStarts[nodes] = next;
+        // Pre-order: a node's descendants come after it, so walk backwards to fold them up
+        for (int node = nodes - 1; node >= 0; node--) {
+            for (int child = node + 1; child < subtreeEnds[node]; child = subtreeEnds[child]) {
+                presenceBelow[node] |= presenceBelow[child] || presenceEnds[child] > nodeStarts[child];
+            }
+        }
+    }
+
+    /**
+     * @param values the {@link FieldPathTree} node values of the record being validated
+     */
+    ValidationResult evaluate(Object[] values, ValidationOptions options) {
+        return evaluate(values, options, ValidationMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics told about every failed rule, and about every rule's duration if it asks for rule timing
+     */
+    ValidationResult evaluate(Object[] values, ValidationOptions options, ValidationMetrics metrics) {
+        boolean timeRules = metrics.isRuleTimingEnabled();
+        int maxErrors = options.getMaxErrors();
+        boolean skipAfterFailure = options.isSkipFieldAfterFailure();
+        // Indexed by rule index, so errors come out in rule order; only allocated for an invalid record
+        ValidationError[] found = null;
+        int errorCount = 0;
+
+        int node = 0;
+        while (node < subtreeEnds.length) {
+            Object value = values[node];
+            int end = value == null ? presenceEnds[node] : nodeStarts[node + 1];
+            boolean presenceFailed = false;
+            for (int i = nodeStarts[node]; i < end; i++) {
+                ValidationError error;
+                if (timeRules) {
+                    long start = System.nanoTime();
+                    error = rules[i].validate(value);
+                    metrics.recordRule(source, rules[i], System.nanoTime() - start);
+                } else {
+                    error = rules[i].validate(value);
+                }
+                if (error == null) {
+                    continue;
+                }
+                metrics.recordRuleFailure(source, rules[i]);
+                if (found == null) {
+                    found = new ValidationError[rules.length];
+                }
+                found[ruleIndexes[i]] = error;
+                if (++errorCount >= maxErrors) {
+                    return collect(found);
+                }
+                if (skipAfterFailure) {
+                    presenceFailed = i < presenceEnds[node];
+                    break;
+                }
+            }
+            boolean skipSubtree = presenceFailed || (value == null && !presenceBelow[node]);
+            node = skipSubtree ? subtreeEnds[node] : node + 1;
+        }
+        return found == null ? ValidationResult.valid() : collect(found);
+    }
+
+    /**
+     * Evaluates through the generated validator once the plan was evaluated {@code generateAfter} times; otherwise
+     * like {@link #evaluate(Object[], ValidationOptions, ValidationMetrics)}, with the same results and metrics.
+     * Only the evaluation that reaches the threshold generates the validator, concurrent ones keep interpreting
+     * until it is published.
+     *
+     * @param generateAfter the number of evaluations before the plan is compiled to bytecode; negative never
+     *                      compiles it
+     */
+    ValidationResult evaluate(Object[] values, ValidationOptions options, ValidationMetrics metrics,
+                              int generateAfter) {
+        if (generateAfter < 0) {
+            return evaluate(values, options, metrics);
+        }
+        RuleSetValidator generated = validator;
+        if (generated == null) {
+            if (evaluations.incrementAndGet() != generateAfter + 1) {
+                return evaluate(values, options, metrics);
+            }
+            generated = generate();
+        }
+        if (generated == NOT_GENERATED) {
+            return evaluate(values, options, metrics);
+        }
+        ValidationError[] found = metrics.isRuleTimingEnabled()
+                ? generated.evaluateTimed(values, options.getMaxErrors(), options.isSkipFieldAfterFailure(),
+                        metrics, source)
+                : generated.evaluate(values, options.getMaxErrors(), options.isSkipFieldAfterFailure());
+        if (found == null) {
+            return ValidationResult.valid();
+        }
+        for (int i = 0; i < found.length; i++) {
+            if (found[i] != null) {
+                metrics.recordRuleFailure(source, rulesByIndex[i]);
+            }
+        }
+        return collect(found);
+    }
+
+    /**
+     * Evaluates every rule, without error limit or skipping, for a record that differs from an already evaluated
+     * one only in the {@code changed} nodes. Rules of unchanged nodes are not run, their errors are taken over
+     * from {@code previous}.
+     *
+     * @param changed  the changed {@link FieldPathTree} nodes, or null to evaluate every rule
+     * @param previous the errors of the already evaluated record, indexed by rule index; only read for unchanged
+     *                 nodes
+     * @return the errors indexed by rule index, with a null entry for every rule that passed
+     */
+    ValidationError[] evaluateChanged(Object[] values, boolean[] changed, ValidationError[] previous,
+                                      ValidationMetrics metrics) {
+        ValidationError[] found = new ValidationError[rules.length];
+        int node = 0;
+        while (node < subtreeEnds.length) {
+            if (changed != null && !changed[node]) {
+                for (int i = nodeStarts[node]; i < nodeStarts[node + 1]; i++) {
+                    found[ruleIndexes[i]] = previous[ruleIndexes[i]];
+                }
+                node++;
+                continue;
+            }
+            Object value = values[node];
+            int end = value == null ? presenceEnds[node] : nodeStarts[node + 1];
+            for (int i = nodeStarts[node]; i < end; i++) {
+                ValidationError error = rules[i].validate(value);
+                if (error != null) {
+                    metrics.recordRuleFailure(source, rules[i]);
+                    found[ruleIndexes[i]] = error;
+                }
+            }
+            // Below an absent value without presence rules every rule passes, changed or not
+            node = value == null && !presenceBelow[node] ? subtreeEnds[node] : node + 1;
+        }
+        return found;
+    }
+
+    /**
+     * @return the errors of an {@link #evaluateChanged} result that {@link #evaluate} without skipping would
+     *         report: the first {@code maxErrors} in evaluation order, in rule order
+     */
+    ValidationResult collect(ValidationError[] found, int maxErrors) {
+        ValidationError[] kept = new ValidationError[found.length];
+        int errorCount = 0;
+        for (int i = 0; i < rules.length && errorCount < maxErrors; i++) {
+            ValidationError error = found[ruleIndexes[i]];
+            if (error != null) {
+                kept[ruleIndexes[i]] = error;
+                errorCount++;
+            }
+        }
+        return errorCount == 0 ? ValidationResult.valid() : collect(kept);
+    }
+
+    private synchronized RuleSetValidator generate() {
+        if (validator == null && rules.length > ValidatorGenerator.MAX_RULES) {
+            log.debug("Evaluating {} rules interpreted, more than {} are not generated", rules.length,
+                    ValidatorGenerator.MAX_RULES);
+            validator = NOT_GENERATED;
+        } else if (validator == null) {
+            try {
+                validator = new ValidatorGenerator(rules, ruleIndexes, nodeStarts, presenceEnds, subtreeEnds,
+                        presenceBelow).generate();
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                log.warn("Evaluating {} rules interpreted, could not generate a validator: {}", rules.length,
+                        e.toString());
+                validator = NOT_GENERATED;
+            }
+        }
+        return validator;
+    }
+
+    /**
+     * @return whether evaluation has switched to a generated validator
+     */
+    boolean isGenerated() {
+        RuleSetValidator generated = validator;
+        return generated != null && generated != NOT_GENERATED;
+    }
+
+    private static ValidationResult collect(ValidationError[] found) {
+        List<ValidationError> errors = new ArrayList<>(4);
+        for (ValidationError error : found) {
+            if (error != null) {
+                errors.add(error);
+            }
+        }
+        return ValidationResult.of(errors);
+    }
+
+    /**
+     * @return the rules in evaluation order
+     */
+    List<CompiledRule> getRules() {
+        return List.of(rules);
+    }
+}
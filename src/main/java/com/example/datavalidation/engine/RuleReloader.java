@@ -0,0 +1,178 @@
+package com.example.datavalidation.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Recompiles changed rule files in the background and publishes them through {@link ValidationRuleLoader#reload}.
+ * <p>
+ * Changes arrive either from a {@link WatchService} on the rules directory or from explicit {@link #reload}
+ * calls, e.g. after a rule file was written through the REST API. Recompiles run one at a time on a single
+ * background thread, so they are applied in the order they were requested and never block validation.
+ */
+public class RuleReloader implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(RuleReloader.class);
+    // How often the watcher retries a rules directory that was deleted or could not be registered
+    private static final long RETRY_INTERVAL_MILLIS = 1_000;
+
+    private final ValidationRuleLoader ruleLoader;
+    private final Path directory;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> daemon(r, "validation-rule-reloader"));
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private WatchService watchService;
+    private Thread watcher;
+
+    /**
+     * @param directory the rules directory to watch, or {@code null} to only reload on explicit requests
+     */
+    public RuleReloader(ValidationRuleLoader ruleLoader, Path directory) {
+        this.ruleLoader = ruleLoader;
+        this.directory = directory == null ? null : directory.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Starts watching the rules directory, if there is one.
+     */
+    public synchronized void start() throws IOException {
+        if (directory == null || watcher != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        watcher = daemon(this::watch, "validation-rule-watcher");
+        watcher.start();
+        log.debug("Watching {} for rule changes", directory);
+    }
+
+    /**
+     * Schedules a background recompile of one rule file.
+     *
+     * @param ruleFile the rule file name, relative to the rules location
+     * @return completes once the new rule set is published, or the reload failed and was logged
+     */
+    public Future<?> reload(String ruleFile) {
+        return executor.submit(() -> {
+            try {
+                ruleLoader.reload(ruleFile);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Keeping previous rules for {}, reload failed: {}", ruleFile, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Schedules a background recompile of every cached rule file.
+     */
+    public Future<?> reloadAll() {
+        return executor.submit(() -> {
+            for (String ruleFile : ruleLoader.getCachedRuleFiles()) {
+                try {
+                    ruleLoader.reload(ruleFile);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Keeping previous rules for {}, reload failed: {}", ruleFile, e.getMessage());
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) {
+            watcher.interrupt();
+            watchService.close();
+            watcher = null;
+        }
+        executor.shutdownNow();
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (watchedDirectories.isEmpty() && register()) {
+                    // Anything may have changed while the directory was not watched
+                    reloadAll();
+                }
+                WatchKey key = watchService.poll(RETRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    handle(key);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private boolean register() {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        try (Stream<Path> directories = Files.walk(directory)) {
+            for (Path dir : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+                registerDirectory(dir);
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Cannot watch rules directory {}: {}", directory, e.getMessage());
+            cancelAll();
+            return false;
+        }
+    }
+
+    private void registerDirectory(Path dir) throws IOException {
+        WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        watchedDirectories.put(key, dir);
+    }
+
+    private void handle(WatchKey key) {
+        Path dir = watchedDirectories.get(key);
+        if (dir == null) {
+            key.cancel();
+            return;
+        }
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                reloadAll();
+                continue;
+            }
+            Path changed = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                cancelAll();
+                continue;
+            }
+            reload(directory.relativize(changed).toString().replace(changed.getFileSystem().getSeparator(), "/"));
+        }
+        if (!key.reset()) {
+            // The directory itself is gone: drop all registrations and wait for it to come back
+            cancelAll();
+        }
+    }
+
+    private void cancelAll() {
+        watchedDirectories.keySet().forEach(WatchKey::cancel);
+        watchedDirectories.clear();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
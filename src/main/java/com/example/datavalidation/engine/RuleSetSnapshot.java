@@ -0,0 +1,154 @@
+package com.example.datavalidation.engine;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The parsed YAML of rule files that are not in the packaged {@link RuleIndex}, such as those of a mounted
+ * {@code file:} rules location, kept in a local directory so that a restarted application does not parse them
+ * again.
+ * <p>
+ * The snapshot is a {@link RuleIndex} written to {@value #FILE_NAME}: like the index packaged at build time,
+ * each entry carries the checksum of the content it was parsed from and is only used for a file with that exact
+ * content, so edited files are parsed as usual. Next to the definitions it keeps the {@code enum} lookup tables
+ * the rule set was compiled with, which are reused for the same content; patterns are compiled again, see
+ * {@link ValidationRuleLoader#warmUp()}. An unreadable snapshot, or one written in another format, is ignored.
+ * The file is memory-mapped for reading rather than copied to the heap.
+ * <p>
+ * {@link #write()} replaces the file atomically with the rule files read from it and loaded since the start,
+ * and only if that set changed since the snapshot was read or last written. Files found deleted, by a reload
+ * or by {@link ValidationRuleLoader#warmUp()}, are dropped from it.
+ */
+public class RuleSetSnapshot {
+    public static final String FILE_NAME = "rule-sets.idx";
+
+    private static final Logger log = LoggerFactory.getLogger(RuleSetSnapshot.class);
+
+    private final Path file;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    /**
+     * @param directory the directory holding the snapshot, created on the first write
+     */
+    public RuleSetSnapshot(Path directory) {
+        this.file = directory.resolve(FILE_NAME);
+    }
+
+    /**
+     * Reads the last snapshot written, whose rule files also make up the next one until they are recorded again
+     * or forgotten, so that an unchanged set of files is not written again.
+     *
+     * @return the rule files of the last snapshot written, or an empty index if there is none usable
+     */
+    RuleIndex load() {
+        if (!Files.isRegularFile(file)) {
+            return RuleIndex.EMPTY;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            RuleIndex index = RuleIndex.read(new ByteBufferBackedInputStream(mapped));
+            for (String ruleFile : index.getRuleFiles()) {
+                long checksum = index.getChecksum(ruleFile);
+                entries.put(ruleFile, new Entry(checksum, index.get(ruleFile, checksum),
+                        index.getTables(ruleFile, checksum)));
+            }
+            log.debug("Read {} rule files from snapshot {}", index.size(), file);
+            return index;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable rule set snapshot {}: {}", file, e.getMessage());
+            return RuleIndex.EMPTY;
+        }
+    }
+
+    /**
+     * Adds a rule file to the next snapshot written.
+     */
+    void record(String ruleFile, long checksum, CompiledRuleSet ruleSet) {
+        Entry previous = entries.put(ruleFile, new Entry(checksum, ruleSet.getDefinitions(), ruleSet.getTables()));
+        if (previous == null || previous.checksum != checksum) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Removes a rule file that no longer exists from the next snapshot written.
+     */
+    void forget(String ruleFile) {
+        if (entries.remove(ruleFile) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Writes the rule files recorded so far, if any changed. Failures are logged and leave the previous snapshot
+     * in place, as they only cost the next start its head start.
+     *
+     * @return whether a snapshot was written
+     */
+    public synchronized boolean write() {
+        if (!dirty) {
+            return false;
+        }
+        dirty = false;
+        RuleIndex.Builder builder = RuleIndex.builder();
+        for (Map.Entry<String, Entry> entry : new TreeMap<>(entries).entrySet()) {
+            builder.add(entry.getKey(), entry.getValue().checksum, entry.getValue().definitions,
+                    entry.getValue().tables);
+        }
+        RuleIndex index = builder.build();
+        Path tempFile = file.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                index.write(out);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.debug("Wrote {} rule files to snapshot {}", index.size(), file);
+            return true;
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Could not write rule set snapshot {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the last changes, see {@link #write()}.
+     */
+    public void close() {
+        write();
+    }
+
+    private static final class Entry {
+        final long checksum;
+        final List<Map<String, Object>> definitions;
+        final RuleTables tables;
+
+        Entry(long checksum, List<Map<String, Object>> definitions, RuleTables tables) {
+            this.checksum = checksum;
+            this.definitions = definitions;
+            this.tables = tables;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.datavalidation.engine;
+
+/**
+ * Where {@link ValidationRuleLoader} took a rule file's definitions from when it last loaded the file.
+ */
+public enum RuleSetSource {
+    /** Parsed from the YAML rule file. */
+    YAML("yaml"),
+    /** Compiled from a JSON Schema file, which is never indexed or snapshotted. */
+    SCHEMA("schema"),
+    /** Read from the packaged {@link RuleIndex}. */
+    INDEX("index"),
+    /** Read from the {@link RuleSetSnapshot} of a previous run. */
+    SNAPSHOT("snapshot");
+
+    private final String tag;
+
+    RuleSetSource(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * @return the lower-case name, as used for metric tags
+     */
+    public String getTag() {
+        return tag;
+    }
+}
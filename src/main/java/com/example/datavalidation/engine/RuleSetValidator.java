@@ -0,0 +1,25 @@
+package com.example.datavalidation.engine;
+
+/**
+ * A {@link RulePlan} compiled to bytecode by {@link ValidatorGenerator}.
+ */
+interface RuleSetValidator {
+
+    /**
+     * Runs the rules of the plan, in plan order, until {@code maxErrors} rules failed.
+     *
+     * @param values           the {@link FieldPathTree} node values of the record being validated
+     * @param skipAfterFailure whether a failure skips the field's remaining rules, see
+     *                         {@link ValidationOptions#isSkipFieldAfterFailure()}
+     * @return the errors indexed by rule index, or null if every rule passed
+     */
+    ValidationError[] evaluate(Object[] values, int maxErrors, boolean skipAfterFailure);
+
+    /**
+     * Like {@link #evaluate}, reporting every rule's duration to {@link ValidationMetrics#recordRule}.
+     *
+     * @param source the rule file of the plan
+     */
+    ValidationError[] evaluateTimed(Object[] values, int maxErrors, boolean skipAfterFailure,
+                                    ValidationMetrics metrics, String source);
+}
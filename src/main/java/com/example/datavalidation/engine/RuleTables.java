@@ -0,0 +1,38 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.EnumLookup;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The lookup tables built while compiling one rule file, by the index of the rule definition they belong to, so
+ * that a {@link RuleSetSnapshot} can hand them to the next compilation of the same content.
+ * <p>
+ * Only {@code enum} tables are kept: a compiled {@link java.util.regex.Pattern} cannot be stored, deserializing
+ * one compiles it again.
+ */
+final class RuleTables {
+    static final RuleTables NONE = new RuleTables(Collections.emptyMap());
+
+    private final Map<Integer, EnumLookup> enumLookups;
+
+    RuleTables(Map<Integer, EnumLookup> enumLookups) {
+        this.enumLookups = Collections.unmodifiableMap(enumLookups);
+    }
+
+    /**
+     * @return the lookup of the {@code enum} rule defined at {@code rule}, or null if there is none
+     */
+    EnumLookup getEnumLookup(int rule) {
+        return enumLookups.get(rule);
+    }
+
+    Map<Integer, EnumLookup> getEnumLookups() {
+        return enumLookups;
+    }
+
+    boolean isEmpty() {
+        return enumLookups.isEmpty();
+    }
+}
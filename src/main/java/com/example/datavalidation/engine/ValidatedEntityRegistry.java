@@ -0,0 +1,145 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+import com.example.datavalidation.annotation.ValidatedEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The entity classes that can be validated by name, discovered once at startup.
+ * <p>
+ * Entities are looked up by fully-qualified class name or by a short alias: the {@link ValidatedEntity}
+ * value if given, otherwise the lower-cased simple class name. Lookups are plain hash map reads, so an unknown
+ * name is rejected without ever reaching a class loader.
+ */
+public class ValidatedEntityRegistry {
+    private static final Logger log = LoggerFactory.getLogger(ValidatedEntityRegistry.class);
+
+    private final Map<String, Class<?>> byClassName = new HashMap<>();
+    private final Map<String, Class<?>> byAlias = new HashMap<>();
+
+    public ValidatedEntityRegistry(Collection<Class<?>> entityClasses) {
+        Map<String, Class<?>> explicitAliases = new HashMap<>();
+        Map<String, Class<?>> derivedAliases = new LinkedHashMap<>();
+        Set<String> ambiguous = new HashSet<>();
+        for (Class<?> entityClass : entityClasses) {
+            byClassName.put(entityClass.getName(), entityClass);
+            String explicit = explicitAlias(entityClass);
+            if (explicit != null) {
+                Class<?> previous = explicitAliases.put(explicit, entityClass);
+                if (previous != null && previous != entityClass) {
+                    throw new IllegalStateException("Entity alias '" + explicit + "' is declared by both "
+                            + previous.getName() + " and " + entityClass.getName());
+                }
+                continue;
+            }
+            String derived = entityClass.getSimpleName().toLowerCase(Locale.ROOT);
+            Class<?> previous = derivedAliases.putIfAbsent(derived, entityClass);
+            if (previous != null && previous != entityClass) {
+                ambiguous.add(derived);
+            }
+        }
+        for (String alias : ambiguous) {
+            log.debug("Alias '{}' matches several entity classes, they must be addressed by class name", alias);
+            derivedAliases.remove(alias);
+        }
+        // An explicit alias always wins over a derived one
+        byAlias.putAll(derivedAliases);
+        byAlias.putAll(explicitAliases);
+    }
+
+    /**
+     * Finds every class annotated with {@link ValidatedBy} or {@link ValidatedEntity} under the given packages.
+     */
+    public static ValidatedEntityRegistry scan(ClassLoader classLoader, Collection<String> basePackages) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(ValidatedBy.class));
+        scanner.addIncludeFilter(new AnnotationTypeFilter(ValidatedEntity.class));
+        scanner.addIncludeFilter(new AnnotationTypeFilter(com.example.datavalidation.ValidatedEntity.class));
+
+        Map<String, Class<?>> found = new LinkedHashMap<>();
+        for (String basePackage : basePackages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                String className = candidate.getBeanClassName();
+                try {
+                    found.putIfAbsent(className, ClassUtils.forName(className, classLoader));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    log.warn("Skipping validated entity {}: {}", className, e.toString());
+                }
+            }
+        }
+        log.debug("Registered {} validated entities under {}", found.size(), basePackages);
+        return new ValidatedEntityRegistry(found.values());
+    }
+
+    /**
+     * @param name a fully-qualified class name or an entity alias
+     * @return the registered entity class, or {@code null} if there is none by that name
+     */
+    public Class<?> resolve(String name) {
+        Class<?> entityClass = byClassName.get(name);
+        if (entityClass == null) {
+            entityClass = byAlias.get(name);
+        }
+        if (entityClass == null) {
+            entityClass = byAlias.get(name.toLowerCase(Locale.ROOT));
+        }
+        return entityClass;
+    }
+
+    /**
+     * @return the registered entity classes by alias
+     */
+    public Map<String, Class<?>> getAliases() {
+        return Collections.unmodifiableMap(byAlias);
+    }
+
+    public Collection<Class<?>> getEntityClasses() {
+        return Collections.unmodifiableCollection(byClassName.values());
+    }
+
+    /**
+     * Loads and compiles the rule set of every registered entity, so the first request for each does not pay
+     * for it. Entities whose rules fail to load are logged and skipped; they report the error when validated.
+     */
+    public void precompile(ValidationRuleLoader ruleLoader) {
+        for (Class<?> entityClass : byClassName.values()) {
+            ValidatedBy validatedBy = entityClass.getAnnotation(ValidatedBy.class);
+            if (validatedBy == null) {
+                continue;
+            }
+            try {
+                ruleLoader.loadRuleSet(validatedBy.value());
+            } catch (Exception e) {
+                log.warn("Could not precompile rules {} for {}: {}", validatedBy.value(), entityClass.getName(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    private static String explicitAlias(Class<?> entityClass) {
+        ValidatedEntity annotation = entityClass.getAnnotation(ValidatedEntity.class);
+        if (annotation != null && !annotation.value().isEmpty()) {
+            return annotation.value().toLowerCase(Locale.ROOT);
+        }
+        com.example.datavalidation.ValidatedEntity legacy =
+                entityClass.getAnnotation(com.example.datavalidation.ValidatedEntity.class);
+        if (legacy != null && !legacy.value().isEmpty()) {
+            return legacy.value().toLowerCase(Locale.ROOT);
+        }
+        return null;
+    }
+}
@@ -1,181 +1,613 @@
 package com.example.datavalidation.engine;
 
 import com.example.datavalidation.annotation.ValidatedBy;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.stereotype.Component;
-import org.springframework.util.ReflectionUtils;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.util.*;
-import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
 
 /**
  * Engine for validating objects against validation rules.
+ * <p>
+ * The engine is thread-safe: compiled rule sets are immutable, and the rule loader and pattern caches are
+ * concurrent, so one instance can be shared by any number of request or worker threads.
  */
-@Component
 public class ValidationEngine {
-    private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+    // Records per leaf task in validateAll are sized for this many tasks per worker, to balance uneven records
+    private static final int TASKS_PER_WORKER = 8;
+    private static final ValidationError DATA_NULL = ValidationError.of("data.null");
+    private static final ValidationError OBJECT_NULL = ValidationError.of("object.null");
+    private static final ValidationError RECORD_NOT_OBJECT = ValidationError.of("record.notObject");
+
     private final ValidationRuleLoader ruleLoader;
+    private final ForkJoinPool bulkPool;
+    private final ValidationOptions defaultOptions;
+    private final Map<Class<?>, ValidationOptions> entityOptions;
+    private final ValidationMetrics metrics;
+    private final int generateAfter;
+    private final ValidationResultCache resultCache;
+    private final JsonStreamResolver defaultStreamResolver = new JsonStreamResolver(new ObjectMapper());
 
     public ValidationEngine(ValidationRuleLoader ruleLoader) {
-        this.ruleLoader = ruleLoader;
+        this(builder(ruleLoader));
+    }
+
+    private ValidationEngine(Builder builder) {
+        this.ruleLoader = builder.ruleLoader;
+        this.bulkPool = builder.bulkPool;
+        this.defaultOptions = builder.defaultOptions;
+        this.entityOptions = Map.copyOf(builder.entityOptions);
+        this.metrics = builder.metrics;
+        this.generateAfter = builder.generateAfter;
+        this.resultCache = builder.resultCache;
+        if (resultCache != null) {
+            metrics.monitor(resultCache);
+        }
+    }
+
+    /**
+     * @return a builder for an engine loading its rule sets from {@code ruleLoader}, with the defaults of
+     *         {@link #ValidationEngine(ValidationRuleLoader)} until changed
+     */
+    public static Builder builder(ValidationRuleLoader ruleLoader) {
+        return new Builder(ruleLoader);
+    }
+
+    /**
+     * @return the options used for {@code entityClass} when a call does not pass any
+     */
+    public ValidationOptions getOptions(Class<?> entityClass) {
+        return entityOptions.getOrDefault(entityClass, defaultOptions);
+    }
+
+    /**
+     * @return whether validating an {@code entityClass} record would take its rule set from the rule cache without
+     * reading the rules location, see {@link ValidationRuleLoader#isCached}; also true for a class without rules
+     */
+    public boolean isRuleSetCached(Class<?> entityClass) {
+        ValidatedBy validatedBy = entityClass.getAnnotation(ValidatedBy.class);
+        return validatedBy == null || ruleLoader.isCached(validatedBy.value());
     }
 
     public List<String> validate(Map<String, Object> data, Class<?> entityClass) {
-        List<String> errors = new ArrayList<>();
+        return check(data, entityClass).getMessages();
+    }
+
+    /**
+     * Validates a map-shaped record against the rules of an entity class.
+     *
+     * @return the structured result; {@link ValidationResult#valid()} if there are no errors
+     */
+    public ValidationResult check(Map<String, Object> data, Class<?> entityClass) {
+        return check(data, entityClass, getOptions(entityClass));
+    }
+
+    public ValidationResult check(Map<String, Object> data, Class<?> entityClass, ValidationOptions options) {
         if (data == null) {
-            errors.add("Cannot validate null data");
-            return errors;
+            return ValidationResult.of(DATA_NULL);
         }
 
         try {
             // Get the validation rules file name from the ValidatedBy annotation
             ValidatedBy validatedBy = entityClass.getAnnotation(ValidatedBy.class);
             if (validatedBy == null) {
-                errors.add("No validation rules specified for class: " + entityClass.getName());
-                return errors;
+                return ValidationResult.of(ValidationError.of("rules.missing", entityClass.getName()));
             }
 
-            String rulesFileName = validatedBy.value();
-            List<Map<String, Object>> rules = ruleLoader.loadRules(rulesFileName);
-            for (Map<String, Object> rule : rules) {
-                String field = (String) rule.get("field");
-                Object value = getFieldValue(data, field);
-                validateField(field, value, rule, errors);
+            return evaluate(entityClass, ruleLoader.loadRuleSet(validatedBy.value()), data, options);
+        } catch (Exception e) {
+            return ValidationResult.of(ValidationError.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Validates a JSON record, such as a REST request body, against the rules of an entity class. A JSON Schema
+     * rule file validates the node as it is; YAML rules need a JSON object, and read the fields on their paths
+     * straight from the tree like {@link #check(JsonParser, Class)} does, without converting it to a {@code Map}.
+     */
+    public ValidationResult check(JsonNode node, Class<?> entityClass) {
+        return check(node, entityClass, getOptions(entityClass));
+    }
+
+    public ValidationResult check(JsonNode node, Class<?> entityClass, ValidationOptions options) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return ValidationResult.of(DATA_NULL);
+        }
+
+        try {
+            ValidatedBy validatedBy = entityClass.getAnnotation(ValidatedBy.class);
+            if (validatedBy == null) {
+                return ValidationResult.of(ValidationError.of("rules.missing", entityClass.getName()));
+            }
+
+            CompiledRuleSet ruleSet = ruleLoader.loadRuleSet(validatedBy.value());
+            long start = startTiming();
+            if (ruleSet.getSchemaRules() == null && !node.isObject()) {
+                return ValidationResult.of(RECORD_NOT_OBJECT);
+            }
+            ValidationResultCache.Key key = resultCache != null ? resultCache.key(entityClass, options, node) : null;
+            ValidationResult cached = key != null ? resultCache.get(key, ruleSet) : null;
+            if (cached != null) {
+                return recorded(entityClass, cached, start);
             }
+            ValidationResult result;
+            if (ruleSet.getSchemaRules() != null) {
+                result = evaluate(entityClass, ruleSet.getSchemaRules(), node, options, start);
+            } else {
+                result = evaluate(entityClass, ruleSet, defaultStreamResolver.resolve(node, ruleSet), options, start);
+            }
+            if (key != null) {
+                resultCache.put(key, ruleSet, result);
+            }
+            return result;
         } catch (Exception e) {
-            errors.add("Error during validation: " + e.getMessage());
+            return ValidationResult.of(ValidationError.of("error", e.getMessage()));
         }
+    }
 
-        return errors;
+    /**
+     * Validates a map-shaped record like {@link #check(Map, Class)}, keeping what {@link #checkPatch} needs to
+     * validate changes to it incrementally.
+     */
+    public ValidationState checkState(Map<String, Object> data, Class<?> entityClass) {
+        return checkState(data, entityClass, getOptions(entityClass));
+    }
+
+    public ValidationState checkState(Map<String, Object> data, Class<?> entityClass, ValidationOptions options) {
+        return validateState(entityClass, data, null, null, options);
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7386) to a validated record and validates the patched record. Only the
+     * rules on field paths the patch sets or removes, and on the paths above and below them, are run again; the
+     * other rules keep their errors from {@code previous}. The result is the same as validating the patched
+     * record in full, which is what happens if the rule file was reloaded since {@code previous}, or is a JSON
+     * Schema.
+     *
+     * @param patch the merge patch; null replaces the record with null, as a non-object patch does
+     */
+    public ValidationState checkPatch(ValidationState previous, Map<String, Object> patch) {
+        return checkPatch(previous, patch, getOptions(previous.getEntityClass()));
+    }
+
+    public ValidationState checkPatch(ValidationState previous, Map<String, Object> patch,
+                                      ValidationOptions options) {
+        if (patch == null) {
+            return validateState(previous.getEntityClass(), null, null, null, options);
+        }
+        CompiledRuleSet ruleSet = previous.getRuleSet();
+        MergePatch merge = MergePatch.of(ruleSet != null ? ruleSet.getFieldPaths() : FieldPathTree.of(List.of()));
+        Map<String, Object> data = merge.apply(previous.getData(), patch);
+        return validateState(previous.getEntityClass(), data, previous, merge.getChanged(), options);
+    }
+
+    /**
+     * @param previous the state {@code data} was patched from, or null to evaluate every rule
+     * @param changed  the nodes of the previous rule set's field paths that differ from {@code previous}
+     */
+    private ValidationState validateState(Class<?> entityClass, Map<String, Object> data, ValidationState previous,
+                                          boolean[] changed, ValidationOptions options) {
+        if (data == null) {
+            return new ValidationState(entityClass, null, null, null, ValidationResult.of(DATA_NULL));
+        }
+        try {
+            ValidatedBy validatedBy = entityClass.getAnnotation(ValidatedBy.class);
+            if (validatedBy == null) {
+                return new ValidationState(entityClass, null, data, null,
+                        ValidationResult.of(ValidationError.of("rules.missing", entityClass.getName())));
+            }
+
+            CompiledRuleSet ruleSet = ruleLoader.loadRuleSet(validatedBy.value());
+            long start = startTiming();
+            if (ruleSet.getSchemaRules() != null) {
+                return new ValidationState(entityClass, ruleSet, data, null, evaluate(entityClass,
+                        ruleSet.getSchemaRules(), JsonSchemaRules.toTree(data), options, start));
+            }
+            boolean incremental = previous != null && previous.getRuleSet() == ruleSet
+                    && previous.getErrors() != null;
+            Object[] values = ruleSet.getFieldPaths().resolveMap(data);
+            ValidationError[] errors = ruleSet.getPlan().evaluateChanged(values, incremental ? changed : null,
+                    incremental ? previous.getErrors() : null, metrics);
+            // Skipping depends on the evaluation order, so that result cannot be derived from the rule errors
+            ValidationResult result = options.isSkipFieldAfterFailure()
+                    ? ruleSet.getPlan().evaluate(values, options)
+                    : ruleSet.getPlan().collect(errors, options.getMaxErrors());
+            return new ValidationState(entityClass, ruleSet, data, errors, recorded(entityClass, result, start));
+        } catch (Exception e) {
+            return new ValidationState(entityClass, null, data, null,
+                    ValidationResult.of(ValidationError.of("error", e.getMessage())));
+        }
+    }
+
+    /**
+     * Validates many records of one entity class in parallel on the engine's bulk pool.
+     * <p>
+     * The rule set is looked up once for the whole batch. Records are split into chunks that workers steal from
+     * each other, and the result list holds each record's errors at the record's position in the input.
+     */
+    public List<List<String>> validateAll(Collection<? extends Map<String, Object>> records, Class<?> entityClass) {
+        return validateAll(records, entityClass, bulkPool);
+    }
+
+    /**
+     * Same as {@link #validateAll(Collection, Class)}, on the given pool instead of the engine's bulk pool.
+     */
+    public List<List<String>> validateAll(Collection<? extends Map<String, Object>> records, Class<?> entityClass,
+                                          ForkJoinPool pool) {
+        List<ValidationResult> results = checkAll(records, entityClass, pool);
+        List<List<String>> messages = new ArrayList<>(results.size());
+        for (ValidationResult result : results) {
+            messages.add(result.getMessages());
+        }
+        return Collections.unmodifiableList(messages);
+    }
+
+    /**
+     * Same as {@link #validateAll(Collection, Class)}, returning structured results.
+     */
+    public List<ValidationResult> checkAll(Collection<? extends Map<String, Object>> records, Class<?> entityClass) {
+        return checkAll(records, entityClass, getOptions(entityClass), bulkPool);
+    }
+
+    public List<ValidationResult> checkAll(Collection<? extends Map<String, Object>> records, Class<?> entityClass,
+                                           ForkJoinPool pool) {
+        return checkAll(records, entityClass, getOptions(entityClass), pool);
+    }
+
+    public List<ValidationResult> checkAll(Collection<? extends Map<String, Object>> records, Class<?> entityClass,
+                                           ValidationOptions options, ForkJoinPool pool) {
+        Object[] input = records.toArray();
+        ValidationResult[] results = new ValidationResult[input.length];
+        if (input.length == 0) {
+            return List.of();
+        }
+
+        BulkRuleSet ruleSet = bulkRuleSet(entityClass, options);
+        int chunkSize = Math.max(1, input.length / (pool.getParallelism() * TASKS_PER_WORKER));
+        pool.invoke(new BulkTask(ruleSet, input, results, 0, input.length, chunkSize));
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Lazily validates a stream of records of one entity class, looking the rule set up once.
+     * <p>
+     * The returned stream keeps the characteristics of the input: it is ordered if the input is, and runs in
+     * parallel if the input is parallel.
+     */
+    public Stream<List<String>> validateStream(Stream<? extends Map<String, Object>> records, Class<?> entityClass) {
+        return checkStream(records, entityClass).map(ValidationResult::getMessages);
+    }
+
+    /**
+     * Same as {@link #validateStream}, returning structured results.
+     */
+    public Stream<ValidationResult> checkStream(Stream<? extends Map<String, Object>> records, Class<?> entityClass) {
+        return checkStream(records, entityClass, getOptions(entityClass));
+    }
+
+    public Stream<ValidationResult> checkStream(Stream<? extends Map<String, Object>> records, Class<?> entityClass,
+                                                ValidationOptions options) {
+        BulkRuleSet ruleSet = bulkRuleSet(entityClass, options);
+        return records.map(ruleSet::validate);
     }
 
     public List<String> validate(Object object) {
-        List<String> errors = new ArrayList<>();
+        return check(object).getMessages();
+    }
+
+    /**
+     * Validates an object against the rules of its class.
+     */
+    public ValidationResult check(Object object) {
         if (object == null) {
-            errors.add("Cannot validate null object");
-            return errors;
+            return ValidationResult.of(OBJECT_NULL);
+        }
+        return check(object, getOptions(object.getClass()));
+    }
+
+    public ValidationResult check(Object object, ValidationOptions options) {
+        if (object == null) {
+            return ValidationResult.of(OBJECT_NULL);
         }
 
         try {
             // Get the validation rules file name from the ValidatedBy annotation
             ValidatedBy validatedBy = object.getClass().getAnnotation(ValidatedBy.class);
             if (validatedBy == null) {
-                errors.add("No validation rules specified for class: " + object.getClass().getName());
-                return errors;
+                return ValidationResult.of(ValidationError.of("rules.missing", object.getClass().getName()));
             }
 
-            String rulesFileName = validatedBy.value();
-            List<Map<String, Object>> rules = ruleLoader.loadRules(rulesFileName);
-            for (Map<String, Object> rule : rules) {
-                String field = (String) rule.get("field");
-                Object value = getObjectFieldValue(object, field);
-                validateField(field, value, rule, errors);
+            CompiledRuleSet ruleSet = ruleLoader.loadRuleSet(validatedBy.value());
+            long start = startTiming();
+            if (ruleSet.getSchemaRules() != null) {
+                // The schema sees the object's fields, like YAML rules do
+                return evaluate(object.getClass(), ruleSet.getSchemaRules(), JsonSchemaRules.toTree(object),
+                        options, start);
             }
+            return evaluate(object.getClass(), ruleSet, ruleSet.getFieldPaths().resolveObject(object), options,
+                    start);
         } catch (Exception e) {
-            errors.add("Error during validation: " + e.getMessage());
+            return ValidationResult.of(ValidationError.of("error", e.getMessage()));
         }
+    }
 
-        return errors;
+    /**
+     * Validates one JSON object straight from a token stream, without building a {@code Map} for it.
+     * <p>
+     * Members that no rule refers to are skipped unparsed, which makes this much cheaper than
+     * {@link #validate(Map, Class)} for large documents with few rules; the errors returned are the same. The
+     * parser may be positioned before or on the object's {@code START_OBJECT} and is left on its
+     * {@code END_OBJECT}, so it can be called repeatedly on a stream of records. Numbers are read following the
+     * parser's {@link ObjectMapper} codec settings, if it has one.
+     *
+     * @throws IOException if the JSON is malformed; the parser cannot be used any further
+     */
+    public List<String> validate(JsonParser parser, Class<?> entityClass) throws IOException {
+        return check(parser, entityClass).getMessages();
     }
 
-    private Object getFieldValue(Map<String, Object> data, String fieldPath) {
-        String[] fields = fieldPath.split("\\.");
-        Object current = data;
-        for (String field : fields) {
-            if (current instanceof Map) {
-                current = ((Map<?, ?>) current).get(field);
-            } else {
-                return null;
-            }
-            if (current == null) {
-                return null;
+    /**
+     * Same as {@link #validate(JsonParser, Class)}, returning a structured result.
+     */
+    public ValidationResult check(JsonParser parser, Class<?> entityClass) throws IOException {
+        return check(parser, entityClass, getOptions(entityClass));
+    }
+
+    /**
+     * Same as {@link #check(JsonParser, Class)} with the given options. The whole object is consumed from the
+     * parser even if evaluation stops early.
+     */
+    public ValidationResult check(JsonParser parser, Class<?> entityClass, ValidationOptions options)
+            throws IOException {
+        JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return ValidationResult.of(RECORD_NOT_OBJECT);
+        }
+
+        ValidatedBy validatedBy = entityClass.getAnnotation(ValidatedBy.class);
+        if (validatedBy == null) {
+            parser.skipChildren();
+            return ValidationResult.of(ValidationError.of("rules.missing", entityClass.getName()));
+        }
+
+        CompiledRuleSet ruleSet;
+        try {
+            ruleSet = ruleLoader.loadRuleSet(validatedBy.value());
+        } catch (Exception e) {
+            parser.skipChildren();
+            return ValidationResult.of(ValidationError.of("error", e.getMessage()));
+        }
+
+        if (ruleSet.getSchemaRules() != null) {
+            long start = startTiming();
+            JsonNode node = JsonSchemaRules.JSON_MAPPER.readTree(parser);
+            try {
+                return evaluate(entityClass, ruleSet.getSchemaRules(), node, options, start);
+            } catch (Exception e) {
+                return ValidationResult.of(ValidationError.of("error", e.getMessage()));
             }
         }
-        return current;
+
+        JsonStreamResolver resolver = parser.getCodec() instanceof ObjectMapper
+                ? new JsonStreamResolver((ObjectMapper) parser.getCodec())
+                : defaultStreamResolver;
+        long start = startTiming();
+        Object[] values = resolver.resolve(parser, ruleSet);
+        try {
+            return evaluate(entityClass, ruleSet, values, options, start);
+        } catch (Exception e) {
+            return ValidationResult.of(ValidationError.of("error", e.getMessage()));
+        }
+    }
+
+    private BulkRuleSet bulkRuleSet(Class<?> entityClass, ValidationOptions options) {
+        ValidatedBy validatedBy = entityClass.getAnnotation(ValidatedBy.class);
+        if (validatedBy == null) {
+            return new BulkRuleSet(entityClass, null, options,
+                    ValidationError.of("rules.missing", entityClass.getName()));
+        }
+        try {
+            return new BulkRuleSet(entityClass, ruleLoader.loadRuleSet(validatedBy.value()), options, null);
+        } catch (Exception e) {
+            return new BulkRuleSet(entityClass, null, options, ValidationError.of("error", e.getMessage()));
+        }
     }
 
-    private Object getObjectFieldValue(Object object, String fieldPath) {
-        String[] fields = fieldPath.split("\\.");
-        Object current = object;
-        for (String field : fields) {
+    /**
+     * The rule set resolved once for a bulk call, or the error every record gets if it could not be.
+     */
+    private final class BulkRuleSet {
+        private final Class<?> entityClass;
+        private final CompiledRuleSet ruleSet;
+        private final ValidationOptions options;
+        private final ValidationResult error;
+
+        BulkRuleSet(Class<?> entityClass, CompiledRuleSet ruleSet, ValidationOptions options, ValidationError error) {
+            this.entityClass = entityClass;
+            this.ruleSet = ruleSet;
+            this.options = options;
+            this.error = error == null ? null : ValidationResult.of(error);
+        }
+
+        ValidationResult validate(Map<String, Object> data) {
+            if (data == null) {
+                return ValidationResult.of(DATA_NULL);
+            }
+            if (ruleSet == null) {
+                return error;
+            }
             try {
-                Field declaredField = current.getClass().getDeclaredField(field);
-                declaredField.setAccessible(true);
-                current = declaredField.get(current);
-                if (current == null) {
-                    return null;
-                }
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                return null;
+                return evaluate(entityClass, ruleSet, data, options);
+            } catch (Exception e) {
+                return ValidationResult.of(ValidationError.of("error", e.getMessage()));
             }
         }
-        return current;
     }
 
-    private void validateField(String fieldName, Object value, Map<String, Object> rule, List<String> errors) {
-        String type = (String) rule.get("type");
-        String message = (String) rule.get("message");
+    private static final class BulkTask extends RecursiveAction {
+        private final BulkRuleSet ruleSet;
+        private final Object[] records;
+        private final ValidationResult[] results;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
 
-        switch (type.toLowerCase()) {
-            case "notblank":
-                if (value == null || value.toString().trim().isEmpty()) {
-                    errors.add(message);
-                }
-                break;
+        BulkTask(BulkRuleSet ruleSet, Object[] records, ValidationResult[] results, int from, int to,
+                 int chunkSize) {
+            this.ruleSet = ruleSet;
+            this.records = records;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
 
-            case "notnull":
-                if (value == null) {
-                    errors.add(message);
-                }
-                break;
-
-            case "size":
-                if (value != null) {
-                    String str = value.toString();
-                    int min = ((Number) rule.get("min")).intValue();
-                    int max = ((Number) rule.get("max")).intValue();
-                    if (str.length() < min || str.length() > max) {
-                        errors.add(message);
-                    }
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    results[i] = ruleSet.validate((Map<String, Object>) records[i]);
                 }
-                break;
-
-            case "min":
-                if (value != null) {
-                    try {
-                        int numValue = Integer.parseInt(value.toString());
-                        int minValue = ((Number) rule.get("value")).intValue();
-                        if (numValue < minValue) {
-                            errors.add(message);
-                        }
-                    } catch (NumberFormatException e) {
-                        errors.add("Invalid number format for field: " + fieldName);
-                    }
-                }
-                break;
-
-            case "pattern":
-                if (value != null) {
-                    String pattern = (String) rule.get("pattern");
-                    if (!value.toString().matches(pattern)) {
-                        errors.add(message);
-                    }
-                }
-                break;
-
-            case "enum":
-                if (value != null) {
-                    @SuppressWarnings("unchecked")
-                    List<String> validValues = (List<String>) rule.get("values");
-                    if (!validValues.contains(value.toString())) {
-                        errors.add(message);
-                    }
-                }
-                break;
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BulkTask(ruleSet, records, results, from, middle, chunkSize),
+                    new BulkTask(ruleSet, records, results, middle, to, chunkSize));
+        }
+    }
+
+    /**
+     * Runs the rules of the set against their pre-resolved field values, following the set's {@link RulePlan}.
+     *
+     * @param values the {@link FieldPathTree} node values of the record being validated
+     * @param start  the {@link #startTiming()} of the record
+     */
+    private ValidationResult evaluate(Class<?> entityClass, CompiledRuleSet ruleSet, Object[] values,
+                                      ValidationOptions options, long start) {
+        return recorded(entityClass, ruleSet.getPlan().evaluate(values, options, metrics, generateAfter), start);
+    }
+
+    /**
+     * Validates a map-shaped record, or returns the cached result of an identical one.
+     */
+    private ValidationResult evaluate(Class<?> entityClass, CompiledRuleSet ruleSet, Map<String, Object> data,
+                                      ValidationOptions options) {
+        long start = startTiming();
+        ValidationResultCache.Key key = resultCache != null ? resultCache.key(entityClass, options, data) : null;
+        ValidationResult cached = key != null ? resultCache.get(key, ruleSet) : null;
+        if (cached != null) {
+            return recorded(entityClass, cached, start);
+        }
+        ValidationResult result;
+        if (ruleSet.getSchemaRules() != null) {
+            result = evaluate(entityClass, ruleSet.getSchemaRules(), JsonSchemaRules.toTree(data), options, start);
+        } else {
+            result = evaluate(entityClass, ruleSet, ruleSet.getFieldPaths().resolveMap(data), options, start);
+        }
+        if (key != null) {
+            resultCache.put(key, ruleSet, result);
+        }
+        return result;
+    }
+
+    /**
+     * Validates a record against the JSON Schema of a {@code .json} rule file.
+     */
+    private ValidationResult evaluate(Class<?> entityClass, JsonSchemaRules schema, JsonNode node,
+                                      ValidationOptions options, long start) {
+        return recorded(entityClass, schema.validate(node, options), start);
+    }
+
+    private ValidationResult recorded(Class<?> entityClass, ValidationResult result, long start) {
+        if (metrics.isEnabled()) {
+            metrics.recordValidation(entityClass, System.nanoTime() - start, result.isValid());
+        }
+        return result;
+    }
+
+    // Only read the clock when someone is going to look at the result
+    private long startTiming() {
+        return metrics.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Configures a {@link ValidationEngine}. Every setting is optional.
+     */
+    public static final class Builder {
+        private final ValidationRuleLoader ruleLoader;
+        private ForkJoinPool bulkPool = ForkJoinPool.commonPool();
+        private ValidationOptions defaultOptions = ValidationOptions.DEFAULT;
+        private Map<Class<?>, ValidationOptions> entityOptions = Map.of();
+        private ValidationMetrics metrics = ValidationMetrics.NOOP;
+        private int generateAfter = -1;
+        private ValidationResultCache resultCache;
+
+        private Builder(ValidationRuleLoader ruleLoader) {
+            this.ruleLoader = Objects.requireNonNull(ruleLoader, "ruleLoader");
+        }
+
+        /**
+         * @param bulkPool the pool {@link #validateAll} spreads records across; the common pool by default
+         */
+        public Builder bulkPool(ForkJoinPool bulkPool) {
+            this.bulkPool = Objects.requireNonNull(bulkPool, "bulkPool");
+            return this;
+        }
+
+        /**
+         * @param defaultOptions the options of calls that do not pass any, for entities without their own
+         */
+        public Builder defaultOptions(ValidationOptions defaultOptions) {
+            this.defaultOptions = Objects.requireNonNull(defaultOptions, "defaultOptions");
+            return this;
+        }
+
+        /**
+         * @param entityOptions the options of calls that do not pass any, per entity class
+         */
+        public Builder entityOptions(Map<Class<?>, ValidationOptions> entityOptions) {
+            this.entityOptions = Objects.requireNonNull(entityOptions, "entityOptions");
+            return this;
+        }
+
+        /**
+         * @param metrics told about every validated record and failed rule; {@link ValidationMetrics#NOOP} by
+         *                default
+         */
+        public Builder metrics(ValidationMetrics metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics");
+            return this;
+        }
+
+        /**
+         * @param generateAfter the number of times a rule set is evaluated before it is compiled to a dedicated
+         *                      bytecode validator, see {@link ValidatorGenerator}; zero compiles on first use,
+         *                      negative, the default, never compiles and always interprets
+         */
+        public Builder generateAfter(int generateAfter) {
+            this.generateAfter = generateAfter;
+            return this;
+        }
+
+        /**
+         * @param resultCache the results of map and JSON records already validated, reused for identical records;
+         *                    null, the default, to validate every record
+         */
+        public Builder resultCache(ValidationResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        public ValidationEngine build() {
+            return new ValidationEngine(this);
         }
     }
-} 
\ No newline at end of file
+}
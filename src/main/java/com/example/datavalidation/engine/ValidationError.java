@@ -0,0 +1,136 @@
+package com.example.datavalidation.engine;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+/**
+ * One violation found by a validation: which rule failed, on which field, with which error code and rule
+ * parameters.
+ * <p>
+ * The message text is only produced when {@link #getMessage} is called. A rule's own {@code message} is used as
+ * is, unless it has the form {@code {key}}, which looks the key up in the {@value #BUNDLE} resource bundle.
+ * Without a rule message, the message is the bundle template for the error code, formatted with
+ * {@link MessageFormat} and the arguments {@code {0}} rule name (or field if unnamed), {@code {1}} field and
+ * {@code {2}}... the parameters. Errors carry no per-record data, so rules create theirs once and return the
+ * same instance on every failure; the most recently formatted message is kept.
+ */
+public final class ValidationError {
+    /**
+     * Base name of the resource bundle holding message templates.
+     */
+    public static final String BUNDLE = "validation-messages";
+
+    private static final Object[] NO_PARAMETERS = new Object[0];
+    private static final ResourceBundle.Control NO_FALLBACK =
+            ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+
+    private final String rule;
+    private final String field;
+    private final String code;
+    private final Object[] parameters;
+    private final String message;
+    private volatile FormattedMessage formatted;
+
+    /**
+     * @param rule       the name of the failed rule, or {@code null}
+     * @param field      the field path the rule applies to, or {@code null} if the error concerns the record
+     * @param code       the error code, also the message template key
+     * @param message    the rule's own message, or {@code null} to use the template for {@code code}
+     * @param parameters the rule parameters, e.g. the bounds of a {@code size} rule
+     */
+    public ValidationError(String rule, String field, String code, String message, Object... parameters) {
+        this.rule = rule;
+        this.field = field;
+        this.code = code;
+        this.message = message;
+        this.parameters = parameters.length == 0 ? NO_PARAMETERS : parameters.clone();
+    }
+
+    /**
+     * @return an error about the record as a whole rather than one of its fields
+     */
+    public static ValidationError of(String code, Object... parameters) {
+        return new ValidationError(null, null, code, null, parameters);
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public List<Object> getParameters() {
+        return Collections.unmodifiableList(Arrays.asList(parameters));
+    }
+
+    // For serialization, without the list view
+    Object[] parameters() {
+        return parameters;
+    }
+
+    /**
+     * @return the message from the base bundle, without locale-specific translations
+     */
+    public String getMessage() {
+        return getMessage(Locale.ROOT);
+    }
+
+    public String getMessage(Locale locale) {
+        if (message != null && !isKey(message)) {
+            return message;
+        }
+        FormattedMessage last = formatted;
+        if (last != null && last.locale.equals(locale)) {
+            return last.text;
+        }
+        String text = format(locale);
+        formatted = new FormattedMessage(locale, text);
+        return text;
+    }
+
+    private String format(Locale locale) {
+        String key = message != null ? message.substring(1, message.length() - 1) : code;
+        String template;
+        try {
+            template = ResourceBundle.getBundle(BUNDLE, locale, ValidationError.class.getClassLoader(), NO_FALLBACK)
+                    .getString(key);
+        } catch (MissingResourceException e) {
+            return message != null ? message : code;
+        }
+        Object[] arguments = new Object[parameters.length + 2];
+        arguments[0] = rule != null ? rule : field;
+        arguments[1] = field;
+        System.arraycopy(parameters, 0, arguments, 2, parameters.length);
+        return new MessageFormat(template, locale).format(arguments);
+    }
+
+    private static boolean isKey(String message) {
+        return message.length() > 2 && message.charAt(0) == '{' && message.charAt(message.length() - 1) == '}';
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+
+    private static final class FormattedMessage {
+        final Locale locale;
+        final String text;
+
+        FormattedMessage(Locale locale, String text) {
+            this.locale = locale;
+            this.text = text;
+        }
+    }
+}
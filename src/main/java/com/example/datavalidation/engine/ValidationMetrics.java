@@ -0,0 +1,76 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.CompiledRule;
+
+/**
+ * Receives measurements from {@link ValidationEngine} and {@link ValidationRuleLoader}.
+ * <p>
+ * Every method defaults to doing nothing, and {@link #NOOP} is what the engine and loader use unless told
+ * otherwise. They check {@link #isEnabled()} and {@link #isRuleTimingEnabled()} once per record, so disabled
+ * metrics cost no clock reads. Implementations must be thread-safe.
+ */
+public interface ValidationMetrics {
+    ValidationMetrics NOOP = new ValidationMetrics() {
+    };
+
+    /**
+     * @return whether records are timed and counted per entity
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * @return whether every single rule evaluation is timed, which costs two clock reads per rule
+     */
+    default boolean isRuleTimingEnabled() {
+        return false;
+    }
+
+    /**
+     * Called for every validated record when {@link #isEnabled()}, including records answered from the
+     * {@link ValidationResultCache}.
+     *
+     * @param nanos the time spent resolving and evaluating the record
+     */
+    default void recordValidation(Class<?> entityClass, long nanos, boolean valid) {
+    }
+
+    /**
+     * Called for every rule evaluation when {@link #isRuleTimingEnabled()}.
+     *
+     * @param ruleFile the rule file the rule was compiled from; a reloaded file brings new rule instances
+     */
+    default void recordRule(String ruleFile, CompiledRule rule, long nanos) {
+    }
+
+    /**
+     * Called for every rule that reports an error. Records answered from the {@link ValidationResultCache} run no
+     * rules and are not counted here.
+     *
+     * @param ruleFile the rule file the rule was compiled from; a reloaded file brings new rule instances
+     */
+    default void recordRuleFailure(String ruleFile, CompiledRule rule) {
+    }
+
+    /**
+     * Called after a rule file was read and compiled.
+     *
+     * @param source where the definitions came from: the YAML or JSON Schema file, the packaged {@link RuleIndex}
+     *               or a {@link RuleSetSnapshot}
+     */
+    default void recordRuleSetLoad(String ruleFile, long nanos, RuleSetSource source) {
+    }
+
+    /**
+     * Called once with the loader whose cache statistics should be published.
+     */
+    default void monitor(ValidationRuleLoader ruleLoader) {
+    }
+
+    /**
+     * Called once with the engine's result cache, if it has one, whose statistics should be published.
+     */
+    default void monitor(ValidationResultCache resultCache) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.datavalidation.engine;
+
+import java.util.Objects;
+
+/**
+ * How much of a rule set to evaluate for one record.
+ * <p>
+ * By default every rule is evaluated and every error reported. Callers that only need a yes/no answer can stop
+ * at the first error ({@link #failFast()}) or after a number of errors, and skip the remaining rules of a field
+ * once one of them failed. Instances are immutable; the {@code with} methods return modified copies.
+ */
+public final class ValidationOptions {
+    /**
+     * Evaluates every rule and reports every error.
+     */
+    public static final ValidationOptions DEFAULT = new ValidationOptions(Integer.MAX_VALUE, false);
+
+    private static final ValidationOptions FAIL_FAST = new ValidationOptions(1, false);
+
+    private final int maxErrors;
+    private final boolean skipFieldAfterFailure;
+
+    private ValidationOptions(int maxErrors, boolean skipFieldAfterFailure) {
+        this.maxErrors = maxErrors;
+        this.skipFieldAfterFailure = skipFieldAfterFailure;
+    }
+
+    /**
+     * @return options that stop at the first error
+     */
+    public static ValidationOptions failFast() {
+        return FAIL_FAST;
+    }
+
+    /**
+     * @param maxErrors the number of errors after which evaluation stops; 0 means no limit
+     */
+    public ValidationOptions withMaxErrors(int maxErrors) {
+        if (maxErrors < 0) {
+            throw new IllegalArgumentException("maxErrors must not be negative, got " + maxErrors);
+        }
+        return new ValidationOptions(maxErrors == 0 ? Integer.MAX_VALUE : maxErrors, skipFieldAfterFailure);
+    }
+
+    /**
+     * @param skipFieldAfterFailure whether the remaining rules of a field are skipped once one of its rules failed
+     */
+    public ValidationOptions withSkipFieldAfterFailure(boolean skipFieldAfterFailure) {
+        return new ValidationOptions(maxErrors, skipFieldAfterFailure);
+    }
+
+    /**
+     * @return the number of errors after which evaluation stops, {@link Integer#MAX_VALUE} if unlimited
+     */
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    public boolean isFailFast() {
+        return maxErrors == 1;
+    }
+
+    public boolean isSkipFieldAfterFailure() {
+        return skipFieldAfterFailure;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ValidationOptions)) {
+            return false;
+        }
+        ValidationOptions other = (ValidationOptions) o;
+        return maxErrors == other.maxErrors && skipFieldAfterFailure == other.skipFieldAfterFailure;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxErrors, skipFieldAfterFailure);
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationOptions{maxErrors=" + (maxErrors == Integer.MAX_VALUE ? "unlimited" : maxErrors)
+                + ", skipFieldAfterFailure=" + skipFieldAfterFailure + "}";
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.datavalidation.engine;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The outcome of validating one record: the errors found, in rule order.
+ * <p>
+ * Valid records all share one empty result. Messages are only formatted by {@link #getMessages}, or when the
+ * result is serialized to JSON.
+ */
+@JsonSerialize(using = ValidationResultSerializer.class)
+public final class ValidationResult {
+    private static final ValidationResult VALID = new ValidationResult(Collections.emptyList());
+
+    private final List<ValidationError> errors;
+
+    private ValidationResult(List<ValidationError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * @return the shared result without errors
+     */
+    public static ValidationResult valid() {
+        return VALID;
+    }
+
+    public static ValidationResult of(ValidationError error) {
+        return new ValidationResult(Collections.singletonList(error));
+    }
+
+    /**
+     * @param errors the errors found, or {@code null}; the list is used as is and must not change afterwards
+     */
+    public static ValidationResult of(List<ValidationError> errors) {
+        return errors == null || errors.isEmpty() ? VALID : new ValidationResult(Collections.unmodifiableList(errors));
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public List<ValidationError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the error messages from the base bundle, as a new mutable list
+     */
+    public List<String> getMessages() {
+        return getMessages(Locale.ROOT);
+    }
+
+    public List<String> getMessages(Locale locale) {
+        List<String> messages = new ArrayList<>(errors.size());
+        for (ValidationError error : errors) {
+            messages.add(error.getMessage(locale));
+        }
+        return messages;
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? "valid" : getMessages().toString();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.datavalidation.engine;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the results of records already validated, for traffic with many identical records such as retries.
+ * <p>
+ * Results are keyed by entity class, validation options and the {@link CanonicalPayload} of the record, and stored
+ * together with the {@link CompiledRuleSet} that produced them: once a rule file is reloaded its rule set is a
+ * new instance, so results of the previous rules are never returned. The cache holds at most {@code maxSize}
+ * results, evicting the oldest first, and a result is only used for {@code ttl} after it was computed. Each
+ * result keeps the canonical encoding of its record, two bytes per character of text, to compare on a hit.
+ * <p>
+ * Lookups take no lock. Storing a result, with the evictions it causes, and {@link #invalidateAll()} hold one
+ * lock, so a result stored while the cache is cleared is still tracked for eviction.
+ */
+public class ValidationResultCache {
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    // Every key of entries, oldest first; guards every write to either, so the two never disagree
+    private final Queue<Key> insertionOrder = new ArrayDeque<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ValidationResultCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL);
+    }
+
+    /**
+     * @param maxSize the maximum number of results kept
+     * @param ttl     how long a result is used after it was computed
+     */
+    public ValidationResultCache(int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @param payload a {@code Map} or {@code JsonNode} record
+     */
+    Key key(Class<?> entityClass, ValidationOptions options, Object payload) {
+        return new Key(entityClass, options, CanonicalPayload.of(payload));
+    }
+
+    /**
+     * @return the result cached for the key by the same rule set and not yet expired, or null
+     */
+    ValidationResult get(Key key, CompiledRuleSet ruleSet) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.ruleSet != ruleSet || System.nanoTime() - entry.createdAt >= ttlNanos) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.result;
+    }
+
+    void put(Key key, CompiledRuleSet ruleSet, ValidationResult result) {
+        Entry entry = new Entry(ruleSet, result, System.nanoTime());
+        synchronized (insertionOrder) {
+            // Stale and expired entries are overwritten in place, so each key is queued once
+            if (entries.put(key, entry) == null) {
+                insertionOrder.add(key);
+                while (entries.size() > maxSize) {
+                    entries.remove(insertionOrder.remove());
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (insertionOrder) {
+            entries.clear();
+            insertionOrder.clear();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    static final class Key {
+        private final Class<?> entityClass;
+        private final ValidationOptions options;
+        private final CanonicalPayload payload;
+
+        Key(Class<?> entityClass, ValidationOptions options, CanonicalPayload payload) {
+            this.entityClass = entityClass;
+            this.options = options;
+            this.payload = payload;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return entityClass == other.entityClass && options.equals(other.options) && payload.equals(other.payload);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityClass, options, payload);
+        }
+    }
+
+    private static final class Entry {
+        final CompiledRuleSet ruleSet;
+        final ValidationResult result;
+        final long createdAt;
+
+        Entry(CompiledRuleSet ruleSet, ValidationResult result, long createdAt) {
+            this.ruleSet = ruleSet;
+            this.result = result;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.datavalidation.engine;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Writes a {@link ValidationResult} straight to the generator as
+ * {@code {"valid":false,"errors":[{"rule":..,"field":..,"code":..,"parameters":[..],"message":..}]}}, with
+ * messages in the locale of the current request.
+ */
+public class ValidationResultSerializer extends StdSerializer<ValidationResult> {
+    public ValidationResultSerializer() {
+        super(ValidationResult.class);
+    }
+
+    @Override
+    public void serialize(ValidationResult result, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        Locale locale = LocaleContextHolder.getLocale();
+        generator.writeStartObject();
+        generator.writeBooleanField("valid", result.isValid());
+        generator.writeArrayFieldStart("errors");
+        for (ValidationError error : result.getErrors()) {
+            writeError(error, locale, generator, provider);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeError(ValidationError error, Locale locale, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject();
+        if (error.getRule() != null) {
+            generator.writeStringField("rule", error.getRule());
+        }
+        if (error.getField() != null) {
+            generator.writeStringField("field", error.getField());
+        }
+        generator.writeStringField("code", error.getCode());
+        Object[] parameters = error.parameters();
+        if (parameters.length > 0) {
+            generator.writeArrayFieldStart("parameters");
+            for (Object parameter : parameters) {
+                provider.defaultSerializeValue(parameter, generator);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeStringField("message", error.getMessage(locale));
+        generator.writeEndObject();
+    }
+}
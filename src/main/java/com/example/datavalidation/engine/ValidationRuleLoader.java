@@ -2,37 +2,355 @@ package com.example.datavalidation.engine;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.util.StringUtils;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
 
 /**
- * Loads validation rules from YAML files.
+ * Loads validation rules from YAML files and compiles them into {@link CompiledRuleSet}s.
+ * <p>
+ * Compiled rule sets are cached per rule file together with the resource they were resolved to. Once the
+ * refresh interval has elapsed the next lookup re-resolves the resource and compares its last-modified time
+ * (and, if that changed, its content hash) so edited files are still picked up. The cache is bounded and
+ * evicts by second chance when full, an approximation of least recently used: a hit only marks its rule set as
+ * used, and eviction walks the rule sets in insertion order, evicting the first one not used since the walk
+ * last passed it. Hits take no lock and, once marked, write nothing.
+ * <p>
+ * Each cached rule set is published with a single map write, by a lookup or by {@link #reload}. Validations
+ * that already hold a rule set keep using it, so replacing a rule file never blocks or disturbs them.
+ * <p>
+ * Rule files packaged with the application are normally not parsed at all: their definitions come from the
+ * {@link RuleIndex} built at compile time, whenever the file's checksum matches the indexed one. Other files
+ * can be taken from a {@link RuleSetSnapshot} written by an earlier run in the same way, together with their
+ * {@code enum} tables, and {@link #warmUp()} compiles all of them ahead of their first lookup.
  */
 public class ValidationRuleLoader {
-    private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+    public static final int DEFAULT_MAX_CACHED_RULE_SETS = 256;
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(2);
+
+    private static final Logger log = LoggerFactory.getLogger(ValidationRuleLoader.class);
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    private final RuleIndex ruleIndex;
+    private final RuleSetSnapshot snapshot;
+    private final RuleIndex snapshotIndex;
+    private final ValidationMetrics metrics;
+    private final PatternCache patternCache = new PatternCache();
+    private final RuleCompiler compiler = new RuleCompiler(patternCache);
     private final String rulesLocation;
+    private final int maxCachedRuleSets;
+    private final long refreshIntervalNanos;
+    private final ConcurrentMap<String, CachedRuleSet> cache = new ConcurrentHashMap<>();
+    // The cached rule files in eviction order; every change to the cache is made holding it
+    private final LinkedHashSet<String> evictionOrder = new LinkedHashSet<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
 
     public ValidationRuleLoader(String rulesLocation) {
-        this.rulesLocation = StringUtils.cleanPath(rulesLocation);
+        this(builder(rulesLocation));
+    }
+
+    private ValidationRuleLoader(Builder builder) {
+        String location = StringUtils.cleanPath(builder.rulesLocation);
+        this.rulesLocation = location.isEmpty() || location.endsWith("/") || location.endsWith(":")
+                ? location : location + "/";
+        this.maxCachedRuleSets = builder.maxCachedRuleSets;
+        this.refreshIntervalNanos = builder.refreshInterval.isNegative()
+                ? Long.MAX_VALUE : builder.refreshInterval.toNanos();
+        this.ruleIndex = builder.ruleIndex != null
+                ? builder.ruleIndex : RuleIndex.load(ValidationRuleLoader.class.getClassLoader());
+        this.snapshot = builder.snapshot;
+        this.snapshotIndex = snapshot == null ? RuleIndex.EMPTY : snapshot.load();
+        this.metrics = builder.metrics;
+        metrics.monitor(this);
+    }
+
+    /**
+     * @param rulesLocation the location rule files are resolved against first
+     * @return a builder for a loader of the rule files at {@code rulesLocation}, with the defaults of
+     *         {@link #ValidationRuleLoader(String)} until changed
+     */
+    public static Builder builder(String rulesLocation) {
+        return new Builder(rulesLocation);
     }
 
     /**
      * Loads validation rules from a YAML file.
      *
      * @param ruleFile the name of the YAML file containing validation rules
-     * @return a list of validation rules
+     * @return an unmodifiable list of validation rules
      * @throws IOException if there is an error reading the rules file
      */
-    @SuppressWarnings("unchecked")
     public List<Map<String, Object>> loadRules(String ruleFile) throws IOException {
+        return loadRuleSet(ruleFile).getDefinitions();
+    }
+
+    /**
+     * Loads and compiles the validation rules of a YAML file, or the JSON Schema of a {@code .json} file. Either
+     * is compiled once and cached.
+     *
+     * @param ruleFile the name of the YAML file containing validation rules
+     * @return the compiled rule set
+     * @throws InvalidRuleException if the file contains a malformed rule or schema
+     * @throws IOException if there is an error reading the rules file
+     */
+    public CompiledRuleSet loadRuleSet(String ruleFile) throws IOException {
+        CachedRuleSet cached = cache.get(ruleFile);
+        if (cached != null) {
+            if (!cached.used) {
+                cached.used = true;
+            }
+            if (isFresh(cached)) {
+                hits.increment();
+                return cached.ruleSet;
+            }
+        }
+        long now = System.nanoTime();
+        Resource resource = resolveResource(ruleFile);
+        if (cached != null && isUnchanged(cached, ruleFile, resource, now)) {
+            hits.increment();
+            return cached.ruleSet;
+        }
+        misses.increment();
+        return load(ruleFile, resource, now).ruleSet;
+    }
+
+    /**
+     * Recompiles a cached rule file right away and atomically replaces its cached rule set. A file that is not
+     * cached is left to be loaded by its next lookup, and one that no longer exists is dropped from the cache.
+     *
+     * @throws InvalidRuleException if the file now contains a malformed rule; the previous rule set stays
+     * @throws IOException if the file cannot be read; the previous rule set stays
+     */
+    public void reload(String ruleFile) throws IOException {
+        if (!cache.containsKey(ruleFile)) {
+            return;
+        }
         Resource resource;
-        
+        try {
+            resource = resolveResource(ruleFile);
+        } catch (FileNotFoundException e) {
+            invalidate(ruleFile);
+            if (snapshot != null) {
+                snapshot.forget(ruleFile);
+            }
+            return;
+        }
+        load(ruleFile, resource, System.nanoTime());
+    }
+
+    /**
+     * Loads every rule file of the {@link RuleSetSnapshot} right away, so that the rule sets an earlier run used,
+     * and the patterns they compile, are ready before the first lookup. Files that are gone are dropped from the
+     * snapshot, files that no longer compile are left to their first lookup.
+     *
+     * @return the number of rule sets loaded
+     */
+    public int warmUp() {
+        int loaded = 0;
+        for (String ruleFile : snapshotIndex.getRuleFiles()) {
+            try {
+                loadRuleSet(ruleFile);
+                loaded++;
+            } catch (FileNotFoundException e) {
+                snapshot.forget(ruleFile);
+            } catch (IOException e) {
+                log.debug("Not warming up rule file {}: {}", ruleFile, e.getMessage());
+            }
+        }
+        log.info("Loaded {} of {} rule sets from the rule set snapshot", loaded, snapshotIndex.size());
+        return loaded;
+    }
+
+    /**
+     * @return whether {@link #loadRuleSet} would answer {@code ruleFile} from the cache right now, without
+     * resolving or reading its resource
+     */
+    public boolean isCached(String ruleFile) {
+        CachedRuleSet cached = cache.get(ruleFile);
+        return cached != null && isFresh(cached);
+    }
+
+    /**
+     * @return the names of the rule files currently cached
+     */
+    public Set<String> getCachedRuleFiles() {
+        return Collections.unmodifiableSet(cache.keySet());
+    }
+
+    /**
+     * Drops the cached rule set for the given file so the next lookup reads it again.
+     */
+    public void invalidate(String ruleFile) {
+        synchronized (evictionOrder) {
+            cache.remove(ruleFile);
+            evictionOrder.remove(ruleFile);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (evictionOrder) {
+            cache.clear();
+            evictionOrder.clear();
+        }
+    }
+
+    /**
+     * @return the regular expressions compiled for {@code pattern} rules, shared by all loaded rule sets
+     */
+    public PatternCache getPatternCache() {
+        return patternCache;
+    }
+
+    public RuleCacheStats getCacheStats() {
+        return new RuleCacheStats(hits.sum(), misses.sum(), loads.sum(), evictions.sum(),
+                loadTimeNanos.sum(), cache.size());
+    }
+
+    // A refresh interval that never elapses needs no clock
+    private boolean isFresh(CachedRuleSet cached) {
+        return refreshIntervalNanos == Long.MAX_VALUE || System.nanoTime() - cached.checkedAt < refreshIntervalNanos;
+    }
+
+    private boolean isUnchanged(CachedRuleSet cached, String ruleFile, Resource resource, long now)
+            throws IOException {
+        if (!sameResource(resource, cached.resource)) {
+            return false;
+        }
+        long lastModified = lastModified(resource);
+        if (lastModified != CachedRuleSet.UNKNOWN && lastModified == cached.lastModified) {
+            cached.checkedAt = now;
+            return true;
+        }
+        // Timestamp moved (or is unavailable): only re-parse if the content really changed
+        byte[] content = readContent(resource);
+        if (checksum(content) != cached.checksum) {
+            return false;
+        }
+        CachedRuleSet checked = new CachedRuleSet(resource, lastModified, cached.checksum, cached.ruleSet, now);
+        checked.used = true;
+        put(ruleFile, checked);
+        return true;
+    }
+
+    private CachedRuleSet load(String ruleFile, Resource resource, long now) throws IOException {
+        long start = System.nanoTime();
+        long lastModified = lastModified(resource);
+        byte[] content = readContent(resource);
+        long checksum = checksum(content);
+        CompiledRuleSet ruleSet;
+        RuleSetSource source;
+        if (JsonSchemaRules.isSchemaFile(ruleFile)) {
+            source = RuleSetSource.SCHEMA;
+            ruleSet = compiler.compileSchema(ruleFile, content);
+        } else {
+            List<Map<String, Object>> definitions = ruleIndex.get(ruleFile, checksum);
+            if (definitions != null) {
+                source = RuleSetSource.INDEX;
+                ruleSet = compiler.compile(ruleFile, definitions);
+            } else {
+                definitions = snapshotIndex.get(ruleFile, checksum);
+                if (definitions != null) {
+                    source = RuleSetSource.SNAPSHOT;
+                } else {
+                    source = RuleSetSource.YAML;
+                    definitions = parse(ruleFile, content);
+                }
+                ruleSet = compiler.compile(ruleFile, definitions, snapshotIndex.getTables(ruleFile, checksum));
+                if (snapshot != null) {
+                    snapshot.record(ruleFile, checksum, ruleSet);
+                }
+            }
+        }
+        CachedRuleSet loaded = new CachedRuleSet(resource, lastModified, checksum, ruleSet, now);
+        long loadTime = System.nanoTime() - start;
+        loadTimeNanos.add(loadTime);
+        loads.increment();
+        metrics.recordRuleSetLoad(ruleFile, loadTime, source);
+
+        put(ruleFile, loaded);
+        return loaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> parse(String ruleFile, byte[] content) throws IOException {
+        Map<String, Object> ruleSet = YAML_MAPPER.readValue(content, Map.class);
+        Object rules = ruleSet == null ? null : ruleSet.get("rules");
+        if (rules == null) {
+            return Collections.emptyList();
+        }
+        if (!(rules instanceof List)) {
+            throw new InvalidRuleException("Invalid rule file " + ruleFile + ": 'rules' must be a list");
+        }
+        return Collections.unmodifiableList(new ArrayList<>((List<Map<String, Object>>) rules));
+    }
+
+    private void put(String ruleFile, CachedRuleSet cached) {
+        synchronized (evictionOrder) {
+            cache.put(ruleFile, cached);
+            evictionOrder.add(ruleFile);
+            if (cache.size() > maxCachedRuleSets) {
+                evict(ruleFile);
+            }
+        }
+    }
+
+    /**
+     * Evicts rule sets until the cache is within its bound, never {@code keep}: a rule set used since it was
+     * last passed is unmarked and moved to the end of the eviction order, the first one that is not is evicted.
+     * A third pass evicts regardless, so hits marking rule sets again meanwhile cannot hold eviction up.
+     */
+    private void evict(String keep) {
+        List<String> passed = new ArrayList<>();
+        for (int pass = 0; pass < 3 && cache.size() > maxCachedRuleSets; pass++) {
+            Iterator<String> order = evictionOrder.iterator();
+            while (cache.size() > maxCachedRuleSets && order.hasNext()) {
+                String ruleFile = order.next();
+                order.remove();
+                CachedRuleSet cached = cache.get(ruleFile);
+                if (cached == null) {
+                    continue;
+                }
+                if (ruleFile.equals(keep) || cached.used && pass < 2) {
+                    cached.used = false;
+                    passed.add(ruleFile);
+                } else {
+                    cache.remove(ruleFile);
+                    evictions.increment();
+                }
+            }
+            evictionOrder.addAll(passed);
+            passed.clear();
+        }
+    }
+
+    private Resource resolveResource(String ruleFile) throws IOException {
+        Resource resource;
+
         // First try to load from the rules location
         if (rulesLocation.startsWith("classpath:")) {
             resource = new ClassPathResource(rulesLocation.substring(10) + ruleFile);
@@ -53,10 +371,122 @@ public class ValidationRuleLoader {
         }
 
         if (!resource.exists()) {
-            throw new IOException("Rule file not found: " + ruleFile);
+            throw new FileNotFoundException("Rule file not found: " + ruleFile);
         }
+        return resource;
+    }
 
-        Map<String, Object> ruleSet = yamlMapper.readValue(resource.getInputStream(), Map.class);
-        return (List<Map<String, Object>>) ruleSet.get("rules");
+    private static boolean sameResource(Resource a, Resource b) {
+        return a.getDescription().equals(b.getDescription());
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return CachedRuleSet.UNKNOWN;
+        }
+    }
+
+    private static byte[] readContent(Resource resource) throws IOException {
+        try (InputStream is = resource.getInputStream()) {
+            return is.readAllBytes();
+        }
+    }
+
+    static long checksum(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static final class CachedRuleSet {
+        static final long UNKNOWN = -1L;
+
+        final Resource resource;
+        final long lastModified;
+        final long checksum;
+        final CompiledRuleSet ruleSet;
+        volatile long checkedAt;
+        // Set by a hit, cleared when eviction passes it
+        volatile boolean used;
+
+        CachedRuleSet(Resource resource, long lastModified, long checksum, CompiledRuleSet ruleSet, long now) {
+            this.resource = resource;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+            this.ruleSet = ruleSet;
+            this.checkedAt = now;
+        }
+    }
+
+    /**
+     * Configures a {@link ValidationRuleLoader}. Every setting other than the rules location is optional.
+     */
+    public static final class Builder {
+        private final String rulesLocation;
+        private int maxCachedRuleSets = DEFAULT_MAX_CACHED_RULE_SETS;
+        private Duration refreshInterval = DEFAULT_REFRESH_INTERVAL;
+        private RuleIndex ruleIndex;
+        private ValidationMetrics metrics = ValidationMetrics.NOOP;
+        private RuleSetSnapshot snapshot;
+
+        private Builder(String rulesLocation) {
+            this.rulesLocation = Objects.requireNonNull(rulesLocation, "rulesLocation");
+        }
+
+        /**
+         * @param maxCachedRuleSets the maximum number of compiled rule sets kept in memory;
+         *                          {@value #DEFAULT_MAX_CACHED_RULE_SETS} by default
+         */
+        public Builder maxCachedRuleSets(int maxCachedRuleSets) {
+            if (maxCachedRuleSets < 1) {
+                throw new IllegalArgumentException("maxCachedRuleSets must be at least 1");
+            }
+            this.maxCachedRuleSets = maxCachedRuleSets;
+            return this;
+        }
+
+        /**
+         * @param refreshInterval how long a cached rule set is trusted before its resource is checked for
+         *                        changes; zero checks on every lookup, a negative duration never checks.
+         *                        {@link #DEFAULT_REFRESH_INTERVAL} by default
+         */
+        public Builder refreshInterval(Duration refreshInterval) {
+            this.refreshInterval = Objects.requireNonNull(refreshInterval, "refreshInterval");
+            return this;
+        }
+
+        /**
+         * @param ruleIndex pre-parsed rule files, used instead of parsing YAML whose content matches an entry; the
+         *                  index packaged at {@link RuleIndex#LOCATION} by default
+         */
+        public Builder ruleIndex(RuleIndex ruleIndex) {
+            this.ruleIndex = Objects.requireNonNull(ruleIndex, "ruleIndex");
+            return this;
+        }
+
+        /**
+         * @param metrics told about every rule set load; also given the loader to publish its cache statistics.
+         *                {@link ValidationMetrics#NOOP} by default
+         */
+        public Builder metrics(ValidationMetrics metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics");
+            return this;
+        }
+
+        /**
+         * @param snapshot rule files parsed by an earlier run, used like the rule index for files it does not
+         *                 hold; every such file loaded is recorded in it, and every one found deleted removed.
+         *                 Null, the default, for none
+         */
+        public Builder snapshot(RuleSetSnapshot snapshot) {
+            this.snapshot = snapshot;
+            return this;
+        }
+
+        public ValidationRuleLoader build() {
+            return new ValidationRuleLoader(this);
+        }
     }
-} 
\ No newline at end of file
+}
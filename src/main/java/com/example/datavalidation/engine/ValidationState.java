@@ -0,0 +1,58 @@
+package com.example.datavalidation.engine;
+
+import java.util.Map;
+
+/**
+ * A validated record together with what {@link ValidationEngine#checkPatch} needs to validate a change to it
+ * incrementally: the rule set it was validated with and the error of every single rule.
+ * <p>
+ * States are immutable; {@link ValidationEngine#checkPatch} returns a new one for the patched record. The record
+ * map must not be modified once it was validated.
+ */
+public final class ValidationState {
+    private final Class<?> entityClass;
+    private final CompiledRuleSet ruleSet;
+    private final Map<String, Object> data;
+    private final ValidationError[] errors;
+    private final ValidationResult result;
+
+    /**
+     * @param ruleSet the rule set the record was validated with, or null if it could not be validated
+     * @param errors  the error of every rule indexed by rule index, or null if the rules were not evaluated one
+     *                by one, e.g. for a JSON Schema
+     */
+    ValidationState(Class<?> entityClass, CompiledRuleSet ruleSet, Map<String, Object> data,
+                    ValidationError[] errors, ValidationResult result) {
+        this.entityClass = entityClass;
+        this.ruleSet = ruleSet;
+        this.data = data;
+        this.errors = errors;
+        this.result = result;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return the validated record
+     */
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    /**
+     * @return the result of the record, as limited by the options it was validated with
+     */
+    public ValidationResult getResult() {
+        return result;
+    }
+
+    CompiledRuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    ValidationError[] getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.datavalidation.engine;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps {@link ValidationState}s under random tokens, so that REST clients can refer to a validated record when
+ * sending a patch for it instead of sending the record again.
+ * <p>
+ * The store holds at most {@code maxSize} states, evicting the oldest first, and a token is valid for
+ * {@code ttl} after its state was stored. Expired states are removed whenever a state is stored, so an idle
+ * store keeps at most the states of its last {@code ttl}.
+ */
+public class ValidationStateStore {
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final ConcurrentMap<String, Entry> states = new ConcurrentHashMap<>();
+    // Every token of states, oldest first
+    private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    public ValidationStateStore() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL);
+    }
+
+    public ValidationStateStore(int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @return the new token of the state
+     */
+    public String put(ValidationState state) {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        String token = HEX.formatHex(bytes);
+        long now = System.nanoTime();
+        removeExpired(now);
+        states.put(token, new Entry(state, now));
+        insertionOrder.add(token);
+        while (states.size() > maxSize) {
+            String eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            states.remove(eldest);
+        }
+        return token;
+    }
+
+    /**
+     * Removes the expired states. They are the oldest ones, as every state lives for the same {@code ttl}.
+     */
+    private void removeExpired(long now) {
+        String eldest;
+        while ((eldest = insertionOrder.peek()) != null) {
+            Entry entry = states.get(eldest);
+            if (entry != null && now - entry.storedAt < ttlNanos) {
+                break;
+            }
+            // Another thread may have removed it already
+            if (insertionOrder.remove(eldest)) {
+                states.remove(eldest);
+            }
+        }
+    }
+
+    /**
+     * @return the state stored under the token, or null if the token is unknown, evicted or expired
+     */
+    public ValidationState get(String token) {
+        Entry entry = token == null ? null : states.get(token);
+        if (entry == null || System.nanoTime() - entry.storedAt >= ttlNanos) {
+            return null;
+        }
+        return entry.state;
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    private static final class Entry {
+        final ValidationState state;
+        final long storedAt;
+
+        Entry(ValidationState state, long storedAt) {
+            this.state = state;
+            this.storedAt = storedAt;
+        }
+    }
+}
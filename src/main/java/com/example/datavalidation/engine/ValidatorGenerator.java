@@ -0,0 +1,313 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.CompiledRule;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Compiles a {@link RulePlan} into a hidden class implementing {@link RuleSetValidator}.
+ * <p>
+ * The generated {@code evaluate} is the plan's loop unrolled: one straight-line block per field, reading the
+ * field's value once and calling each of its rules in plan order. Every rule sits in its own {@code static final}
+ * field typed with the rule's class, so every call site is monomorphic and the JIT can inline the checks, which
+ * the one shared call site of the interpreted loop rarely allows. The class is defined with
+ * {@link MethodHandles.Lookup#defineHiddenClassWithClassData}, holds no strong reference from its class loader,
+ * and is unloaded together with its rule set.
+ * <p>
+ * Both methods of the class are generated from the same walk: {@code evaluate} and {@code evaluateTimed}, which
+ * additionally wraps every rule in {@link System#nanoTime()} for {@link ValidationMetrics#recordRule}. Skipping
+ * after a failure is a jump to the end of the field's subtree or to the next field, taken when the
+ * {@code skipAfterFailure} argument is set.
+ */
+final class ValidatorGenerator {
+    /**
+     * Plans with more rules stay interpreted: the JIT does not compile methods larger than 8000 bytes of
+     * bytecode, which would make the generated class slower than the loop it replaces. A rule takes about 60 bytes
+     * of {@code evaluate} and 80 of {@code evaluateTimed}.
+     */
+    static final int MAX_RULES = 100;
+
+    private static final String CLASS_NAME =
+            ValidatorGenerator.class.getPackageName().replace('.', '/') + "/GeneratedRuleSetValidator";
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String LIST = Type.getInternalName(List.class);
+    private static final String ERROR = Type.getInternalName(ValidationError.class);
+    private static final String METRICS = Type.getInternalName(ValidationMetrics.class);
+    private static final String VALIDATE_DESCRIPTOR =
+            Type.getMethodDescriptor(Type.getType(ValidationError.class), Type.getType(Object.class));
+
+    // Local variable slots shared by evaluate and evaluateTimed
+    private static final int VALUES = 1;
+    private static final int MAX_ERRORS = 2;
+    private static final int SKIP = 3;
+    // Only in evaluateTimed(values, maxErrors, skipAfterFailure, ValidationMetrics metrics, String source)
+    private static final int METRICS_VAR = 4;
+    private static final int SOURCE = 5;
+
+    private final CompiledRule[] rules;
+    private final int[] ruleIndexes;
+    private final int[] nodeStarts;
+    private final int[] presenceEnds;
+    private final int[] subtreeEnds;
+    private final boolean[] presenceBelow;
+    private final Class<?>[] ruleTypes;
+
+    ValidatorGenerator(CompiledRule[] rules, int[] ruleIndexes, int[] nodeStarts, int[] presenceEnds,
+                       int[] subtreeEnds, boolean[] presenceBelow) {
+        this.rules = rules;
+        this.ruleIndexes = ruleIndexes;
+        this.nodeStarts = nodeStarts;
+        this.presenceEnds = presenceEnds;
+        this.subtreeEnds = subtreeEnds;
+        this.presenceBelow = presenceBelow;
+        this.ruleTypes = new Class<?>[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            ruleTypes[i] = linkableType(rules[i].getClass());
+        }
+    }
+
+    /**
+     * @throws ReflectiveOperationException if the generated class cannot be defined
+     */
+    RuleSetValidator generate() throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup()
+                .defineHiddenClassWithClassData(bytecode(), List.of(rules), true);
+        return (RuleSetValidator) lookup.lookupClass().getDeclaredConstructor().newInstance();
+    }
+
+    private byte[] bytecode() {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Only reached for the reference locals, which are all used as their declared types
+                return OBJECT;
+            }
+        };
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CLASS_NAME, null, OBJECT,
+                new String[]{Type.getInternalName(RuleSetValidator.class)});
+        for (int i = 0; i < rules.length; i++) {
+            writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, field(i),
+                    Type.getDescriptor(ruleTypes[i]), null, null).visitEnd();
+        }
+        writeStaticInitializer(writer);
+        writeConstructor(writer);
+        writeEvaluate(writer, false);
+        writeEvaluate(writer, true);
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Copies the rules from the class data list into the static fields.
+     */
+    private void writeStaticInitializer(ClassWriter writer) {
+        MethodVisitor code = writer.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+        code.visitCode();
+        code.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup",
+                "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+        code.visitLdcInsn("_");
+        code.visitLdcInsn(Type.getType(List.class));
+        code.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;",
+                false);
+        code.visitTypeInsn(Opcodes.CHECKCAST, LIST);
+        code.visitVarInsn(Opcodes.ASTORE, 0);
+        for (int i = 0; i < rules.length; i++) {
+            code.visitVarInsn(Opcodes.ALOAD, 0);
+            pushInt(code, i);
+            code.visitMethodInsn(Opcodes.INVOKEINTERFACE, LIST, "get", "(I)Ljava/lang/Object;", true);
+            code.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(ruleTypes[i]));
+            code.visitFieldInsn(Opcodes.PUTSTATIC, CLASS_NAME, field(i), Type.getDescriptor(ruleTypes[i]));
+        }
+        code.visitInsn(Opcodes.RETURN);
+        code.visitMaxs(0, 0);
+        code.visitEnd();
+    }
+
+    private static void writeConstructor(ClassWriter writer) {
+        MethodVisitor code = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        code.visitCode();
+        code.visitVarInsn(Opcodes.ALOAD, 0);
+        code.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        code.visitInsn(Opcodes.RETURN);
+        code.visitMaxs(0, 0);
+        code.visitEnd();
+    }
+
+    /**
+     * The same walk as {@link RulePlan#evaluate}, with the node and rule loops unrolled.
+     *
+     * @param timed whether to write {@code evaluateTimed}, reporting every rule's duration
+     */
+    private void writeEvaluate(ClassWriter writer, boolean timed) {
+        MethodVisitor code = timed
+                ? writer.visitMethod(Opcodes.ACC_PUBLIC, "evaluateTimed",
+                        "([Ljava/lang/Object;IZL" + METRICS + ";Ljava/lang/String;)[L" + ERROR + ";", null, null)
+                : writer.visitMethod(Opcodes.ACC_PUBLIC, "evaluate",
+                        "([Ljava/lang/Object;IZ)[L" + ERROR + ";", null, null);
+        Locals locals = new Locals(timed);
+        code.visitCode();
+        code.visitInsn(Opcodes.ACONST_NULL);
+        code.visitVarInsn(Opcodes.ASTORE, locals.found);
+        code.visitInsn(Opcodes.ACONST_NULL);
+        code.visitVarInsn(Opcodes.ASTORE, locals.value);
+        code.visitInsn(Opcodes.ACONST_NULL);
+        code.visitVarInsn(Opcodes.ASTORE, locals.error);
+        code.visitInsn(Opcodes.ICONST_0);
+        code.visitVarInsn(Opcodes.ISTORE, locals.count);
+        if (timed) {
+            code.visitInsn(Opcodes.LCONST_0);
+            code.visitVarInsn(Opcodes.LSTORE, locals.start);
+        }
+
+        int nodes = subtreeEnds.length;
+        Label[] nodeLabels = new Label[nodes + 1];
+        for (int node = 0; node <= nodes; node++) {
+            nodeLabels[node] = new Label();
+        }
+        for (int node = 0; node < nodes; node++) {
+            code.visitLabel(nodeLabels[node]);
+            boolean skipWhenAbsent = !presenceBelow[node] && subtreeEnds[node] > node + 1;
+            if (nodeStarts[node] == nodeStarts[node + 1] && !skipWhenAbsent) {
+                continue;
+            }
+            code.visitVarInsn(Opcodes.ALOAD, VALUES);
+            pushInt(code, node);
+            code.visitInsn(Opcodes.AALOAD);
+            code.visitVarInsn(Opcodes.ASTORE, locals.value);
+
+            // A failed presence rule skips the subtree, any other failure the field's remaining rules
+            Label subtreeEnd = nodeLabels[subtreeEnds[node]];
+            Label nextNode = nodeLabels[node + 1];
+            // An absent value only runs the presence rules, and skips the subtree if nothing below checks presence
+            Label present = new Label();
+            code.visitVarInsn(Opcodes.ALOAD, locals.value);
+            code.visitJumpInsn(Opcodes.IFNONNULL, present);
+            for (int i = nodeStarts[node]; i < presenceEnds[node]; i++) {
+                writeRule(code, locals, i, subtreeEnd);
+            }
+            code.visitJumpInsn(Opcodes.GOTO, skipWhenAbsent ? subtreeEnd : nextNode);
+            code.visitLabel(present);
+            for (int i = nodeStarts[node]; i < nodeStarts[node + 1]; i++) {
+                writeRule(code, locals, i, i < presenceEnds[node] ? subtreeEnd : nextNode);
+            }
+        }
+        code.visitLabel(nodeLabels[nodes]);
+        code.visitVarInsn(Opcodes.ALOAD, locals.found);
+        code.visitInsn(Opcodes.ARETURN);
+        code.visitMaxs(0, 0);
+        code.visitEnd();
+    }
+
+    /**
+     * {@code error = rule<i>.validate(value)}, recorded at the rule's index, returning once {@code maxErrors} are
+     * found and jumping to {@code skipTo} after a failure if {@code skipAfterFailure} is set.
+     */
+    private void writeRule(MethodVisitor code, Locals locals, int i, Label skipTo) {
+        Label next = new Label();
+        Label allocated = new Label();
+        String ruleType = Type.getDescriptor(ruleTypes[i]);
+        if (locals.timed) {
+            code.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+            code.visitVarInsn(Opcodes.LSTORE, locals.start);
+        }
+        code.visitFieldInsn(Opcodes.GETSTATIC, CLASS_NAME, field(i), ruleType);
+        code.visitVarInsn(Opcodes.ALOAD, locals.value);
+        code.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(ruleTypes[i]), "validate",
+                VALIDATE_DESCRIPTOR, false);
+        code.visitVarInsn(Opcodes.ASTORE, locals.error);
+        if (locals.timed) {
+            // metrics.recordRule(source, rule<i>, System.nanoTime() - start)
+            code.visitVarInsn(Opcodes.ALOAD, METRICS_VAR);
+            code.visitVarInsn(Opcodes.ALOAD, SOURCE);
+            code.visitFieldInsn(Opcodes.GETSTATIC, CLASS_NAME, field(i), ruleType);
+            code.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+            code.visitVarInsn(Opcodes.LLOAD, locals.start);
+            code.visitInsn(Opcodes.LSUB);
+            code.visitMethodInsn(Opcodes.INVOKEINTERFACE, METRICS, "recordRule",
+                    "(Ljava/lang/String;L" + Type.getInternalName(CompiledRule.class) + ";J)V", true);
+        }
+        code.visitVarInsn(Opcodes.ALOAD, locals.error);
+        code.visitJumpInsn(Opcodes.IFNULL, next);
+
+        code.visitVarInsn(Opcodes.ALOAD, locals.found);
+        code.visitJumpInsn(Opcodes.IFNONNULL, allocated);
+        pushInt(code, rules.length);
+        code.visitTypeInsn(Opcodes.ANEWARRAY, ERROR);
+        code.visitVarInsn(Opcodes.ASTORE, locals.found);
+        code.visitLabel(allocated);
+        code.visitVarInsn(Opcodes.ALOAD, locals.found);
+        pushInt(code, ruleIndexes[i]);
+        code.visitVarInsn(Opcodes.ALOAD, locals.error);
+        code.visitInsn(Opcodes.AASTORE);
+
+        Label belowLimit = new Label();
+        code.visitIincInsn(locals.count, 1);
+        code.visitVarInsn(Opcodes.ILOAD, locals.count);
+        code.visitVarInsn(Opcodes.ILOAD, MAX_ERRORS);
+        code.visitJumpInsn(Opcodes.IF_ICMPLT, belowLimit);
+        code.visitVarInsn(Opcodes.ALOAD, locals.found);
+        code.visitInsn(Opcodes.ARETURN);
+        code.visitLabel(belowLimit);
+        code.visitVarInsn(Opcodes.ILOAD, SKIP);
+        code.visitJumpInsn(Opcodes.IFEQ, next);
+        code.visitJumpInsn(Opcodes.GOTO, skipTo);
+        code.visitLabel(next);
+    }
+
+    private static String field(int rule) {
+        return "rule" + rule;
+    }
+
+    /**
+     * The rule's own class if the generated class can link against it, otherwise {@link CompiledRule}; the JIT
+     * still sees the exact class through the constant field.
+     */
+    private static Class<?> linkableType(Class<?> type) {
+        if (Modifier.isPublic(type.getModifiers()) && !type.isHidden()
+                && type.getClassLoader() == ValidatorGenerator.class.getClassLoader()) {
+            return type;
+        }
+        return CompiledRule.class;
+    }
+
+    private static void pushInt(MethodVisitor code, int value) {
+        if (value >= -1 && value <= 5) {
+            code.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            code.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            code.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            code.visitLdcInsn(value);
+        }
+    }
+
+    /**
+     * The local variable slots after the arguments, which {@code evaluateTimed} has two more of.
+     */
+    private static final class Locals {
+        final boolean timed;
+        final int found;
+        final int value;
+        final int error;
+        final int count;
+        final int start;
+
+        Locals(boolean timed) {
+            this.timed = timed;
+            this.found = timed ? SOURCE + 1 : SKIP + 1;
+            this.value = found + 1;
+            this.error = found + 2;
+            this.count = found + 3;
+            this.start = found + 4;
+        }
+    }
+}
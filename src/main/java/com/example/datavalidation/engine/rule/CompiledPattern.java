@@ -0,0 +1,54 @@
+package com.example.datavalidation.engine.rule;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A regular expression compiled once and shared by every rule that uses it.
+ * <p>
+ * Each thread reuses its own {@link Matcher} so matching does not allocate a new matcher per value.
+ */
+public final class CompiledPattern {
+    private final Pattern pattern;
+    private final long compileTimeNanos;
+    private final long allocatedBytes;
+    private final ThreadLocal<Matcher> matchers;
+
+    public CompiledPattern(Pattern pattern, long compileTimeNanos, long allocatedBytes) {
+        this.pattern = pattern;
+        this.compileTimeNanos = compileTimeNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.matchers = ThreadLocal.withInitial(() -> pattern.matcher(""));
+    }
+
+    /**
+     * @return whether the whole input matches, with the same semantics as {@link String#matches(String)}
+     */
+    public boolean matches(CharSequence input) {
+        Matcher matcher = matchers.get().reset(input);
+        boolean matches = matcher.matches();
+        // Don't keep the last validated value reachable from the thread
+        matcher.reset("");
+        return matches;
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    public String getRegex() {
+        return pattern.pattern();
+    }
+
+    public long getCompileTimeNanos() {
+        return compileTimeNanos;
+    }
+
+    /**
+     * @return the bytes allocated on the heap while compiling the pattern, an upper bound of its footprint,
+     * or {@code -1} if the JVM does not report per-thread allocation
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.datavalidation.engine.rule;
+
+import com.example.datavalidation.engine.ValidationError;
+
+/**
+ * A single validation rule compiled from a rule file entry.
+ * <p>
+ * Instances are immutable and hold their parameters already parsed and checked, so evaluating a rule never
+ * has to look at the raw rule definition again. The {@link ValidationError} a rule reports is created along
+ * with it, so a failing check allocates nothing either.
+ */
+public abstract class CompiledRule {
+    private final String type;
+    private final String name;
+    private final String field;
+    private final String message;
+    private final ValidationError error;
+
+    /**
+     * @param type       the rule type, also the error code of {@link #getError()}
+     * @param message    the rule's own message, or {@code null} for the default one of its type
+     * @param parameters the rule parameters reported with its error
+     */
+    protected CompiledRule(String type, String name, String field, String message, Object... parameters) {
+        this.type = type;
+        this.name = name;
+        this.field = field;
+        this.message = message;
+        this.error = new ValidationError(name, field, type, message, parameters);
+    }
+
+    /**
+     * Checks a resolved field value against this rule.
+     *
+     * @param value the value of {@link #getField()}, or {@code null} if it is absent
+     * @return the error if the value violates the rule, otherwise {@code null}
+     */
+    public abstract ValidationError validate(Object value);
+
+    /**
+     * Same as {@link #validate}, with the error formatted as its message.
+     */
+    public final String check(Object value) {
+        ValidationError result = validate(value);
+        return result == null ? null : result.getMessage();
+    }
+
+    /**
+     * @return whether the rule looks at the value itself rather than only at whether it is present; streaming
+     * validation has to materialize object and array values only for rules that do
+     */
+    public boolean inspectsValue() {
+        return true;
+    }
+
+    /**
+     * @return whether the rule checks that the value is present. Rules that do not must pass an absent
+     * ({@code null}) value, which lets evaluation skip them, and every rule below an absent field, unseen
+     */
+    public boolean checksPresence() {
+        return false;
+    }
+
+    /**
+     * @return a relative estimate of what one check costs, used to run cheap rules of a field first
+     */
+    public int getCost() {
+        return 1;
+    }
+
+    /**
+     * @return the rule type, e.g. {@code notBlank}
+     */
+    public String getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @return the rule's own message, or {@code null} if it uses the default message of its type
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return the error this rule reports when a value violates it
+     */
+    public ValidationError getError() {
+        return error;
+    }
+
+    /**
+     * @return an error of this rule with another code and the same parameters, for failures other than the
+     * rule's own, e.g. a value that cannot be read as a number
+     */
+    protected ValidationError newError(String code, Object... parameters) {
+        return new ValidationError(name, field, code, null, parameters);
+    }
+
+    @Override
+    public String toString() {
+        return getType() + "(" + field + ")";
+    }
+}
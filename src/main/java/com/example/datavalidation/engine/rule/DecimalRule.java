@@ -0,0 +1,47 @@
+package com.example.datavalidation.engine.rule;
+
+/**
+ * Fails when a present value is not a number, is outside the optional {@code [min, max]}, or has more
+ * fraction digits than the optional {@code scale} (trailing zeros do not count).
+ */
+public final class DecimalRule extends NumericRule {
+    private final NumericBound min;
+    private final NumericBound max;
+    private final int scale;
+
+    /**
+     * @param min   the minimum, or null for none
+     * @param max   the maximum, or null for none
+     * @param scale the maximum number of fraction digits, or -1 for any
+     */
+    public DecimalRule(String name, String field, String message, Number min, Number max, int scale,
+                       boolean required) {
+        super("decimal", name, field, message, required, "number.format", min, max, scale < 0 ? null : scale);
+        this.min = bound(min);
+        this.max = bound(max);
+        if (min != null && max != null && this.min.getValue().compareTo(this.max.getValue()) > 0) {
+            throw new IllegalArgumentException("decimal requires min <= max, got min=" + min + ", max=" + max);
+        }
+        this.scale = scale;
+    }
+
+    @Override
+    protected boolean accepts(Number number) {
+        return isWithin(number, min, max) && (scale < 0 || NumericValue.scale(number) <= scale);
+    }
+
+    public Number getMin() {
+        return configured(min);
+    }
+
+    public Number getMax() {
+        return configured(max);
+    }
+
+    /**
+     * @return the maximum number of fraction digits, or -1 for any
+     */
+    public int getScale() {
+        return scale;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.datavalidation.engine.rule;
+
+import java.util.Collection;
+
+/**
+ * Open-addressing hash set of allowed values, built once when an {@code enum} rule is compiled.
+ * <p>
+ * Lookups take any {@link CharSequence} and, in case-insensitive mode, fold case character by character while
+ * hashing and comparing, so neither mode allocates.
+ */
+public final class EnumLookup {
+    private final String[] table;
+    private final int[] hashes;
+    private final int mask;
+    private final int shift;
+    private final boolean ignoreCase;
+    private final int size;
+
+    private EnumLookup(String[] table, int[] hashes, boolean ignoreCase, int size) {
+        this.table = table;
+        this.hashes = hashes;
+        this.mask = table.length - 1;
+        this.shift = Integer.numberOfLeadingZeros(mask);
+        this.ignoreCase = ignoreCase;
+        this.size = size;
+    }
+
+    public static EnumLookup of(Collection<String> values, boolean ignoreCase) {
+        // Keep the load factor at or below 0.5 so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(2, values.size()) * 2 - 1) << 1;
+        String[] table = new String[capacity];
+        int[] hashes = new int[capacity];
+        int mask = capacity - 1;
+        int shift = Integer.numberOfLeadingZeros(mask);
+        int size = 0;
+        for (String value : values) {
+            int hash = hash(value, ignoreCase);
+            int slot = slot(hash, shift);
+            boolean duplicate = false;
+            while (table[slot] != null) {
+                if (hashes[slot] == hash && equal(table[slot], value, ignoreCase)) {
+                    duplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (!duplicate) {
+                table[slot] = value;
+                hashes[slot] = hash;
+                size++;
+            }
+        }
+        return new EnumLookup(table, hashes, ignoreCase, size);
+    }
+
+    /**
+     * Rebuilds a lookup from the {@link #getTable() table} and {@link #getHashes() hashes} of one built by
+     * {@link #of} with the same {@code ignoreCase}, without hashing the values again.
+     *
+     * @throws IllegalArgumentException if the arrays cannot be those of a lookup
+     */
+    public static EnumLookup restore(String[] table, int[] hashes, boolean ignoreCase) {
+        if (table.length < 2 || Integer.bitCount(table.length) != 1 || hashes.length != table.length) {
+            throw new IllegalArgumentException("Not an enum lookup table of " + table.length + " slots");
+        }
+        int size = 0;
+        for (String value : table) {
+            if (value != null) {
+                size++;
+            }
+        }
+        if (size * 2 > table.length) {
+            throw new IllegalArgumentException("Enum lookup table of " + table.length + " slots holds " + size);
+        }
+        return new EnumLookup(table.clone(), hashes.clone(), ignoreCase, size);
+    }
+
+    public boolean contains(CharSequence value) {
+        int hash = hash(value, ignoreCase);
+        int slot = slot(hash, shift);
+        String candidate;
+        while ((candidate = table[slot]) != null) {
+            if (hashes[slot] == hash && equal(candidate, value, ignoreCase)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a copy of the open-addressing table, with null for every empty slot
+     */
+    public String[] getTable() {
+        return table.clone();
+    }
+
+    /**
+     * @return a copy of the hash of every slot of {@link #getTable()}
+     */
+    public int[] getHashes() {
+        return hashes.clone();
+    }
+
+    private static int hash(CharSequence value, boolean ignoreCase) {
+        if (!ignoreCase && value instanceof String) {
+            return value.hashCode();
+        }
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = 31 * hash + (ignoreCase ? fold(c) : c);
+        }
+        return hash;
+    }
+
+    private static boolean equal(String expected, CharSequence actual, boolean ignoreCase) {
+        if (!ignoreCase && actual instanceof String) {
+            return expected.equals(actual);
+        }
+        if (expected.length() != actual.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            char a = expected.charAt(i);
+            char b = actual.charAt(i);
+            if (a != b && (!ignoreCase || fold(a) != fold(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same per-character folding as String.equalsIgnoreCase
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    // Fibonacci hashing: String hashes of similar codes are nearly sequential and would cluster under a mask
+    private static int slot(int hash, int shift) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+}
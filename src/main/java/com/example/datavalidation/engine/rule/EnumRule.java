@@ -0,0 +1,65 @@
+package com.example.datavalidation.engine.rule;
+
+import com.example.datavalidation.engine.ValidationError;
+
+import java.util.List;
+
+/**
+ * Fails when the text of a present value is not one of the allowed values.
+ * <p>
+ * The allowed values are indexed in an {@link EnumLookup}, so a check costs the same for five values as for
+ * several thousand.
+ */
+public final class EnumRule extends CompiledRule {
+    private final List<String> values;
+    private final EnumLookup lookup;
+
+    public EnumRule(String name, String field, String message, List<String> values) {
+        this(name, field, message, values, false);
+    }
+
+    public EnumRule(String name, String field, String message, List<String> values, boolean ignoreCase) {
+        this(name, field, message, ignoreCase, List.copyOf(values));
+    }
+
+    /**
+     * @param lookup the lookup of {@code values}, as built before by {@link EnumLookup#of}
+     */
+    public EnumRule(String name, String field, String message, List<String> values, EnumLookup lookup) {
+        super("enum", name, field, message, List.copyOf(values));
+        this.values = List.copyOf(values);
+        this.lookup = lookup;
+    }
+
+    private EnumRule(String name, String field, String message, boolean ignoreCase, List<String> values) {
+        super("enum", name, field, message, values);
+        this.values = values;
+        this.lookup = EnumLookup.of(values, ignoreCase);
+    }
+
+    @Override
+    public ValidationError validate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        CharSequence text = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        return lookup.contains(text) ? null : getError();
+    }
+
+    @Override
+    public int getCost() {
+        return 3;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public boolean isIgnoreCase() {
+        return lookup.isIgnoreCase();
+    }
+
+    public EnumLookup getLookup() {
+        return lookup;
+    }
+}
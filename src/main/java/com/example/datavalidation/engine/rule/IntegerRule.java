@@ -0,0 +1,37 @@
+package com.example.datavalidation.engine.rule;
+
+/**
+ * Fails when a present value is not a whole number, or is outside the optional {@code [min, max]}.
+ * <p>
+ * Whole numbers of any size and type pass, including {@code 3.0} and {@code "12345678901234567890"}.
+ */
+public final class IntegerRule extends NumericRule {
+    private final NumericBound min;
+    private final NumericBound max;
+
+    /**
+     * @param min the minimum, or null for none
+     * @param max the maximum, or null for none
+     */
+    public IntegerRule(String name, String field, String message, Number min, Number max, boolean required) {
+        super("integer", name, field, message, required, "number.format", min, max);
+        this.min = bound(min);
+        this.max = bound(max);
+        if (min != null && max != null && this.min.getValue().compareTo(this.max.getValue()) > 0) {
+            throw new IllegalArgumentException("integer requires min <= max, got min=" + min + ", max=" + max);
+        }
+    }
+
+    @Override
+    protected boolean accepts(Number number) {
+        return NumericValue.isIntegral(number) && isWithin(number, min, max);
+    }
+
+    public Number getMin() {
+        return configured(min);
+    }
+
+    public Number getMax() {
+        return configured(max);
+    }
+}
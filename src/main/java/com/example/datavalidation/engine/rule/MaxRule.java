@@ -0,0 +1,29 @@
+package com.example.datavalidation.engine.rule;
+
+/**
+ * Fails when a present value is a number above the configured maximum, or is not a number at all.
+ */
+public final class MaxRule extends NumericRule {
+    private final NumericBound max;
+
+    public MaxRule(String name, String field, String message, Number max) {
+        this(name, field, message, max, false);
+    }
+
+    public MaxRule(String name, String field, String message, Number max, boolean required) {
+        super("max", name, field, message, required, "number.format", max);
+        this.max = new NumericBound(max);
+    }
+
+    @Override
+    protected boolean accepts(Number number) {
+        return max.compare(number) <= 0;
+    }
+
+    /**
+     * @return the maximum as configured
+     */
+    public Number getMax() {
+        return max.getConfigured();
+    }
+}
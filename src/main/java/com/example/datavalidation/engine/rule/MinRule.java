@@ -0,0 +1,29 @@
+package com.example.datavalidation.engine.rule;
+
+/**
+ * Fails when a present value is a number below the configured minimum, or is not a number at all.
+ */
+public final class MinRule extends NumericRule {
+    private final NumericBound min;
+
+    public MinRule(String name, String field, String message, Number min) {
+        this(name, field, message, min, false);
+    }
+
+    public MinRule(String name, String field, String message, Number min, boolean required) {
+        super("min", name, field, message, required, "min.format", min);
+        this.min = new NumericBound(min);
+    }
+
+    @Override
+    protected boolean accepts(Number number) {
+        return min.compare(number) >= 0;
+    }
+
+    /**
+     * @return the minimum as configured
+     */
+    public Number getMin() {
+        return min.getConfigured();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.datavalidation.engine.rule;
+
+import com.example.datavalidation.engine.ValidationError;
+
+/**
+ * Fails when the field value is absent or its text is empty after trimming.
+ */
+public final class NotBlankRule extends CompiledRule {
+    public NotBlankRule(String name, String field, String message) {
+        super("notBlank", name, field, message);
+    }
+
+    @Override
+    public ValidationError validate(Object value) {
+        return value == null || isBlank(value.toString()) ? getError() : null;
+    }
+
+    @Override
+    public boolean checksPresence() {
+        return true;
+    }
+
+    @Override
+    public int getCost() {
+        return 2;
+    }
+
+    // Same definition of blank as String.trim(), without allocating the trimmed copy
+    static boolean isBlank(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.datavalidation.engine.rule;
+
+import com.example.datavalidation.engine.ValidationError;
+
+/**
+ * Fails when the field value is absent.
+ */
+public final class NotNullRule extends CompiledRule {
+    public NotNullRule(String name, String field, String message) {
+        super("notNull", name, field, message);
+    }
+
+    @Override
+    public ValidationError validate(Object value) {
+        return value == null ? getError() : null;
+    }
+
+    @Override
+    public boolean inspectsValue() {
+        return false;
+    }
+
+    @Override
+    public boolean checksPresence() {
+        return true;
+    }
+}
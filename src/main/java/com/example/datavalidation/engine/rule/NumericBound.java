@@ -0,0 +1,74 @@
+package com.example.datavalidation.engine.rule;
+
+import java.math.BigDecimal;
+
+/**
+ * A configured numeric limit that numbers of any type are compared with exactly.
+ * <p>
+ * Integer values are compared as {@code long}s and doubles as {@code double}s whenever the limit has an exact
+ * representation of that type; only the remaining combinations, e.g. a {@code BigDecimal} value or a limit of
+ * {@code 0.1} for a {@code long} value, go through {@link BigDecimal}.
+ */
+final class NumericBound {
+    private static final long MAX_EXACT_DOUBLE_LONG = 1L << 53;
+
+    private final Number configured;
+    private final BigDecimal value;
+    private final boolean isLong;
+    private final long longValue;
+    private final boolean isDouble;
+    private final double doubleValue;
+
+    NumericBound(Number configured) {
+        if (configured instanceof Double || configured instanceof Float) {
+            double d = configured.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                throw new IllegalArgumentException("limit must be a finite number, got " + configured);
+            }
+        }
+        this.configured = configured;
+        this.value = NumericValue.toBigDecimal(configured);
+        this.isLong = NumericValue.isIntegral(value) && value.toBigInteger().bitLength() < Long.SIZE;
+        this.longValue = isLong ? value.longValue() : 0;
+        double d = value.doubleValue();
+        this.isDouble = !Double.isInfinite(d) && BigDecimal.valueOf(d).compareTo(value) == 0;
+        this.doubleValue = d;
+    }
+
+    /**
+     * @param number a finite number, as returned by {@link NumericValue#of}
+     * @return a negative, zero or positive value as {@code number} is less than, equal to or greater than the
+     * limit
+     */
+    int compare(Number number) {
+        if (NumericValue.isLong(number)) {
+            long l = number.longValue();
+            if (isLong) {
+                return Long.compare(l, longValue);
+            }
+            if (isDouble && Math.abs(l) <= MAX_EXACT_DOUBLE_LONG) {
+                return compare((double) l);
+            }
+            return BigDecimal.valueOf(l).compareTo(value);
+        }
+        if (number instanceof Double && isDouble) {
+            return compare(number.doubleValue());
+        }
+        return NumericValue.toBigDecimal(number).compareTo(value);
+    }
+
+    private int compare(double d) {
+        return d < doubleValue ? -1 : d > doubleValue ? 1 : 0;
+    }
+
+    /**
+     * @return the limit as configured in the rule file
+     */
+    Number getConfigured() {
+        return configured;
+    }
+
+    BigDecimal getValue() {
+        return value;
+    }
+}
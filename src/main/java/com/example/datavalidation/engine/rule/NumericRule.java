@@ -0,0 +1,74 @@
+package com.example.datavalidation.engine.rule;
+
+import com.example.datavalidation.engine.ValidationError;
+
+/**
+ * Base of the numeric rules: reads the value as a number and leaves the check itself to {@link #accepts}.
+ * <p>
+ * Numbers are used as they are and numeric text is parsed without exceptions (see {@link NumericValue}); a
+ * value that is not a number fails with a {@code .format} error. An absent value passes unless the rule is
+ * {@code required}.
+ */
+public abstract class NumericRule extends CompiledRule {
+    private final boolean required;
+    private final ValidationError formatError;
+    private final ValidationError requiredError;
+
+    /**
+     * @param formatCode the error code reported for a value that is not a number
+     */
+    protected NumericRule(String type, String name, String field, String message, boolean required,
+                          String formatCode, Object... parameters) {
+        super(type, name, field, message, parameters);
+        this.required = required;
+        this.formatError = newError(formatCode, parameters);
+        this.requiredError = newError("required", parameters);
+    }
+
+    @Override
+    public final ValidationError validate(Object value) {
+        if (value == null) {
+            return required ? requiredError : null;
+        }
+        Number number = NumericValue.of(value);
+        if (number == null) {
+            return formatError;
+        }
+        return accepts(number) ? null : getError();
+    }
+
+    /**
+     * @param number the value, never null, NaN or infinite
+     * @return whether the number satisfies the rule
+     */
+    protected abstract boolean accepts(Number number);
+
+    @Override
+    public boolean checksPresence() {
+        return required;
+    }
+
+    @Override
+    public int getCost() {
+        return 4;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * @return whether the number is within the limits, either of which may be null
+     */
+    static boolean isWithin(Number number, NumericBound min, NumericBound max) {
+        return (min == null || min.compare(number) >= 0) && (max == null || max.compare(number) <= 0);
+    }
+
+    static NumericBound bound(Number limit) {
+        return limit == null ? null : new NumericBound(limit);
+    }
+
+    static Number configured(NumericBound bound) {
+        return bound == null ? null : bound.getConfigured();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.datavalidation.engine.rule;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads field values as numbers without going through {@code toString()} and without exceptions.
+ * <p>
+ * {@link Number} values are used as they are. Text is accepted in plain decimal notation with an optional
+ * sign, fraction and exponent ({@code -12}, {@code 3.50}, {@code 1e3}); integers of up to 18 digits are read
+ * into a {@code long} directly, anything else into a {@link BigDecimal}, so large and fractional values are
+ * exact. Every other value, as well as NaN and infinity, is not a number.
+ */
+final class NumericValue {
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_EXPONENT_DIGITS = 9;
+
+    private NumericValue() {
+    }
+
+    /**
+     * @return the value as a number, or null if it is not one
+     */
+    static Number of(Object value) {
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            if (number instanceof Double || number instanceof Float) {
+                double d = number.doubleValue();
+                return Double.isNaN(d) || Double.isInfinite(d) ? null : number;
+            }
+            return number;
+        }
+        if (value instanceof CharSequence) {
+            return parse((CharSequence) value);
+        }
+        return null;
+    }
+
+    /**
+     * @return whether the number is a {@code byte}, {@code short}, {@code int} or {@code long}
+     */
+    static boolean isLong(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short
+                || number instanceof Byte || number instanceof AtomicInteger || number instanceof AtomicLong;
+    }
+
+    static boolean isIntegral(Number number) {
+        if (isLong(number) || number instanceof BigInteger) {
+            return true;
+        }
+        if (number instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) number;
+            return decimal.scale() <= 0 || decimal.signum() == 0 || decimal.stripTrailingZeros().scale() <= 0;
+        }
+        double value = number.doubleValue();
+        return value == Math.rint(value);
+    }
+
+    /**
+     * @return the number of significant fraction digits, e.g. 2 for {@code 1.25} and {@code 1.250}
+     */
+    static int scale(Number number) {
+        if (isIntegral(number)) {
+            return 0;
+        }
+        return Math.max(0, toBigDecimal(number).stripTrailingZeros().scale());
+    }
+
+    static int signum(Number number) {
+        if (isLong(number)) {
+            return Long.signum(number.longValue());
+        }
+        if (number instanceof BigDecimal) {
+            return ((BigDecimal) number).signum();
+        }
+        if (number instanceof BigInteger) {
+            return ((BigInteger) number).signum();
+        }
+        return (int) Math.signum(number.doubleValue());
+    }
+
+    /**
+     * @return the exact value of a finite number; doubles by their shortest decimal representation, so that
+     * {@code 0.1} is 0.1
+     */
+    static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (isLong(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        if (number instanceof Float) {
+            return new BigDecimal(number.toString());
+        }
+        return BigDecimal.valueOf(number.doubleValue());
+    }
+
+    private static Number parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+        int integerDigits = skipDigits(text, i);
+        i += integerDigits;
+        boolean plainInteger = i == length;
+        if (plainInteger && integerDigits > 0 && integerDigits <= MAX_LONG_DIGITS) {
+            return parseLong(text, length);
+        }
+        int fractionDigits = 0;
+        if (i < length && text.charAt(i) == '.') {
+            fractionDigits = skipDigits(text, i + 1);
+            i += 1 + fractionDigits;
+        }
+        if (integerDigits == 0 && fractionDigits == 0) {
+            return null;
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = skipDigits(text, i);
+            if (exponentDigits == 0 || exponentDigits > MAX_EXPONENT_DIGITS) {
+                return null;
+            }
+            i += exponentDigits;
+        }
+        if (i != length) {
+            return null;
+        }
+        // The syntax has been checked above, so this cannot throw
+        return new BigDecimal(text.toString());
+    }
+
+    private static long parseLong(CharSequence text, int length) {
+        char first = text.charAt(0);
+        int i = first == '-' || first == '+' ? 1 : 0;
+        long result = 0;
+        for (; i < length; i++) {
+            result = result * 10 + (text.charAt(i) - '0');
+        }
+        return first == '-' ? -result : result;
+    }
+
+    private static int skipDigits(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            i++;
+        }
+        return i - from;
+    }
+}
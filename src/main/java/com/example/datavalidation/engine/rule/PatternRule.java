@@ -0,0 +1,33 @@
+package com.example.datavalidation.engine.rule;
+
+import com.example.datavalidation.engine.ValidationError;
+
+/**
+ * Fails when the text of a present value does not fully match the configured regular expression.
+ */
+public final class PatternRule extends CompiledRule {
+    private final CompiledPattern pattern;
+
+    public PatternRule(String name, String field, String message, CompiledPattern pattern) {
+        super("pattern", name, field, message, pattern.getPattern().pattern());
+        this.pattern = pattern;
+    }
+
+    @Override
+    public ValidationError validate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        CharSequence text = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        return pattern.matches(text) ? null : getError();
+    }
+
+    @Override
+    public int getCost() {
+        return 10;
+    }
+
+    public CompiledPattern getPattern() {
+        return pattern;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.datavalidation.engine.rule;
+
+/**
+ * Fails when a present value is not a number greater than zero.
+ */
+public final class PositiveRule extends NumericRule {
+
+    public PositiveRule(String name, String field, String message, boolean required) {
+        super("positive", name, field, message, required, "number.format");
+    }
+
+    @Override
+    protected boolean accepts(Number number) {
+        return NumericValue.signum(number) > 0;
+    }
+}
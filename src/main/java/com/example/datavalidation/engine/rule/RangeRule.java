@@ -0,0 +1,31 @@
+package com.example.datavalidation.engine.rule;
+
+/**
+ * Fails when a present value is a number outside {@code [min, max]}, or is not a number at all.
+ */
+public final class RangeRule extends NumericRule {
+    private final NumericBound min;
+    private final NumericBound max;
+
+    public RangeRule(String name, String field, String message, Number min, Number max, boolean required) {
+        super("range", name, field, message, required, "number.format", min, max);
+        this.min = new NumericBound(min);
+        this.max = new NumericBound(max);
+        if (this.min.getValue().compareTo(this.max.getValue()) > 0) {
+            throw new IllegalArgumentException("range requires min <= max, got min=" + min + ", max=" + max);
+        }
+    }
+
+    @Override
+    protected boolean accepts(Number number) {
+        return isWithin(number, min, max);
+    }
+
+    public Number getMin() {
+        return min.getConfigured();
+    }
+
+    public Number getMax() {
+        return max.getConfigured();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.datavalidation.engine.rule;
+
+import com.example.datavalidation.engine.ValidationError;
+
+/**
+ * Fails when the text length of a present value is outside {@code [min, max]}.
+ */
+public final class SizeRule extends CompiledRule {
+    private final int min;
+    private final int max;
+
+    public SizeRule(String name, String field, String message, int min, int max) {
+        super("size", name, field, message, min, max);
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("size requires 0 <= min <= max, got min=" + min + ", max=" + max);
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public ValidationError validate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        int length = value instanceof CharSequence ? ((CharSequence) value).length() : value.toString().length();
+        return length < min || length > max ? getError() : null;
+    }
+
+    @Override
+    public int getCost() {
+        return 2;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+}
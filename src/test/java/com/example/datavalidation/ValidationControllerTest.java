@@ -1,6 +1,7 @@
 package com.example.datavalidation;
 
 import com.example.datavalidation.annotation.ValidatedBy;
+import com.example.datavalidation.annotation.ValidatedEntity;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import org.junit.jupiter.api.*;
@@ -79,7 +80,147 @@ class ValidationControllerTest {
                 .andExpect(jsonPath("$[*]").value(org.hamcrest.Matchers.hasItem("name: must not be blank")));
     }
 
+    @Test
+    void testValidateEndpointByAlias() throws Exception {
+        mockMvc.perform(post("/api/validation/validate/controller-test-entity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"age\":10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*]").value(hasItem("name: must not be blank")));
+    }
+
+    @Test
+    void testValidateResultEndpoint() throws Exception {
+        mockMvc.perform(post("/api/validation/validate/controller-test-entity/result")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"T\",\"age\":25}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(false))
+                .andExpect(jsonPath("$.errors[0].rule").value("name-length"))
+                .andExpect(jsonPath("$.errors[0].field").value("name"))
+                .andExpect(jsonPath("$.errors[0].code").value("size"))
+                .andExpect(jsonPath("$.errors[0].parameters").value(contains(2, 50)))
+                .andExpect(jsonPath("$.errors[0].message").value("Name must be between 2 and 50 characters"));
+    }
+
+    @Test
+    void testValidateEndpointFailFast() throws Exception {
+        mockMvc.perform(post("/api/validation/validate/controller-test-entity")
+                .param("failFast", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"\",\"age\":-1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]").value("name: must not be blank"));
+
+        mockMvc.perform(post("/api/validation/validate/controller-test-entity")
+                .param("maxErrors", "-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testValidateEndpointUnknownEntity() throws Exception {
+        mockMvc.perform(post("/api/validation/validate/java.lang.String")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Invalid entity class: java.lang.String"));
+    }
+
+    @Test
+    void testValidateBatchJsonArray() throws Exception {
+        String requestBody = "[{\"name\":\"Test User\",\"age\":25},{\"age\":10},\"oops\"]";
+        mockMvc.perform(post("/api/validation/validate/" + TestEntity.class.getName() + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"index\":0,\"valid\":true,\"errors\":[]}\n"
+                        + "{\"index\":1,\"valid\":false,\"errors\":[\"name: must not be blank\"]}\n"
+                        + "{\"index\":2,\"valid\":false,\"errors\":[\"Record must be a JSON object\"]}\n"));
+    }
+
+    @Test
+    void testValidateBatchNdjson() throws Exception {
+        String requestBody = "{\"name\":\"Test User\",\"age\":25}\n{\"name\":\"T\",\"age\":25}\n";
+        mockMvc.perform(post("/api/validation/validate/" + TestEntity.class.getName() + "/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"index\":0,\"valid\":true,\"errors\":[]}\n"
+                        + "{\"index\":1,\"valid\":false,\"errors\":[\"Name must be between 2 and 50 characters\"]}\n"));
+    }
+
+    @Test
+    void testValidateBatchMalformedJson() throws Exception {
+        String requestBody = "{\"name\":\"Test User\",\"age\":25}\n{\"name\":";
+        mockMvc.perform(post("/api/validation/validate/" + TestEntity.class.getName() + "/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("{\"index\":0,\"valid\":true,\"errors\":[]}\n{\"error\":\"Malformed JSON after record 1")));
+    }
+
+    @Test
+    void testValidateEndpointWithJsonSchema() throws Exception {
+        mockMvc.perform(post("/api/validation/validate/controller-schema-entity/result")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"T\",\"age\":200}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(false))
+                .andExpect(jsonPath("$.errors[*].code", everyItem(is("schema"))))
+                .andExpect(jsonPath("$.errors[*].rule", containsInAnyOrder("minLength", "maximum")))
+                .andExpect(jsonPath("$.errors[*].field", containsInAnyOrder("name", "age")));
+
+        mockMvc.perform(post("/api/validation/validate/controller-schema-entity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Test User\",\"age\":25}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testValidatePatchEndpoint() throws Exception {
+        String token = mockMvc.perform(post("/api/validation/validate/controller-test-entity/state")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"T\",\"age\":25}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors[*].rule", contains("name-length")))
+                .andExpect(header().exists("Validation-Token"))
+                .andReturn().getResponse().getHeader("Validation-Token");
+
+        mockMvc.perform(patch("/api/validation/validate/controller-test-entity")
+                .header("Validation-Token", token)
+                .contentType("application/merge-patch+json")
+                .content("{\"name\":\"Test User\",\"age\":-1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors[*].rule", contains("age-minimum")))
+                .andExpect(header().string("Validation-Token", not(token)));
+
+        mockMvc.perform(patch("/api/validation/validate/controller-test-entity")
+                .header("Validation-Token", "unknown")
+                .contentType("application/merge-patch+json")
+                .content("{\"age\":1}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/api/validation/validate/controller-schema-entity")
+                .header("Validation-Token", token)
+                .contentType("application/merge-patch+json")
+                .content("{\"age\":1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @ValidatedBy("validation-rules.json")
+    @ValidatedEntity("controller-schema-entity")
+    static class SchemaEntity {
+    }
+
     @ValidatedBy("test-validation.yml")
+    @ValidatedEntity("controller-test-entity")
     static class TestEntity {
         @NotBlank
         private String name;
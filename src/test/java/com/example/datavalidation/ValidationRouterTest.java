@@ -0,0 +1,194 @@
+package com.example.datavalidation;
+
+import com.example.datavalidation.config.ValidationAutoConfiguration;
+import com.example.datavalidation.config.ValidationProperties;
+import com.example.datavalidation.engine.RuleSetSource;
+import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationMetrics;
+import com.example.datavalidation.engine.ValidationRuleLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.annotation.ImportCandidates;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+class ValidationRouterTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void testRoutesReplaceControllers() {
+        assertInstanceOf(ReactiveWebServerApplicationContext.class, context, "A reactive server should be running");
+        assertTrue(context.getBeansOfType(ValidationController.class).isEmpty());
+        assertTrue(context.getBeansOfType(ValidationRuleController.class).isEmpty());
+    }
+
+    @Test
+    void testRoutesAreAutoConfiguredWithoutComponentScan() {
+        assertTrue(ImportCandidates.load(AutoConfiguration.class, getClass().getClassLoader()).getCandidates()
+                .contains(ValidationRouter.class.getName()));
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                        ValidationAutoConfiguration.class, ValidationRouter.class))
+                .withPropertyValues("validation.rules.location=classpath:validation")
+                .run(routed -> {
+                    assertNull(routed.getStartupFailure());
+                    assertEquals(1, routed.getBeansOfType(RouterFunction.class).size());
+                    assertEquals(1, routed.getBeansOfType(ValidationRuleRepository.class).size());
+                });
+    }
+
+    @Test
+    void testApplicationRuleRepositoryReplacesDefault() {
+        ValidationRuleRepository own = new ValidationRuleRepository(new ValidationProperties());
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                        ValidationAutoConfiguration.class, ValidationRouter.class))
+                .withBean("ownRuleRepository", ValidationRuleRepository.class, () -> own)
+                .run(routed -> {
+                    assertNull(routed.getStartupFailure());
+                    assertSame(own, routed.getBean(ValidationRuleRepository.class));
+                });
+    }
+
+    @Test
+    void testColdRuleSetIsLoadedOffTheEventLoop() {
+        List<String> loadThreads = new CopyOnWriteArrayList<>();
+        ValidationMetrics metrics = new ValidationMetrics() {
+            @Override
+            public void recordRuleSetLoad(String ruleFile, long nanos, RuleSetSource source) {
+                loadThreads.add(Thread.currentThread().getName());
+            }
+        };
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                        ValidationAutoConfiguration.class, ValidationRouter.class))
+                .withPropertyValues("validation.entities.base-packages=com.example.datavalidation")
+                .withBean(ValidationMetrics.class, () -> metrics)
+                .run(routed -> {
+                    routed.getBean(ValidationRuleLoader.class).invalidateAll();
+                    loadThreads.clear();
+                    WebTestClient client = WebTestClient.bindToRouterFunction(routed.getBean(RouterFunction.class))
+                            .build();
+                    for (int i = 0; i < 2; i++) {
+                        client.post().uri("/api/validation/validate/controller-test-entity")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue("{\"age\":10}")
+                                .exchange()
+                                .expectStatus().isOk();
+                    }
+                    assertEquals(1, loadThreads.size(), "The second request should find the rule set cached");
+                    assertTrue(loadThreads.get(0).startsWith("boundedElastic-"), loadThreads.get(0));
+                    assertTrue(routed.getBean(ValidationEngine.class)
+                            .isRuleSetCached(ValidationControllerTest.TestEntity.class));
+                });
+    }
+
+    @Test
+    void testValidateEndpoints() {
+        webTestClient.post().uri("/api/validation/validate/controller-test-entity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"age\":10}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[*]").value(hasItem("name: must not be blank"));
+
+        webTestClient.post().uri("/api/validation/validate/controller-test-entity/result?maxErrors=1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"\",\"age\":-1}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.valid").isEqualTo(false)
+                .jsonPath("$.errors.length()").isEqualTo(1);
+
+        webTestClient.post().uri("/api/validation/validate/controller-test-entity?maxErrors=-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testValidateBatchStreamsResultsInOrder() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            body.append(i % 2 == 0 ? "{\"name\":\"Test User\",\"age\":25}\n" : "{\"age\":25}\n");
+        }
+        body.append("{\"name\":");
+
+        String response = webTestClient.post().uri("/api/validation/validate/controller-test-entity/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body.toString())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        String[] lines = response.split("\n");
+        assertEquals(51, lines.length);
+        assertEquals("{\"index\":0,\"valid\":true,\"errors\":[]}", lines[0]);
+        assertTrue(lines[1].startsWith("{\"index\":1,\"valid\":false,"));
+        assertTrue(lines[49].startsWith("{\"index\":49,"));
+        assertTrue(lines[50].startsWith("{\"error\":\"Malformed JSON after record 50"), lines[50]);
+    }
+
+    @Test
+    void testValidatePatchEndpoint() {
+        String token = webTestClient.post().uri("/api/validation/validate/controller-test-entity/state")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"T\",\"age\":25}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.errors[*].rule").value(contains("name-length"))
+                .returnResult().getResponseHeaders().getFirst("Validation-Token");
+        assertNotNull(token);
+
+        webTestClient.patch().uri("/api/validation/validate/controller-test-entity")
+                .header("Validation-Token", token)
+                .contentType(MediaType.parseMediaType("application/merge-patch+json"))
+                .bodyValue("{\"name\":\"Test User\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("Validation-Token")
+                .expectBody().jsonPath("$.valid").isEqualTo(true);
+
+        webTestClient.patch().uri("/api/validation/validate/controller-test-entity")
+                .header("Validation-Token", "unknown")
+                .contentType(MediaType.parseMediaType("application/merge-patch+json"))
+                .bodyValue("{\"age\":1}")
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void testRuleEndpoints() {
+        webTestClient.get().uri("/rules")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$").value(hasItem("test-validation.yml"));
+
+        webTestClient.get().uri("/rules/missing-rule.yml")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
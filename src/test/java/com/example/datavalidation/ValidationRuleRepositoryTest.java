@@ -1,5 +1,6 @@
 package com.example.datavalidation;
 
+import com.example.datavalidation.config.ValidationProperties;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -15,7 +16,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
 @TestPropertySource(properties = {
     "validation.rules.location=file:${java.io.tmpdir}/validation-test",
-    "validation.rules.file=validation-rules.json"
+    "validation.rules.file=validation-rules.json",
+    "validation.rules.change-log-max-entries=4"
 })
 class ValidationRuleRepositoryTest {
     @Autowired
@@ -42,6 +44,8 @@ class ValidationRuleRepositoryTest {
                 StandardCopyOption.REPLACE_EXISTING
             );
         }
+        // The repository read the directory at startup, before the files were copied
+        repository.reload();
     }
 
     @AfterEach
@@ -91,4 +95,64 @@ class ValidationRuleRepositoryTest {
             repository.loadRule(ruleName);
         }, "Should throw exception when loading deleted rule");
     }
+
+    @Test
+    void testSnapshotsAreVersioned() throws IOException {
+        RuleSnapshot before = repository.getSnapshot();
+        repository.saveRule("test-rule.json", "{}");
+        RuleSnapshot after = repository.getSnapshot();
+
+        assertTrue(after.getVersion() > before.getVersion(), "Every write should increase the version");
+        assertEquals(after.getVersion(), after.getRule("test-rule.json").getVersion());
+        assertNotEquals("{}", before.getRule("test-rule.json").getContent(), "Snapshots should be immutable");
+        assertEquals("{}", after.getRule("test-rule.json").getContent());
+    }
+
+    @Test
+    void testWritesArePersistedAndLogged() throws IOException {
+        Path tempDir = Path.of(System.getProperty("java.io.tmpdir"), "validation-test");
+        repository.saveRule("saved-rule.json", "{\"rules\":[]}");
+        repository.deleteRule("list-rule.json");
+        long version = repository.getSnapshot().getVersion();
+
+        assertEquals("{\"rules\":[]}", Files.readString(tempDir.resolve("saved-rule.json")));
+        assertFalse(Files.exists(tempDir.resolve("list-rule.json")));
+        assertFalse(Files.exists(tempDir.resolve(".rule-write-saved-rule.json.tmp")));
+        List<String> log = Files.readAllLines(tempDir.resolve(ValidationRuleRepository.CHANGE_LOG));
+        assertTrue(log.get(log.size() - 1).startsWith(version + "\tdelete\t"));
+
+        repository.reload();
+        assertTrue(repository.getSnapshot().getVersion() > version, "Versions should never be reused");
+        assertTrue(repository.listRuleNames().contains("saved-rule.json"));
+        assertFalse(repository.listRuleNames().contains("list-rule.json"));
+    }
+
+    @Test
+    void testReloadOnlyRemovesItsOwnTempFiles() throws IOException {
+        Path tempDir = Path.of(System.getProperty("java.io.tmpdir"), "validation-test");
+        Files.writeString(tempDir.resolve(".rule-write-test-rule.json.tmp"), "{");
+        Files.writeString(tempDir.resolve("upload.tmp"), "not ours");
+
+        repository.reload();
+        assertFalse(Files.exists(tempDir.resolve(".rule-write-test-rule.json.tmp")));
+        assertTrue(Files.exists(tempDir.resolve("upload.tmp")), "Other temporary files should be left alone");
+    }
+
+    @Test
+    void testChangeLogIsRotated() throws IOException {
+        Path tempDir = Path.of(System.getProperty("java.io.tmpdir"), "validation-test");
+        for (int i = 0; i < 10; i++) {
+            repository.saveRule("test-rule.json", "{\"revision\":" + i + "}");
+        }
+        assertTrue(Files.readAllLines(tempDir.resolve(ValidationRuleRepository.CHANGE_LOG)).size() <= 4);
+        List<String> previous = Files.readAllLines(tempDir.resolve(ValidationRuleRepository.PREVIOUS_CHANGE_LOG));
+        assertEquals(4, previous.size());
+
+        // A restart that lost the current log still continues after the rotated one
+        Files.delete(tempDir.resolve(ValidationRuleRepository.CHANGE_LOG));
+        ValidationProperties properties = new ValidationProperties();
+        properties.getRules().setLocation("file:" + tempDir);
+        long rotatedVersion = Long.parseLong(previous.get(previous.size() - 1).split("\t")[0]);
+        assertTrue(new ValidationRuleRepository(properties).getSnapshot().getVersion() > rotatedVersion);
+    }
 }
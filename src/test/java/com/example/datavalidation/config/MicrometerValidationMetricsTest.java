@@ -0,0 +1,139 @@
+package com.example.datavalidation.config;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+import com.example.datavalidation.engine.RuleIndex;
+import com.example.datavalidation.engine.ValidationEngine;
+import com.example.datavalidation.engine.ValidationResultCache;
+import com.example.datavalidation.engine.ValidationRuleLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicrometerValidationMetricsTest {
+    private SimpleMeterRegistry registry;
+    private ValidationRuleLoader ruleLoader;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    private ValidationEngine engine(boolean ruleTiming) {
+        MicrometerValidationMetrics metrics = new MicrometerValidationMetrics(registry, ruleTiming);
+        ruleLoader = ValidationRuleLoader.builder("classpath:validation/")
+                .maxCachedRuleSets(16)
+                .ruleIndex(RuleIndex.load(getClass().getClassLoader()))
+                .metrics(metrics)
+                .build();
+        return ValidationEngine.builder(ruleLoader).metrics(metrics).build();
+    }
+
+    @Test
+    void testRecordsValidationsPerEntityAndOutcome() {
+        ValidationEngine engine = engine(false);
+        engine.check(record("Jane", 30), TestEntity.class);
+        engine.check(record("Jane", 31), TestEntity.class);
+        engine.check(record("", -1), TestEntity.class);
+
+        String entity = TestEntity.class.getName();
+        assertEquals(2, registry.get("validation.requests").tags("entity", entity, "outcome", "valid").timer()
+                .count());
+        assertEquals(1, registry.get("validation.requests").tags("entity", entity, "outcome", "invalid").timer()
+                .count());
+        assertEquals(1, registry.get("validation.rule.failures").tags("rule", "age-minimum", "type", "min")
+                .counter().count());
+        assertEquals(1, registry.get("validation.rule.failures").tags("rule", "name-required", "field", "name")
+                .counter().count());
+        assertNull(registry.find("validation.rule.duration").timer(), "rules are not timed by default");
+    }
+
+    @Test
+    void testRuleMetersAreTaggedWithTheRuleFileAndSurviveReloads() throws IOException {
+        ValidationEngine engine = engine(false);
+        engine.check(record("", 30), TestEntity.class);
+        ruleLoader.reload("test-validation.yml");
+        engine.check(record("", 30), TestEntity.class);
+
+        assertEquals(2, registry.get("validation.rule.failures")
+                .tags("rule", "name-required", "file", "test-validation.yml").counter().count());
+        assertEquals(1, registry.find("validation.rule.failures").tag("rule", "name-required").counters().size());
+    }
+
+    @Test
+    void testRuleTiming() {
+        engine(true).check(record("Jane", 30), TestEntity.class);
+
+        assertEquals(1, registry.get("validation.rule.duration").tags("rule", "name-length", "type", "size")
+                .timer().count());
+    }
+
+    @Test
+    void testPublishesRuleSetLoadsAndCacheStatistics() {
+        ValidationEngine engine = engine(false);
+        engine.check(record("Jane", 30), TestEntity.class);
+        engine.check(record("Jane", 30), TestEntity.class);
+
+        assertEquals(1, registry.get("validation.ruleset.load")
+                .tags("file", "test-validation.yml", "source", "index").timer().count());
+        assertEquals(1, registry.get("validation.ruleset.cache.misses").functionCounter().count());
+        assertEquals(1, registry.get("validation.ruleset.cache.hits").functionCounter().count());
+        assertEquals(1, registry.get("validation.ruleset.cache.size").gauge().value());
+        assertEquals(0.5, registry.get("validation.ruleset.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void testTagsRuleSetLoadsWithTheirSource() throws IOException {
+        engine(false);
+        ruleLoader.loadRuleSet("person.json");
+        ValidationRuleLoader.builder("classpath:validation/")
+                .ruleIndex(RuleIndex.load(ClassLoader.getPlatformClassLoader()))
+                .metrics(new MicrometerValidationMetrics(registry, false))
+                .build()
+                .loadRuleSet("test-validation.yml");
+
+        assertEquals(1, registry.get("validation.ruleset.load")
+                .tags("file", "person.json", "source", "schema").timer().count());
+        assertEquals(1, registry.get("validation.ruleset.load")
+                .tags("file", "test-validation.yml", "source", "yaml").timer().count());
+    }
+
+    @Test
+    void testPublishesResultCacheStatistics() {
+        MicrometerValidationMetrics metrics = new MicrometerValidationMetrics(registry, false);
+        ruleLoader = new ValidationRuleLoader("classpath:validation/");
+        ValidationEngine engine = ValidationEngine.builder(ruleLoader)
+                .metrics(metrics)
+                .resultCache(new ValidationResultCache())
+                .build();
+        engine.check(record("Jane", 30), TestEntity.class);
+        engine.check(record("Jane", 30), TestEntity.class);
+        engine.check(record("", 30), TestEntity.class);
+        engine.check(record("", 30), TestEntity.class);
+
+        assertEquals(2, registry.get("validation.result.cache.hits").functionCounter().count());
+        assertEquals(2, registry.get("validation.result.cache.misses").functionCounter().count());
+        assertEquals(2, registry.get("validation.result.cache.size").gauge().value());
+        assertEquals(1, registry.get("validation.rule.failures").tags("rule", "name-required").counter().count(),
+                "Cached results run no rules");
+        assertEquals(4, registry.get("validation.requests").tags("entity", TestEntity.class.getName()).timers()
+                .stream().mapToLong(timer -> timer.count()).sum(), "Cached results are still counted");
+    }
+
+    private static Map<String, Object> record(String name, int age) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", name);
+        data.put("age", age);
+        return data;
+    }
+
+    @ValidatedBy("test-validation.yml")
+    private static class TestEntity {
+    }
+}
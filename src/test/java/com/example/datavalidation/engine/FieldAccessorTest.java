@@ -0,0 +1,73 @@
+package com.example.datavalidation.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldAccessorTest {
+    @Test
+    void testReadsPrivateAndPrimitiveFields() {
+        Person person = new Person("Ada", 36);
+
+        assertEquals("Ada", FieldAccessor.of(Person.class, "name").get(person));
+        assertEquals(36, FieldAccessor.of(Person.class, "age").get(person));
+    }
+
+    @Test
+    void testReadsInheritedFields() {
+        Employee employee = new Employee("Grace", 45, "E-1");
+
+        assertEquals("Grace", FieldAccessor.of(Employee.class, "name").get(employee));
+        assertEquals("E-1", FieldAccessor.of(Employee.class, "employeeId").get(employee));
+    }
+
+    @Test
+    void testReadsRecordComponents() {
+        Point point = new Point(3, 4);
+
+        assertEquals(3, FieldAccessor.of(Point.class, "x").get(point));
+        assertEquals("4!", FieldAccessor.of(Labelled.class, "label").get(new Labelled("4")));
+    }
+
+    @Test
+    void testMissingPropertyReadsAsNull() {
+        FieldAccessor accessor = FieldAccessor.of(Person.class, "nickname");
+
+        assertFalse(accessor.exists());
+        assertNull(accessor.get(new Person("Ada", 36)));
+    }
+
+    @Test
+    void testAccessorsAreCached() {
+        assertSame(FieldAccessor.of(Person.class, "name"), FieldAccessor.of(Person.class, "name"));
+    }
+
+    static class Person {
+        private final String name;
+        private final int age;
+
+        Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+    }
+
+    static class Employee extends Person {
+        private final String employeeId;
+
+        Employee(String name, int age, String employeeId) {
+            super(name, age);
+            this.employeeId = employeeId;
+        }
+    }
+
+    record Point(int x, int y) {
+    }
+
+    record Labelled(String label) {
+        @Override
+        public String label() {
+            return label + "!";
+        }
+    }
+}
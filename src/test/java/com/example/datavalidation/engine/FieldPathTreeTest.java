@@ -0,0 +1,67 @@
+package com.example.datavalidation.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldPathTreeTest {
+    private final FieldPathTree tree = FieldPathTree.of(
+            List.of("username", "address.state", "address.zipCode", "address", "address.geo.lat"));
+
+    @Test
+    void testSharedPrefixesAreMerged() {
+        // root, username, address, address.state, address.zipCode, address.geo, address.geo.lat
+        assertEquals(7, tree.size());
+        int address = tree.indexOf("address");
+        assertEquals(address, tree.parent(tree.indexOf("address.state")));
+        assertEquals(address, tree.parent(tree.indexOf("address.zipCode")));
+        assertEquals("zipCode", tree.segment(tree.indexOf("address.zipCode")));
+        assertEquals(-1, tree.indexOf("address.city"));
+    }
+
+    @Test
+    void testSubtreesAreContiguous() {
+        int address = tree.indexOf("address");
+        assertEquals(tree.size(), tree.subtreeEnd(address));
+        for (String path : List.of("address.state", "address.zipCode", "address.geo", "address.geo.lat")) {
+            int node = tree.indexOf(path);
+            assertTrue(node > address && node < tree.subtreeEnd(address), path);
+        }
+        int username = tree.indexOf("username");
+        assertEquals(username + 1, tree.subtreeEnd(username));
+    }
+
+    @Test
+    void testResolveMap() {
+        Object[] values = tree.resolveMap(Map.of(
+                "username", "ada",
+                "address", Map.of("state", "NY", "geo", "not-a-map")));
+
+        assertEquals("ada", values[tree.indexOf("username")]);
+        assertEquals("NY", values[tree.indexOf("address.state")]);
+        assertNull(values[tree.indexOf("address.zipCode")]);
+        assertNull(values[tree.indexOf("address.geo.lat")]);
+    }
+
+    @Test
+    void testResolveObject() {
+        Object[] values = tree.resolveObject(new User("ada", new Address("NY", null)));
+
+        assertEquals("ada", values[tree.indexOf("username")]);
+        assertEquals("NY", values[tree.indexOf("address.state")]);
+        assertNull(values[tree.indexOf("address.zipCode")]);
+        assertNull(values[tree.indexOf("address.geo.lat")]);
+
+        Object[] withoutAddress = tree.resolveObject(new User("ada", null));
+        assertNull(withoutAddress[tree.indexOf("address.state")]);
+    }
+
+    record User(String username, Address address) {
+    }
+
+    record Address(String state, String zipCode) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamResolverTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ValidationEngine validationEngine = new ValidationEngine(new ValidationRuleLoader("classpath:validation/"));
+
+    @Test
+    void testStreamingMatchesMapValidation() throws IOException {
+        List<String> documents = List.of(
+                "{}",
+                "{\"address\":null,\"age\":-1}",
+                "{\"address\":{\"city\":\"NYC\",\"state\":\"NY\",\"zipCode\":\"10001\"},\"age\":30,\"tags\":[],\"meta\":{}}",
+                "{\"address\":{\"city\":\" \",\"state\":\"XX\",\"zipCode\":\"1234\"},\"age\":\"abc\",\"tags\":[1,2,3]}",
+                "{\"address\":\"1 Main St\",\"age\":1.5,\"meta\":[1]}",
+                "{\"address\":{},\"age\":12345678901,\"tags\":\"x\"}",
+                "{\"big\":{\"deep\":[{\"a\":1},{\"b\":[2,3]}]},\"address\":{\"extra\":{\"x\":1},\"city\":\"LA\"},\"age\":0}",
+                "{\"address\":{\"city\":\"LA\",\"state\":\"CA\"},\"address\":{\"zipCode\":\"9\"},\"age\":5}",
+                "{\"tags\":[0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20],\"meta\":null,\"age\":true}");
+
+        for (String json : documents) {
+            Map<String, Object> data = objectMapper.readValue(json, new TypeReference<>() {});
+            List<String> expected = validationEngine.validate(data, NestedEntity.class);
+            try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+                assertEquals(expected, validationEngine.validate(parser, NestedEntity.class), json);
+            }
+            assertEquals(expected, validationEngine.check(objectMapper.readTree(json), NestedEntity.class)
+                    .getMessages(), json);
+        }
+    }
+
+    @Test
+    void testStreamOfRecords() throws IOException {
+        String ndjson = "{\"address\":{\"city\":\"NYC\"},\"age\":1,\"meta\":{}}\n[1,2]\n{\"age\":-1}\n";
+        try (JsonParser parser = objectMapper.getFactory().createParser(ndjson)) {
+            parser.nextToken();
+            assertTrue(validationEngine.validate(parser, NestedEntity.class).isEmpty());
+            parser.nextToken();
+            assertEquals(List.of("Record must be a JSON object"), validationEngine.validate(parser, NestedEntity.class));
+            parser.nextToken();
+            assertTrue(validationEngine.validate(parser, NestedEntity.class).contains("Age must be at least 0"));
+            assertNull(parser.nextToken());
+        }
+    }
+
+    @ValidatedBy("nested-validation.yml")
+    private static class NestedEntity {
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.CompiledRule;
+import com.example.datavalidation.engine.rule.DecimalRule;
+import com.example.datavalidation.engine.rule.EnumRule;
+import com.example.datavalidation.engine.rule.IntegerRule;
+import com.example.datavalidation.engine.rule.MaxRule;
+import com.example.datavalidation.engine.rule.MinRule;
+import com.example.datavalidation.engine.rule.NotBlankRule;
+import com.example.datavalidation.engine.rule.PatternRule;
+import com.example.datavalidation.engine.rule.PositiveRule;
+import com.example.datavalidation.engine.rule.RangeRule;
+import com.example.datavalidation.engine.rule.SizeRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleCompilerTest {
+    private final RuleCompiler compiler = new RuleCompiler();
+
+    @Test
+    void testCompilesKnownRuleTypes() throws InvalidRuleException {
+        CompiledRuleSet ruleSet = compiler.compile("test.yml", List.of(
+                rule("notBlank", "name"),
+                with(rule("SIZE", "name"), "min", 2, "max", 50),
+                with(rule("min", "age"), "value", 0),
+                with(rule("pattern", "zip"), "pattern", "^\\d{5}$"),
+                with(rule("enum", "state"), "values", List.of("NY", "CA"))));
+
+        List<CompiledRule> rules = ruleSet.getRules();
+        assertEquals(5, rules.size());
+        assertInstanceOf(NotBlankRule.class, rules.get(0));
+        assertEquals(50, assertInstanceOf(SizeRule.class, rules.get(1)).getMax());
+        assertEquals(0, assertInstanceOf(MinRule.class, rules.get(2)).getMin());
+        assertInstanceOf(PatternRule.class, rules.get(3));
+        assertInstanceOf(EnumRule.class, rules.get(4));
+
+        assertNull(rules.get(3).check("12345"));
+        assertEquals("zip failed", rules.get(3).check("1234"));
+        assertEquals("state failed", rules.get(4).check("TX"));
+    }
+
+    @Test
+    void testIdenticalPatternsAreCompiledOnce() throws InvalidRuleException {
+        PatternCache patternCache = new PatternCache();
+        RuleCompiler sharingCompiler = new RuleCompiler(patternCache);
+        String regex = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d).+$";
+
+        PatternRule first = (PatternRule) sharingCompiler.compile("a.yml",
+                List.of(with(rule("pattern", "password"), "pattern", regex))).getRules().get(0);
+        PatternRule second = (PatternRule) sharingCompiler.compile("b.yml",
+                List.of(with(rule("pattern", "secret"), "pattern", regex))).getRules().get(0);
+
+        assertSame(first.getPattern(), second.getPattern());
+        assertEquals(1, patternCache.size());
+        assertEquals(1, patternCache.getHitCount());
+        assertTrue(first.getPattern().getCompileTimeNanos() > 0);
+        assertNull(first.check("Passw0rd"));
+        assertEquals("password failed", first.check("password"));
+    }
+
+    @Test
+    void testUnknownRuleTypeIsSkipped() throws InvalidRuleException {
+        CompiledRuleSet ruleSet = compiler.compile("test.yml", List.of(rule("regex", "zip"), rule("notNull", "zip")));
+        assertEquals(1, ruleSet.getRules().size());
+    }
+
+    @Test
+    void testCompilesNumericRules() throws InvalidRuleException {
+        List<CompiledRule> rules = compiler.compile("test.yml", List.of(
+                with(rule("max", "age"), "value", 150L),
+                with(rule("range", "score"), "min", 0, "max", 9.5),
+                with(rule("integer", "age"), "required", true, "min", 0, "max", 120),
+                with(rule("decimal", "price"), "scale", 2),
+                rule("positive", "quantity"))).getRules();
+
+        assertEquals(150L, assertInstanceOf(MaxRule.class, rules.get(0)).getMax());
+        assertEquals(9.5, assertInstanceOf(RangeRule.class, rules.get(1)).getMax());
+        IntegerRule integer = assertInstanceOf(IntegerRule.class, rules.get(2));
+        assertTrue(integer.isRequired());
+        assertTrue(integer.checksPresence());
+        assertEquals(2, assertInstanceOf(DecimalRule.class, rules.get(3)).getScale());
+        assertFalse(assertInstanceOf(PositiveRule.class, rules.get(4)).checksPresence());
+
+        assertEquals("required", integer.validate(null).getCode());
+        assertEquals("age failed", integer.check("121"));
+        assertNull(integer.check(120));
+    }
+
+    @Test
+    void testMalformedRulesAreRejected() {
+        assertInvalid(rule("size", "name"), "'min' must be a number");
+        assertInvalid(with(rule("size", "name"), "min", "2", "max", 5), "'min' must be a number");
+        assertInvalid(with(rule("size", "name"), "min", 5, "max", 2), "min <= max");
+        assertInvalid(rule("min", "age"), "'value' must be a number");
+        assertInvalid(with(rule("max", "age"), "value", Double.NaN), "'value' must be a number");
+        assertInvalid(with(rule("range", "age"), "min", 10, "max", 1), "min <= max");
+        assertInvalid(with(rule("integer", "age"), "required", "yes"), "'required' must be true or false");
+        assertInvalid(with(rule("decimal", "price"), "scale", -1), "'scale' must be a non-negative integer");
+        assertInvalid(with(rule("pattern", "zip"), "pattern", "[0-9"), "invalid pattern");
+        assertInvalid(with(rule("enum", "state"), "values", "NY"), "'values' must be a list");
+        assertInvalid(rule("notNull", null), "'field' is required");
+        assertInvalid(rule(null, "name"), "'type' is required");
+    }
+
+    private void assertInvalid(Map<String, Object> rule, String expected) {
+        InvalidRuleException e = assertThrows(InvalidRuleException.class,
+                () -> compiler.compile("test.yml", List.of(rule)));
+        assertTrue(e.getMessage().contains(expected), e.getMessage());
+        assertTrue(e.getMessage().contains("test.yml"), e.getMessage());
+    }
+
+    private static Map<String, Object> rule(String type, String field) {
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("name", field + "-" + type);
+        rule.put("type", type);
+        rule.put("field", field);
+        rule.put("message", field + " failed");
+        return rule;
+    }
+
+    private static Map<String, Object> with(Map<String, Object> rule, Object... keyValues) {
+        for (int i = 0; i < keyValues.length; i += 2) {
+            rule.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return rule;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.datavalidation.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleIndexTest {
+    private static final String RULES = "rules:\n"
+            + "  - name: name-required\n"
+            + "    type: notBlank\n"
+            + "    field: name\n"
+            + "    message: \"name: must not be blank\"\n"
+            + "  - name: age-min\n"
+            + "    type: min\n"
+            + "    field: age\n"
+            + "    value: 18\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCompiledIndexRoundTrips() throws IOException {
+        Files.createDirectories(tempDir.resolve("orders"));
+        Files.writeString(tempDir.resolve("a.yml"), RULES);
+        Files.writeString(tempDir.resolve("orders/b.yaml"), RULES);
+        Files.writeString(tempDir.resolve("README.txt"), "not a rule file");
+
+        RuleIndex index = roundTrip(RuleIndexCompiler.compile(tempDir));
+
+        assertEquals(2, index.size());
+        long checksum = ValidationRuleLoader.checksum(Files.readAllBytes(tempDir.resolve("a.yml")));
+        assertEquals(ValidationRuleLoader.parse("a.yml", RULES.getBytes()), index.get("a.yml", checksum));
+        assertNotNull(index.get("orders/b.yaml", checksum));
+        assertNull(index.get("a.yml", checksum + 1), "An entry must not be used for different content");
+    }
+
+    @Test
+    void testMalformedRuleFailsCompilation() throws IOException {
+        Files.writeString(tempDir.resolve("bad.yml"), "rules:\n  - type: size\n    field: name\n    min: x\n");
+
+        assertThrows(InvalidRuleException.class, () -> RuleIndexCompiler.compile(tempDir));
+    }
+
+    @Test
+    void testLoaderUsesIndexOnlyForMatchingContent() throws IOException {
+        Files.writeString(tempDir.resolve("a.yml"), RULES);
+        long checksum = ValidationRuleLoader.checksum(Files.readAllBytes(tempDir.resolve("a.yml")));
+        // Deliberately differs from the YAML, to tell which one the loader used
+        List<Map<String, Object>> indexed = List.of(Map.of("type", "notNull", "field", "id"));
+        RuleIndex index = RuleIndex.builder().add("a.yml", checksum, indexed).build();
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/")
+                .refreshInterval(Duration.ZERO)
+                .ruleIndex(index)
+                .build();
+
+        assertEquals(indexed, loader.loadRules("a.yml"));
+
+        Files.writeString(tempDir.resolve("a.yml"), RULES + "  - type: notNull\n    field: id\n");
+        assertEquals(3, loader.loadRules("a.yml").size(), "Edited file should be parsed from YAML");
+    }
+
+    @Test
+    void testBuildPackagesIndexOfTestRules() throws IOException {
+        RuleIndex index = RuleIndex.load(getClass().getClassLoader());
+        assertTrue(index.getRuleFiles().contains("test-validation.yml"),
+                "The compile-rule-index build step should index src/test/resources/validation");
+
+        byte[] content;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("validation/test-validation.yml")) {
+            content = in.readAllBytes();
+        }
+        List<Map<String, Object>> indexed = index.get("test-validation.yml", ValidationRuleLoader.checksum(content));
+        assertEquals(ValidationRuleLoader.parse("test-validation.yml", content), indexed);
+
+        List<RuleSetSource> sources = new ArrayList<>();
+        ValidationMetrics metrics = new ValidationMetrics() {
+            @Override
+            public void recordRuleSetLoad(String ruleFile, long nanos, RuleSetSource source) {
+                sources.add(source);
+            }
+        };
+        ValidationRuleLoader.builder("classpath:validation/").ruleIndex(index).metrics(metrics).build()
+                .loadRuleSet("test-validation.yml");
+        assertEquals(List.of(RuleSetSource.INDEX), sources);
+    }
+
+    @Test
+    void testCompilerSkipsMissingSourceDirectory() throws IOException {
+        Path indexFile = tempDir.resolve("rules.idx");
+
+        RuleIndexCompiler.main(new String[]{tempDir.resolve("missing").toString(), indexFile.toString()});
+
+        assertFalse(Files.exists(indexFile));
+    }
+
+    private static RuleIndex roundTrip(RuleIndex index) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        return RuleIndex.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.CompiledRule;
+import com.example.datavalidation.engine.rule.NotBlankRule;
+import com.example.datavalidation.engine.rule.NotNullRule;
+import com.example.datavalidation.engine.rule.SizeRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RulePlanTest {
+    @Test
+    void testPresenceRulesRunFirstAndErrorsKeepRuleOrder() {
+        CountingRule expensive = new CountingRule("name", 50);
+        CompiledRuleSet ruleSet = ruleSet(
+                expensive,
+                new SizeRule("name-size", "name", null, 2, 5),
+                new NotBlankRule("name-required", "name", null));
+
+        assertEquals(List.of("name-required", "name-size", "counting"),
+                ruleSet.getPlan().getRules().stream().map(CompiledRule::getName).toList());
+
+        ValidationResult result = evaluate(ruleSet, Map.of("name", "far too long"), ValidationOptions.DEFAULT);
+        assertEquals(List.of("counting", "name-size"), result.getErrors().stream().map(ValidationError::getRule).toList());
+    }
+
+    @Test
+    void testAbsentParentSkipsSubtreeWithoutPresenceRules() {
+        CountingRule state = new CountingRule("address.state", 1);
+        CountingRule lat = new CountingRule("address.geo.lat", 1);
+        CompiledRuleSet ruleSet = ruleSet(new NotNullRule("address-required", "address", null), state, lat);
+
+        ValidationResult result = evaluate(ruleSet, Map.of(), ValidationOptions.DEFAULT);
+
+        assertEquals(List.of("address-required"), result.getErrors().stream().map(ValidationError::getRule).toList());
+        assertEquals(0, state.calls + lat.calls, "Rules below an absent field should not run");
+    }
+
+    @Test
+    void testPresenceRulesBelowAbsentParentStillRun() {
+        CompiledRuleSet ruleSet = ruleSet(
+                new NotNullRule("address-required", "address", null),
+                new NotNullRule("zip-required", "address.zip", null));
+
+        assertEquals(2, evaluate(ruleSet, Map.of(), ValidationOptions.DEFAULT).getErrors().size());
+        assertEquals(1, evaluate(ruleSet, Map.of(), ValidationOptions.DEFAULT.withSkipFieldAfterFailure(true))
+                .getErrors().size(), "A failed presence rule should skip the field's subtree");
+    }
+
+    @Test
+    void testValidRecordSharesEmptyResult() {
+        CompiledRuleSet ruleSet = ruleSet(new NotBlankRule(null, "name", null), new SizeRule(null, "name", null, 2, 5),
+                new NotNullRule(null, "age", null));
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "Ada");
+        data.put("age", 36);
+
+        assertSame(ValidationResult.valid(), evaluate(ruleSet, data, ValidationOptions.DEFAULT));
+    }
+
+    private static CompiledRuleSet ruleSet(CompiledRule... rules) {
+        return new CompiledRuleSet("test.yml", List.of(rules), List.of());
+    }
+
+    private static ValidationResult evaluate(CompiledRuleSet ruleSet, Map<String, Object> data,
+                                             ValidationOptions options) {
+        return ruleSet.getPlan().evaluate(ruleSet.getFieldPaths().resolveMap(data), options);
+    }
+
+    /**
+     * Fails every present value and counts how often it was asked to.
+     */
+    private static final class CountingRule extends CompiledRule {
+        private final int cost;
+        int calls;
+
+        CountingRule(String field, int cost) {
+            super("counting", "counting", field, null);
+            this.cost = cost;
+        }
+
+        @Override
+        public ValidationError validate(Object value) {
+            calls++;
+            return value == null ? null : getError();
+        }
+
+        @Override
+        public int getCost() {
+            return cost;
+        }
+    }
+}
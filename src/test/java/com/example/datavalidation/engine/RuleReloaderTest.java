@@ -0,0 +1,98 @@
+package com.example.datavalidation.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleReloaderTest {
+    private static final String RULE = "  - name: name-required\n"
+            + "    type: notBlank\n"
+            + "    field: name\n";
+
+    @TempDir
+    Path tempDir;
+
+    private RuleReloader reloader;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (reloader != null) {
+            reloader.close();
+        }
+    }
+
+    @Test
+    void testExplicitReloadSwapsRuleSet() throws Exception {
+        Files.writeString(tempDir.resolve("a.yml"), "rules:\n" + RULE);
+        ValidationRuleLoader loader = neverRefreshingLoader();
+        reloader = new RuleReloader(loader, null);
+        CompiledRuleSet before = loader.loadRuleSet("a.yml");
+
+        Files.writeString(tempDir.resolve("a.yml"), "rules:\n" + RULE + RULE);
+        assertSame(before, loader.loadRuleSet("a.yml"), "Without a reload the cached rule set stays");
+        reloader.reload("a.yml").get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, before.getRules().size(), "A rule set already handed out must not change");
+        assertEquals(2, loader.loadRuleSet("a.yml").getRules().size());
+    }
+
+    @Test
+    void testFailedReloadKeepsPreviousRuleSet() throws Exception {
+        Files.writeString(tempDir.resolve("a.yml"), "rules:\n" + RULE);
+        ValidationRuleLoader loader = neverRefreshingLoader();
+        reloader = new RuleReloader(loader, null);
+        CompiledRuleSet before = loader.loadRuleSet("a.yml");
+
+        Files.writeString(tempDir.resolve("a.yml"), "rules:\n  - type: size\n    field: name\n    min: x\n");
+        reloader.reload("a.yml").get(5, TimeUnit.SECONDS);
+
+        assertSame(before, loader.loadRuleSet("a.yml"));
+    }
+
+    @Test
+    void testWatcherPicksUpChangedAndDeletedFiles() throws Exception {
+        Files.writeString(tempDir.resolve("a.yml"), "rules:\n" + RULE);
+        ValidationRuleLoader loader = neverRefreshingLoader();
+        reloader = new RuleReloader(loader, tempDir);
+        assertEquals(1, loader.loadRuleSet("a.yml").getRules().size());
+        reloader.start();
+
+        // The watch may only be registered after the first write, so keep writing until it is seen
+        awaitTrue(() -> {
+            try {
+                Files.writeString(tempDir.resolve("a.yml"), "rules:\n" + RULE + RULE);
+                return loader.loadRuleSet("a.yml").getRules().size() == 2;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Files.delete(tempDir.resolve("a.yml"));
+        awaitTrue(() -> !loader.getCachedRuleFiles().contains("a.yml"));
+    }
+
+    private ValidationRuleLoader neverRefreshingLoader() {
+        return ValidationRuleLoader.builder(tempDir.toString())
+                .maxCachedRuleSets(8)
+                .refreshInterval(Duration.ofSeconds(-1))
+                .ruleIndex(RuleIndex.EMPTY)
+                .build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the rule change");
+            Thread.sleep(50);
+        }
+    }
+}
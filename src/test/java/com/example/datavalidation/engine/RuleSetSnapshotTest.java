@@ -0,0 +1,184 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.EnumRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetSnapshotTest {
+    private static final String RULES = "rules:\n"
+            + "  - name: name-required\n"
+            + "    type: notBlank\n"
+            + "    field: name\n"
+            + "  - name: state\n"
+            + "    type: enum\n"
+            + "    field: state\n"
+            + "    values: [CA, NY, TX]\n"
+            + "    ignoreCase: true\n"
+            + "  - name: zip-format\n"
+            + "    type: pattern\n"
+            + "    field: zip\n"
+            + "    pattern: \"^\\\\d{5}$\"\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Path rules = rulesDirectory("a.yml", "b.yml");
+        RuleSetSnapshot snapshot = new RuleSetSnapshot(tempDir.resolve("snapshot"));
+        ValidationRuleLoader loader = loader(rules, ValidationMetrics.NOOP, snapshot);
+        loader.loadRuleSet("a.yml");
+        loader.loadRuleSet("b.yml");
+        assertTrue(snapshot.write());
+
+        RuleIndex read = new RuleSetSnapshot(tempDir.resolve("snapshot")).load();
+        long checksum = ValidationRuleLoader.checksum(Files.readAllBytes(rules.resolve("a.yml")));
+        assertEquals(Set.of("a.yml", "b.yml"), read.getRuleFiles());
+        assertEquals(loader.loadRules("a.yml"), read.get("a.yml", checksum));
+        assertNull(read.get("a.yml", checksum + 1), "Other content must not match");
+        EnumRule built = (EnumRule) loader.loadRuleSet("a.yml").getRules().get(1);
+        assertArrayEquals(built.getLookup().getTable(),
+                read.getTables("a.yml", checksum).getEnumLookup(1).getTable());
+    }
+
+    @Test
+    void testSkipsParsingOnRestart() throws IOException {
+        Path rules = rulesDirectory("a.yml");
+        RuleSetSnapshot snapshot = new RuleSetSnapshot(tempDir.resolve("snapshot"));
+        List<Map<String, Object>> parsed = loader(rules, ValidationMetrics.NOOP, snapshot).loadRules("a.yml");
+        assertTrue(snapshot.write());
+        assertFalse(snapshot.write(), "Nothing was parsed since the last write");
+
+        List<RuleSetSource> sources = new ArrayList<>();
+        ValidationMetrics metrics = new ValidationMetrics() {
+            @Override
+            public void recordRuleSetLoad(String ruleFile, long nanos, RuleSetSource source) {
+                sources.add(source);
+            }
+        };
+        ValidationRuleLoader restarted = loader(rules, metrics, new RuleSetSnapshot(tempDir.resolve("snapshot")));
+        assertEquals(parsed, restarted.loadRules("a.yml"));
+
+        Files.writeString(rules.resolve("a.yml"), RULES + "  - type: notNull\n    field: id\n");
+        assertEquals(4, restarted.loadRules("a.yml").size(), "Edited file should be parsed from YAML");
+        assertEquals(List.of(RuleSetSource.SNAPSHOT, RuleSetSource.YAML), sources);
+    }
+
+    @Test
+    void testUnchangedSetIsNotRewritten() throws IOException {
+        Path rules = rulesDirectory("a.yml", "b.yml");
+        RuleSetSnapshot snapshot = new RuleSetSnapshot(tempDir.resolve("snapshot"));
+        ValidationRuleLoader first = loader(rules, ValidationMetrics.NOOP, snapshot);
+        first.loadRuleSet("a.yml");
+        first.loadRuleSet("b.yml");
+        assertTrue(snapshot.write());
+        Path file = tempDir.resolve("snapshot").resolve(RuleSetSnapshot.FILE_NAME);
+        FileTime written = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(file, written);
+
+        RuleSetSnapshot restartedSnapshot = new RuleSetSnapshot(tempDir.resolve("snapshot"));
+        ValidationRuleLoader restarted = loader(rules, ValidationMetrics.NOOP, restartedSnapshot);
+        restarted.loadRuleSet("a.yml");
+        assertFalse(restartedSnapshot.write(), "Files loaded unchanged, or not loaded at all, are no change");
+        assertEquals(written, Files.getLastModifiedTime(file));
+
+        Files.writeString(rules.resolve("a.yml"), RULES + "  - type: notNull\n    field: id\n");
+        restarted.invalidateAll();
+        restarted.loadRuleSet("a.yml");
+        assertTrue(restartedSnapshot.write());
+        assertEquals(Set.of("a.yml", "b.yml"), new RuleSetSnapshot(tempDir.resolve("snapshot")).load().getRuleFiles());
+    }
+
+    @Test
+    void testWarmUpRestoresEnumTablesAndPatterns() throws IOException {
+        Path rules = rulesDirectory("a.yml");
+        RuleSetSnapshot snapshot = new RuleSetSnapshot(tempDir.resolve("snapshot"));
+        EnumRule built = (EnumRule) loader(rules, ValidationMetrics.NOOP, snapshot).loadRuleSet("a.yml")
+                .getRules().get(1);
+        assertTrue(snapshot.write());
+
+        ValidationRuleLoader restarted = loader(rules, ValidationMetrics.NOOP,
+                new RuleSetSnapshot(tempDir.resolve("snapshot")));
+        assertEquals(1, restarted.warmUp());
+        assertEquals(Set.of("a.yml"), restarted.getCachedRuleFiles());
+        assertEquals(1, restarted.getPatternCache().size(), "Warm-up should compile the patterns");
+
+        EnumRule restored = (EnumRule) restarted.loadRuleSet("a.yml").getRules().get(1);
+        assertArrayEquals(built.getLookup().getTable(), restored.getLookup().getTable());
+        assertTrue(restored.isIgnoreCase());
+        assertNull(restored.validate("ny"));
+        assertNotNull(restored.validate("WA"));
+    }
+
+    @Test
+    void testDropsDeletedFiles() throws IOException {
+        Path rules = rulesDirectory("a.yml", "b.yml", "c.yml");
+        RuleSetSnapshot snapshot = new RuleSetSnapshot(tempDir.resolve("snapshot"));
+        ValidationRuleLoader loader = loader(rules, ValidationMetrics.NOOP, snapshot);
+        loader.loadRules("a.yml");
+        loader.loadRules("b.yml");
+        loader.loadRules("c.yml");
+        assertTrue(snapshot.write());
+
+        Files.delete(rules.resolve("b.yml"));
+        loader.reload("b.yml");
+        assertTrue(snapshot.write());
+        assertEquals(Set.of("a.yml", "c.yml"), new RuleSetSnapshot(tempDir.resolve("snapshot")).load().getRuleFiles());
+
+        Files.delete(rules.resolve("c.yml"));
+        RuleSetSnapshot restartedSnapshot = new RuleSetSnapshot(tempDir.resolve("snapshot"));
+        assertEquals(1, loader(rules, ValidationMetrics.NOOP, restartedSnapshot).warmUp());
+        assertTrue(restartedSnapshot.write());
+        assertEquals(Set.of("a.yml"), new RuleSetSnapshot(tempDir.resolve("snapshot")).load().getRuleFiles());
+    }
+
+    @Test
+    void testCorruptSnapshotIsIgnored() throws IOException {
+        Path rules = rulesDirectory("a.yml");
+        RuleSetSnapshot snapshot = new RuleSetSnapshot(tempDir.resolve("snapshot"));
+        loader(rules, ValidationMetrics.NOOP, snapshot).loadRules("a.yml");
+        assertTrue(snapshot.write());
+        Path file = tempDir.resolve("snapshot").resolve(RuleSetSnapshot.FILE_NAME);
+        byte[] written = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(written, written.length / 2));
+
+        RuleSetSnapshot truncated = new RuleSetSnapshot(tempDir.resolve("snapshot"));
+        ValidationRuleLoader loader = loader(rules, ValidationMetrics.NOOP, truncated);
+        assertEquals(3, loader.loadRules("a.yml").size());
+        assertTrue(truncated.write(), "A corrupt snapshot should be replaced");
+        assertEquals(Set.of("a.yml"), new RuleSetSnapshot(tempDir.resolve("snapshot")).load().getRuleFiles());
+
+        Files.writeString(file, "not a snapshot");
+        assertEquals(0, new RuleSetSnapshot(tempDir.resolve("snapshot")).load().size());
+    }
+
+    private Path rulesDirectory(String... ruleFiles) throws IOException {
+        Path rules = Files.createDirectories(tempDir.resolve("rules"));
+        for (String ruleFile : ruleFiles) {
+            Files.writeString(rules.resolve(ruleFile), RULES);
+        }
+        return rules;
+    }
+
+    private static ValidationRuleLoader loader(Path rules, ValidationMetrics metrics, RuleSetSnapshot snapshot) {
+        return ValidationRuleLoader.builder(rules + "/")
+                .refreshInterval(Duration.ZERO)
+                .ruleIndex(RuleIndex.EMPTY)
+                .metrics(metrics)
+                .snapshot(snapshot)
+                .build();
+    }
+}
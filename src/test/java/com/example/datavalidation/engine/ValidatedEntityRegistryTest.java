@@ -0,0 +1,66 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+import com.example.datavalidation.annotation.ValidatedEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidatedEntityRegistryTest {
+    @Test
+    void testResolvesByClassNameAndAlias() {
+        ValidatedEntityRegistry registry = new ValidatedEntityRegistry(List.of(User.class, Order.class));
+
+        assertSame(User.class, registry.resolve(User.class.getName()));
+        assertSame(User.class, registry.resolve("user"));
+        assertSame(User.class, registry.resolve("User"));
+        assertSame(Order.class, registry.resolve("purchase-order"));
+        assertNull(registry.resolve("order"));
+        assertNull(registry.resolve("java.lang.String"));
+    }
+
+    @Test
+    void testAmbiguousDerivedAliasIsDropped() {
+        ValidatedEntityRegistry registry = new ValidatedEntityRegistry(List.of(User.class, Other.User.class));
+
+        assertNull(registry.resolve("user"));
+        assertSame(Other.User.class, registry.resolve(Other.User.class.getName()));
+    }
+
+    @Test
+    void testConflictingExplicitAliasesAreRejected() {
+        // Local, so that classpath scanning never picks it up alongside Order
+        @ValidatedEntity("purchase-order")
+        class DuplicateOrder {
+        }
+
+        assertThrows(IllegalStateException.class,
+                () -> new ValidatedEntityRegistry(List.of(Order.class, DuplicateOrder.class)));
+    }
+
+    @Test
+    void testScanFindsAnnotatedClasses() {
+        ValidatedEntityRegistry registry = ValidatedEntityRegistry.scan(getClass().getClassLoader(),
+                List.of(getClass().getPackageName()));
+
+        assertSame(Order.class, registry.resolve("purchase-order"));
+        assertTrue(registry.getEntityClasses().contains(User.class));
+    }
+
+    @ValidatedBy("test-validation.yml")
+    static class User {
+        private String name;
+    }
+
+    @ValidatedEntity("purchase-order")
+    static class Order {
+    }
+
+    static class Other {
+        @ValidatedBy("test-validation.yml")
+        static class User {
+        }
+    }
+}
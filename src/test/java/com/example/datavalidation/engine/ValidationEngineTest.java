@@ -1,6 +1,7 @@
 package com.example.datavalidation.engine;
 
 import com.example.datavalidation.annotation.ValidatedBy;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -12,9 +13,13 @@ import org.springframework.util.FileCopyUtils;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -63,6 +68,169 @@ class ValidationEngineTest {
         assertTrue(errors.contains("age: must be greater than or equal to 0"), "Should have age minimum error");
     }
 
+    @Test
+    void testValidateObjectReadsInheritedFields() {
+        TestSubEntity entity = new TestSubEntity();
+        entity.setName("");
+        entity.setAge(-1);
+
+        List<String> errors = validationEngine.validate(entity);
+        assertEquals(3, errors.size(), "Should have three validation errors");
+        assertTrue(errors.contains("name: must not be blank"), "Should have name blank error");
+        assertTrue(errors.contains("age: must be greater than or equal to 0"), "Should have age minimum error");
+
+        entity.setName("Test User");
+        entity.setAge(25);
+        assertTrue(validationEngine.validate(entity).isEmpty(), "No validation errors should be present");
+    }
+
+    @Test
+    void testValidateAllKeepsInputOrder() {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("name", i % 3 == 0 ? "" : "User " + i);
+            data.put("age", i % 5 == 0 ? -1 : i);
+            records.add(data);
+        }
+        records.add(null);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<List<String>> results = validationEngine.validateAll(records, TestEntity.class, pool);
+            assertEquals(records.size(), results.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(validationEngine.validate(records.get(i), TestEntity.class), results.get(i), "record " + i);
+            }
+            assertEquals(List.of("Cannot validate null data"), results.get(1000));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testValidateStream() {
+        Map<String, Object> valid = new HashMap<>();
+        valid.put("name", "Test User");
+        valid.put("age", 25);
+        Map<String, Object> invalid = new HashMap<>();
+        invalid.put("name", "Test User");
+        invalid.put("age", -1);
+
+        List<List<String>> results = validationEngine.validateStream(Stream.of(valid, invalid, valid).parallel(),
+                TestEntity.class).collect(Collectors.toList());
+
+        assertEquals(List.of(List.of(), List.of("age: must be greater than or equal to 0"), List.of()), results);
+    }
+
+    @Test
+    void testCheckReturnsStructuredErrors() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "Test User");
+        data.put("age", "twelve");
+
+        ValidationResult result = validationEngine.check(data, TestEntity.class);
+        assertFalse(result.isValid());
+        assertEquals(1, result.getErrors().size());
+        ValidationError error = result.getErrors().get(0);
+        assertEquals("age-minimum", error.getRule());
+        assertEquals("age", error.getField());
+        assertEquals("min.format", error.getCode());
+        assertEquals(List.of(0), error.getParameters());
+        assertEquals("Invalid number format for field: age", error.getMessage());
+
+        data.put("age", 25);
+        assertSame(ValidationResult.valid(), validationEngine.check(data, TestEntity.class),
+                "Valid records should share the empty result");
+    }
+
+    @Test
+    void testOptionsLimitEvaluation() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "");
+        data.put("age", -1);
+
+        assertEquals(List.of("name: must not be blank"),
+                validationEngine.check(data, TestEntity.class, ValidationOptions.failFast()).getMessages());
+        assertEquals(2, validationEngine.check(data, TestEntity.class,
+                ValidationOptions.DEFAULT.withMaxErrors(2)).getErrors().size());
+        assertEquals(List.of("name: must not be blank", "age: must be greater than or equal to 0"),
+                validationEngine.check(data, TestEntity.class,
+                        ValidationOptions.DEFAULT.withSkipFieldAfterFailure(true)).getMessages(),
+                "The size rule on the already failed name field should be skipped");
+    }
+
+    @Test
+    void testEntityOptionsApplyWithoutExplicitOptions() {
+        ValidationEngine failFastEngine = ValidationEngine.builder(ruleLoader)
+                .entityOptions(Map.of(TestEntity.class, ValidationOptions.failFast()))
+                .build();
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "");
+        data.put("age", -1);
+
+        assertEquals(1, failFastEngine.validate(data, TestEntity.class).size());
+        assertEquals(3, failFastEngine.check(data, TestEntity.class, ValidationOptions.DEFAULT).getErrors().size());
+        assertEquals(ValidationOptions.DEFAULT, failFastEngine.getOptions(TestSubEntity.class));
+    }
+
+    @Test
+    void testJsonSchemaRuleFile() throws IOException {
+        ValidationEngine schemaEngine = new ValidationEngine(new ValidationRuleLoader("classpath:validation/"));
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "A");
+        data.put("age", 200);
+
+        ValidationResult result = schemaEngine.check(data, SchemaEntity.class);
+        assertFalse(result.isValid());
+        assertEquals(2, result.getErrors().size());
+        for (ValidationError error : result.getErrors()) {
+            assertEquals("schema", error.getCode());
+        }
+        assertEquals(List.of("age", "name"), result.getErrors().stream()
+                .map(ValidationError::getField).sorted().collect(Collectors.toList()));
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(result.getErrors().size(),
+                schemaEngine.check(mapper.<JsonNode>valueToTree(data), SchemaEntity.class).getErrors().size());
+        assertEquals(1, schemaEngine.check(data, SchemaEntity.class, ValidationOptions.failFast()).getErrors().size());
+
+        SchemaEntity entity = new SchemaEntity();
+        entity.name = "Test User";
+        entity.age = 25;
+        assertTrue(schemaEngine.check(entity).isValid());
+        assertTrue(schemaEngine.check(mapper.readTree("{\"name\":\"Test User\",\"age\":25}"),
+                SchemaEntity.class).isValid());
+        assertEquals(List.of("Cannot validate null data"), schemaEngine.validate((Map<String, Object>) null, SchemaEntity.class));
+
+        assertNotNull(new ValidationRuleLoader("classpath:validation/").loadRuleSet("validation-rules.json").getSchema(),
+                "The schema should be compiled once and kept with the rule set");
+    }
+
+    @Test
+    void testInvalidJsonSchemaRuleFile() throws IOException {
+        File schemaFile = new File(tempDir, "broken-schema.json");
+        FileCopyUtils.copy("{\"type\": ".getBytes(StandardCharsets.UTF_8), schemaFile);
+
+        List<String> errors = validationEngine.validate(Map.of("name", "x"), BrokenSchemaEntity.class);
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).contains("broken-schema.json"), errors.get(0));
+    }
+
+    @ValidatedBy("validation-rules.json")
+    private static class SchemaEntity {
+        private String name;
+        private int age;
+    }
+
+    @ValidatedBy("broken-schema.json")
+    private static class BrokenSchemaEntity {
+    }
+
+    @ValidatedBy("test-validation.yml")
+    private static class TestSubEntity extends TestEntity {
+    }
+
     @ValidatedBy("test-validation.yml")
     private static class TestEntity {
         @NotBlank
@@ -0,0 +1,49 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.engine.rule.NotBlankRule;
+import com.example.datavalidation.engine.rule.SizeRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationErrorTest {
+    @Test
+    void testDefaultMessageComesFromTemplate() {
+        ValidationError error = new SizeRule(null, "name", null, 2, 50).getError();
+
+        assertEquals("size", error.getCode());
+        assertEquals(List.of(2, 50), error.getParameters());
+        assertEquals("name: size validation failed", error.getMessage());
+        assertSame(error.getMessage(), error.getMessage(), "The formatted message should be kept");
+    }
+
+    @Test
+    void testMessagesAreLocalized() {
+        ValidationError error = new NotBlankRule("name-required", "name", null).getError();
+
+        assertEquals("name darf nicht leer sein", error.getMessage(Locale.GERMAN));
+        assertEquals("name-required: notBlank validation failed", error.getMessage(Locale.FRENCH),
+                "Locales without a translation should use the base templates");
+    }
+
+    @Test
+    void testRuleMessageMayReferenceTemplate() {
+        assertEquals("Cannot validate null data", new NotBlankRule(null, "name", "{data.null}").check(""));
+        assertEquals("must not be blank", new NotBlankRule(null, "name", "must not be blank").check(""));
+        assertEquals("{no.such.key}", new NotBlankRule(null, "name", "{no.such.key}").check(""));
+    }
+
+    @Test
+    void testResultMessages() {
+        ValidationResult result = ValidationResult.of(List.of(ValidationError.of("entity.unknown", "Foo"),
+                new NotBlankRule(null, "name", null).getError()));
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Invalid entity class: Foo", "name: notBlank validation failed"), result.getMessages());
+        assertTrue(ValidationResult.of(List.of()).isValid());
+        assertSame(ValidationResult.valid(), ValidationResult.of((List<ValidationError>) null));
+    }
+}
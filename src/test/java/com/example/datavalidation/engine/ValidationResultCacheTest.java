@@ -0,0 +1,182 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationResultCacheTest {
+    private static final String RULES = "rules:\n"
+            + "  - name: name-required\n"
+            + "    type: notBlank\n"
+            + "    field: name\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPayloadKeyIsCanonical() throws IOException {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("name", "Jane");
+        first.put("age", 30);
+        first.put("tags", List.of("a", "b"));
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("tags", List.of("a", "b"));
+        reordered.put("age", 30L);
+        reordered.put("name", "Jane");
+
+        assertEquals(CanonicalPayload.of(first), CanonicalPayload.of(reordered));
+        assertEquals(CanonicalPayload.of(first), CanonicalPayload.of(
+                new ObjectMapper().readTree("{\"age\":30,\"name\":\"Jane\",\"tags\":[\"a\",\"b\"]}")));
+
+        assertNotEquals(CanonicalPayload.of(Map.of("age", 30)), CanonicalPayload.of(Map.of("age", "30")));
+        assertNotEquals(CanonicalPayload.of(Map.of("age", 30)), CanonicalPayload.of(Map.of("age", 30.0)));
+        assertNotEquals(CanonicalPayload.of(Map.of("tags", List.of("a", "b"))),
+                CanonicalPayload.of(Map.of("tags", List.of("b", "a"))));
+        assertNotEquals(CanonicalPayload.of(Map.of("a", "b")), CanonicalPayload.of(Map.of("b", "a")));
+        assertNotEquals(CanonicalPayload.of(Map.of("name", "abcde")),
+                CanonicalPayload.of(Map.of("name", "abcd")));
+        assertNotEquals(CanonicalPayload.of(Map.of("a", "x", "b", "y")),
+                CanonicalPayload.of(Map.of("a", "y", "b", "x")));
+        assertEquals(CanonicalPayload.of(Map.of("outer", Map.of("a", 1, "b", List.of("x", "y")))),
+                CanonicalPayload.of(new ObjectMapper().readTree("{\"outer\":{\"b\":[\"x\",\"y\"],\"a\":1}}")));
+        assertEquals(CanonicalPayload.of(new LinkedHashSet<>(List.of("x", "y", "z"))),
+                CanonicalPayload.of(new LinkedHashSet<>(List.of("z", "x", "y"))));
+    }
+
+    @Test
+    void testIdenticalRecordsAreValidatedOnce() throws IOException {
+        Files.writeString(tempDir.resolve("cached.yml"), RULES);
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/")
+                .maxCachedRuleSets(8)
+                .refreshInterval(Duration.ofMinutes(1))
+                .build();
+        ValidationResultCache cache = new ValidationResultCache(100, Duration.ofMinutes(1));
+        ValidationEngine engine = engine(loader, cache);
+
+        ValidationResult first = engine.check(Map.of("name", ""), CachedEntity.class);
+        assertSame(first, engine.check(Map.of("name", ""), CachedEntity.class));
+        assertEquals(1, engine.check(Map.of("name", ""), CachedEntity.class,
+                ValidationOptions.DEFAULT.withMaxErrors(5)).getErrors().size());
+        assertTrue(engine.check(Map.of("name", "Jane"), CachedEntity.class).isValid());
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void testReloadedRulesAreNotAnsweredFromTheCache() throws IOException {
+        Path file = tempDir.resolve("cached.yml");
+        Files.writeString(file, RULES);
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/")
+                .maxCachedRuleSets(8)
+                .refreshInterval(Duration.ofMinutes(1))
+                .build();
+        ValidationResultCache cache = new ValidationResultCache(100, Duration.ofMinutes(1));
+        ValidationEngine engine = engine(loader, cache);
+        assertTrue(engine.check(Map.of("name", "J"), CachedEntity.class).isValid());
+
+        Files.writeString(file, RULES
+                + "  - name: name-length\n    type: size\n    field: name\n    min: 2\n    max: 10\n");
+        loader.reload("cached.yml");
+
+        assertFalse(engine.check(Map.of("name", "J"), CachedEntity.class).isValid());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.size(), "The stale result should have been replaced");
+    }
+
+    @Test
+    void testOldestResultsAreEvicted() throws IOException {
+        Files.writeString(tempDir.resolve("cached.yml"), RULES);
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/")
+                .maxCachedRuleSets(8)
+                .refreshInterval(Duration.ofMinutes(1))
+                .build();
+        ValidationResultCache cache = new ValidationResultCache(2, Duration.ofMinutes(1));
+        ValidationEngine engine = engine(loader, cache);
+
+        engine.check(Map.of("name", "a"), CachedEntity.class);
+        engine.check(Map.of("name", "b"), CachedEntity.class);
+        engine.check(Map.of("name", "c"), CachedEntity.class);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        engine.check(Map.of("name", "c"), CachedEntity.class);
+        engine.check(Map.of("name", "a"), CachedEntity.class);
+        assertEquals(1, cache.getHitCount(), "Only the newest records should still be cached");
+    }
+
+    @Test
+    void testExpiredResultsAreRecomputed() throws Exception {
+        Files.writeString(tempDir.resolve("cached.yml"), RULES);
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/")
+                .maxCachedRuleSets(8)
+                .refreshInterval(Duration.ofMinutes(1))
+                .build();
+        ValidationResultCache cache = new ValidationResultCache(10, Duration.ofMillis(1));
+        ValidationEngine engine = engine(loader, cache);
+
+        engine.check(Map.of("name", ""), CachedEntity.class);
+        Thread.sleep(5);
+        engine.check(Map.of("name", ""), CachedEntity.class);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testInvalidateAllDuringPutsKeepsEvicting() throws Exception {
+        ValidationResultCache cache = new ValidationResultCache(50, Duration.ofMinutes(1));
+        CompiledRuleSet ruleSet = new CompiledRuleSet("cached.yml", List.of(), List.of());
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int offset = thread * 10_000;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        cache.put(cache.key(CachedEntity.class, ValidationOptions.DEFAULT, Map.of("id", offset + i)),
+                                ruleSet, ValidationResult.valid());
+                    }
+                }));
+            }
+            while (!writers.stream().allMatch(Future::isDone)) {
+                cache.invalidateAll();
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(cache.key(CachedEntity.class, ValidationOptions.DEFAULT, Map.of("id", -i)), ruleSet,
+                    ValidationResult.valid());
+        }
+        assertEquals(50, cache.size(), "Every stored result should still be tracked for eviction");
+    }
+
+    private static ValidationEngine engine(ValidationRuleLoader loader, ValidationResultCache cache) {
+        return ValidationEngine.builder(loader).resultCache(cache).build();
+    }
+
+    @ValidatedBy("cached.yml")
+    private static class CachedEntity {
+    }
+}
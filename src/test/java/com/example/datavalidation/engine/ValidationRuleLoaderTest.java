@@ -0,0 +1,149 @@
+package com.example.datavalidation.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationRuleLoaderTest {
+    private static final String RULES = "rules:\n"
+            + "  - name: name-required\n"
+            + "    type: notBlank\n"
+            + "    field: name\n"
+            + "    message: \"name: must not be blank\"\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCachedRulesAreReused() throws IOException {
+        Files.writeString(tempDir.resolve("a.yml"), RULES);
+        ValidationRuleLoader loader = new ValidationRuleLoader(tempDir + "/");
+
+        List<Map<String, Object>> first = loader.loadRules("a.yml");
+        List<Map<String, Object>> second = loader.loadRules("a.yml");
+
+        assertSame(first, second, "Second lookup should be served from the cache");
+        RuleCacheStats stats = loader.getCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getLoadCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void testChangedFileIsReloaded() throws IOException {
+        Path file = tempDir.resolve("a.yml");
+        Files.writeString(file, RULES);
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/")
+                .maxCachedRuleSets(8)
+                .refreshInterval(Duration.ZERO)
+                .build();
+        assertEquals(1, loader.loadRules("a.yml").size());
+
+        Files.writeString(file, RULES + RULES.substring("rules:\n".length()));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+
+        assertEquals(2, loader.loadRules("a.yml").size(), "Modified file should be re-parsed");
+        assertEquals(2, loader.getCacheStats().getLoadCount());
+    }
+
+    @Test
+    void testTouchedButUnchangedFileIsNotReparsed() throws IOException {
+        Path file = tempDir.resolve("a.yml");
+        Files.writeString(file, RULES);
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/")
+                .maxCachedRuleSets(8)
+                .refreshInterval(Duration.ZERO)
+                .build();
+        List<Map<String, Object>> first = loader.loadRules("a.yml");
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+
+        assertSame(first, loader.loadRules("a.yml"), "Same content should keep the cached rules");
+        assertEquals(1, loader.getCacheStats().getLoadCount());
+    }
+
+    @Test
+    void testLeastRecentlyUsedRuleSetIsEvicted() throws IOException {
+        for (String name : new String[] {"a.yml", "b.yml", "c.yml"}) {
+            Files.writeString(tempDir.resolve(name), RULES);
+        }
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/")
+                .maxCachedRuleSets(2)
+                .refreshInterval(Duration.ofMinutes(1))
+                .build();
+
+        loader.loadRules("a.yml");
+        loader.loadRules("b.yml");
+        loader.loadRules("a.yml");
+        loader.loadRules("c.yml");
+
+        RuleCacheStats stats = loader.getCacheStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictionCount());
+
+        loader.loadRules("a.yml");
+        assertEquals(3, loader.getCacheStats().getLoadCount(), "a.yml should have survived eviction");
+    }
+
+    @Test
+    void testRuleSetInUseSurvivesOneOffLoads() throws IOException {
+        Files.writeString(tempDir.resolve("hot.yml"), RULES);
+        for (int i = 0; i < 10; i++) {
+            Files.writeString(tempDir.resolve("once-" + i + ".yml"), RULES);
+        }
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/").maxCachedRuleSets(3).build();
+
+        for (int i = 0; i < 10; i++) {
+            loader.loadRuleSet("once-" + i + ".yml");
+            loader.loadRuleSet("hot.yml");
+        }
+
+        RuleCacheStats stats = loader.getCacheStats();
+        assertEquals(11, stats.getLoadCount(), "hot.yml should have been loaded once");
+        assertEquals(3, stats.getSize());
+        assertTrue(loader.getCachedRuleFiles().contains("hot.yml"));
+    }
+
+    @Test
+    void testCacheStaysBoundedWhenInvalidatedBetweenLoads() throws IOException {
+        for (String name : new String[] {"a.yml", "b.yml", "c.yml"}) {
+            Files.writeString(tempDir.resolve(name), RULES);
+        }
+        ValidationRuleLoader loader = ValidationRuleLoader.builder(tempDir + "/").maxCachedRuleSets(2).build();
+
+        for (int i = 0; i < 20; i++) {
+            loader.loadRuleSet("a.yml");
+            loader.invalidate("b.yml");
+            loader.loadRuleSet("b.yml");
+            loader.loadRuleSet("c.yml");
+            assertTrue(loader.getCacheStats().getSize() <= 2);
+        }
+        loader.invalidateAll();
+        assertEquals(0, loader.getCacheStats().getSize());
+        loader.loadRuleSet("a.yml");
+        assertEquals(Set.of("a.yml"), loader.getCachedRuleFiles());
+    }
+
+    @Test
+    void testBuilderRejectsEmptyCache() {
+        assertThrows(IllegalArgumentException.class, () -> ValidationRuleLoader.builder("classpath:validation/")
+                .maxCachedRuleSets(0));
+    }
+
+    @Test
+    void testMissingRuleFile() {
+        ValidationRuleLoader loader = new ValidationRuleLoader(tempDir + "/");
+        assertThrows(IOException.class, () -> loader.loadRules("missing.yml"));
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+import com.example.datavalidation.engine.rule.CompiledRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationStateTest {
+    private static final String RULES = "rules:\n"
+            + "  - name: name-required\n    type: notBlank\n    field: name\n"
+            + "  - name: age-minimum\n    type: min\n    field: age\n    value: 0\n"
+            + "  - name: address-required\n    type: notNull\n    field: address\n"
+            + "  - name: city-required\n    type: notBlank\n    field: address.city\n"
+            + "  - name: zip-format\n    type: pattern\n    field: address.zip\n    pattern: \"^\\\\d{5}$\"\n";
+
+    @TempDir
+    Path tempDir;
+
+    private ValidationRuleLoader loader;
+    private FailureCounter metrics;
+    private ValidationEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("patched.yml"), RULES);
+        loader = ValidationRuleLoader.builder(tempDir + "/")
+                .maxCachedRuleSets(8)
+                .refreshInterval(Duration.ofMinutes(1))
+                .build();
+        metrics = new FailureCounter();
+        engine = ValidationEngine.builder(loader).metrics(metrics).build();
+    }
+
+    @Test
+    void testPatchedResultEqualsFullValidation() {
+        ValidationState state = engine.checkState(record("", -1, "", "1"), PatchedEntity.class);
+        assertEquals(List.of("name-required", "age-minimum", "city-required", "zip-format"), rules(state));
+
+        state = engine.checkPatch(state, Map.of("name", "Jane", "address", Map.of("zip", "12345")));
+        assertEquals(List.of("age-minimum", "city-required"), rules(state));
+        assertEquals(engine.check(state.getData(), PatchedEntity.class).getErrors(), state.getResult().getErrors());
+
+        Map<String, Object> removeAddress = new HashMap<>();
+        removeAddress.put("address", null);
+        state = engine.checkPatch(state, removeAddress);
+        assertFalse(state.getData().containsKey("address"));
+        assertEquals(List.of("age-minimum", "address-required", "city-required"), rules(state));
+        assertEquals(engine.check(state.getData(), PatchedEntity.class).getErrors(), state.getResult().getErrors());
+    }
+
+    @Test
+    void testOnlyRulesOnPatchedPathsAreEvaluated() {
+        ValidationState state = engine.checkState(record("", -1, "", "1"), PatchedEntity.class);
+        metrics.failures.clear();
+
+        engine.checkPatch(state, Map.of("age", -2));
+        assertEquals(List.of("age-minimum"), metrics.failures, "Rules on other fields should keep their errors");
+
+        metrics.failures.clear();
+        engine.checkPatch(state, Map.of("address", Map.of("city", "")));
+        assertEquals(List.of("city-required"), metrics.failures);
+
+        // Replacing the address changes every path below it; the zip pattern passes the now missing zip
+        metrics.failures.clear();
+        engine.checkPatch(state, Map.of("address", "none"));
+        assertEquals(List.of("city-required"), metrics.failures);
+    }
+
+    @Test
+    void testLimitedErrorsFollowTheEvaluationOrder() throws IOException {
+        Files.writeString(tempDir.resolve("ordered.yml"), "rules:\n"
+                + "  - name: x-pattern\n    type: pattern\n    field: x\n    pattern: \"^[0-9]+$\"\n"
+                + "  - name: x-size\n    type: size\n    field: x\n    min: 1\n    max: 3\n"
+                + "  - name: name-required\n    type: notBlank\n    field: name\n");
+        Map<String, Object> data = new HashMap<>();
+        data.put("x", "abcdef");
+        data.put("name", "Jane");
+
+        for (ValidationOptions options : List.of(ValidationOptions.DEFAULT.withMaxErrors(1),
+                ValidationOptions.failFast(), ValidationOptions.DEFAULT.withMaxErrors(2))) {
+            List<ValidationError> expected = engine.check(data, OrderedEntity.class, options).getErrors();
+            ValidationState state = engine.checkState(data, OrderedEntity.class, options);
+            assertEquals(expected, state.getResult().getErrors(), options.toString());
+            assertEquals(expected, engine.checkPatch(state, Map.of("name", "Joe"), options).getResult().getErrors(),
+                    options.toString());
+        }
+        assertEquals(List.of("x-size"), rules(engine.checkState(data, OrderedEntity.class,
+                ValidationOptions.failFast())), "The cheaper size rule runs first");
+    }
+
+    @Test
+    void testPatchDoesNotModifyThePreviousRecord() {
+        Map<String, Object> data = record("Jane", 30, "Springfield", "12345");
+        ValidationState state = engine.checkState(data, PatchedEntity.class);
+
+        ValidationState patched = engine.checkPatch(state, Map.of("address", Map.of("zip", "x")));
+        assertEquals("12345", address(state.getData()).get("zip"));
+        assertEquals("Springfield", address(patched.getData()).get("city"));
+        assertEquals("x", address(patched.getData()).get("zip"));
+        assertTrue(state.getResult().isValid());
+        assertEquals(List.of("zip-format"), rules(patched));
+    }
+
+    @Test
+    void testReloadedRulesAreEvaluatedInFull() throws IOException {
+        ValidationState state = engine.checkState(record("Jane", 30, "Springfield", "12345"), PatchedEntity.class);
+        Files.writeString(tempDir.resolve("patched.yml"), RULES
+                + "  - name: name-length\n    type: size\n    field: name\n    min: 5\n    max: 10\n");
+        loader.reload("patched.yml");
+
+        ValidationState patched = engine.checkPatch(state, Map.of("age", 31));
+        assertEquals(List.of("name-length"), rules(patched));
+    }
+
+    @Test
+    void testNullPatchReplacesTheRecord() {
+        ValidationState state = engine.checkState(record("Jane", 30, "Springfield", "12345"), PatchedEntity.class);
+        ValidationState patched = engine.checkPatch(state, null);
+        assertEquals("data.null", patched.getResult().getErrors().get(0).getCode());
+    }
+
+    @Test
+    void testTokensExpire() throws InterruptedException {
+        ValidationState state = engine.checkState(record("Jane", 30, "Springfield", "12345"), PatchedEntity.class);
+        ValidationStateStore store = new ValidationStateStore(1, Duration.ofMillis(20));
+        String first = store.put(state);
+        assertSame(state, store.get(first));
+
+        String second = store.put(state);
+        assertNotEquals(first, second);
+        assertNull(store.get(first), "The oldest state should have been evicted");
+        Thread.sleep(30);
+        assertNull(store.get(second));
+        assertNull(store.get("unknown"));
+    }
+
+    @Test
+    void testExpiredStatesAreRemovedOnPut() throws InterruptedException {
+        ValidationState state = engine.checkState(record("Jane", 30, "Springfield", "12345"), PatchedEntity.class);
+        ValidationStateStore store = new ValidationStateStore(100, Duration.ofMillis(20));
+        store.put(state);
+        store.put(state);
+        assertEquals(2, store.size());
+
+        Thread.sleep(30);
+        String token = store.put(state);
+        assertEquals(1, store.size(), "Expired states should not wait for the store to fill up");
+        assertSame(state, store.get(token));
+    }
+
+    private static Map<String, Object> record(String name, int age, String city, String zip) {
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("city", city);
+        address.put("zip", zip);
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("name", name);
+        data.put("age", age);
+        data.put("address", address);
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> address(Map<String, Object> data) {
+        return (Map<String, Object>) data.get("address");
+    }
+
+    private static List<String> rules(ValidationState state) {
+        List<String> rules = new ArrayList<>();
+        for (ValidationError error : state.getResult().getErrors()) {
+            rules.add(error.getRule());
+        }
+        return rules;
+    }
+
+    private static class FailureCounter implements ValidationMetrics {
+        final List<String> failures = new ArrayList<>();
+
+        @Override
+        public void recordRuleFailure(String ruleFile, CompiledRule rule) {
+            failures.add(rule.getName());
+        }
+    }
+
+    @ValidatedBy("patched.yml")
+    private static class PatchedEntity {
+    }
+
+    @ValidatedBy("ordered.yml")
+    private static class OrderedEntity {
+    }
+}
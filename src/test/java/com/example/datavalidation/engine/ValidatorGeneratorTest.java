@@ -0,0 +1,236 @@
+package com.example.datavalidation.engine;
+
+import com.example.datavalidation.annotation.ValidatedBy;
+import com.example.datavalidation.engine.rule.CompiledRule;
+import com.example.datavalidation.engine.rule.EnumRule;
+import com.example.datavalidation.engine.rule.MinRule;
+import com.example.datavalidation.engine.rule.NotBlankRule;
+import com.example.datavalidation.engine.rule.NotNullRule;
+import com.example.datavalidation.engine.rule.PatternRule;
+import com.example.datavalidation.engine.rule.SizeRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidatorGeneratorTest {
+    private static final List<ValidationOptions> OPTIONS = List.of(ValidationOptions.DEFAULT,
+            ValidationOptions.failFast(), ValidationOptions.DEFAULT.withMaxErrors(2),
+            ValidationOptions.DEFAULT.withSkipFieldAfterFailure(true),
+            ValidationOptions.DEFAULT.withMaxErrors(2).withSkipFieldAfterFailure(true));
+
+    @Test
+    void testGeneratedValidatorMatchesInterpretedPlan() {
+        CompiledRuleSet generated = userRules();
+        CompiledRuleSet interpreted = userRules();
+
+        for (Map<String, Object> data : records()) {
+            for (ValidationOptions options : OPTIONS) {
+                Object[] values = generated.getFieldPaths().resolveMap(data);
+                assertEquals(interpreted.getPlan().evaluate(values, options).getMessages(),
+                        generated.getPlan().evaluate(values, options, ValidationMetrics.NOOP, 0).getMessages(),
+                        "Errors for " + data + " with " + options);
+            }
+        }
+        assertTrue(generated.getPlan().isGenerated());
+    }
+
+    @Test
+    void testTimedGeneratedValidatorMatchesInterpretedPlan() {
+        CompiledRuleSet generated = userRules();
+        CompiledRuleSet interpreted = userRules();
+        RecordingMetrics generatedMetrics = new RecordingMetrics();
+        RecordingMetrics interpretedMetrics = new RecordingMetrics();
+
+        for (Map<String, Object> data : records()) {
+            for (ValidationOptions options : OPTIONS) {
+                Object[] values = generated.getFieldPaths().resolveMap(data);
+                assertEquals(interpreted.getPlan().evaluate(values, options, interpretedMetrics).getMessages(),
+                        generated.getPlan().evaluate(values, options, generatedMetrics, 0).getMessages(),
+                        "Errors for " + data + " with " + options);
+            }
+        }
+        assertTrue(generated.getPlan().isGenerated());
+        assertEquals(interpretedMetrics.timed, generatedMetrics.timed);
+        assertEquals(interpretedMetrics.failed, generatedMetrics.failed);
+    }
+
+    @Test
+    void testFailedPresenceRuleSkipsSubtree() {
+        CountingRule lat = new CountingRule("address.geo.lat");
+        CompiledRuleSet ruleSet = new CompiledRuleSet("test.yml",
+                List.of(new EnumRule("address-type", "address", null, List.of("home")), lat), List.of());
+        Object[] values = ruleSet.getFieldPaths().resolveMap(Map.of("address", Map.of("geo", Map.of("lat", "1.0"))));
+
+        ValidationResult result = ruleSet.getPlan().evaluate(values,
+                ValidationOptions.DEFAULT.withSkipFieldAfterFailure(true), ValidationMetrics.NOOP, 0);
+
+        assertTrue(ruleSet.getPlan().isGenerated());
+        assertEquals(List.of("address-type", "counting"),
+                result.getErrors().stream().map(ValidationError::getRule).toList());
+        assertEquals(1, lat.calls);
+
+        CompiledRuleSet required = new CompiledRuleSet("test.yml", List.of(new RejectingPresenceRule("address"), lat),
+                List.of());
+        result = required.getPlan().evaluate(required.getFieldPaths().resolveMap(Map.of("address",
+                        Map.of("geo", Map.of("lat", "1.0")))),
+                ValidationOptions.DEFAULT.withSkipFieldAfterFailure(true), ValidationMetrics.NOOP, 0);
+
+        assertTrue(required.getPlan().isGenerated());
+        assertEquals(List.of("rejected"), result.getErrors().stream().map(ValidationError::getRule).toList());
+        assertEquals(1, lat.calls);
+    }
+
+    @Test
+    void testGeneratesAfterThreshold() {
+        CompiledRuleSet ruleSet = userRules();
+        Object[] values = ruleSet.getFieldPaths().resolveMap(Map.of());
+        for (int i = 0; i < 3; i++) {
+            ruleSet.getPlan().evaluate(values, ValidationOptions.DEFAULT, ValidationMetrics.NOOP, 3);
+            assertFalse(ruleSet.getPlan().isGenerated());
+        }
+        ruleSet.getPlan().evaluate(values, ValidationOptions.DEFAULT, ValidationMetrics.NOOP, 3);
+        assertTrue(ruleSet.getPlan().isGenerated());
+    }
+
+    @Test
+    void testAbsentSubtreeIsSkippedWithInaccessibleRuleClass() {
+        CountingRule lat = new CountingRule("address.geo.lat");
+        CompiledRuleSet ruleSet = new CompiledRuleSet("test.yml",
+                List.of(new NotNullRule("address-required", "address", null), lat), List.of());
+
+        ValidationResult result = ruleSet.getPlan().evaluate(ruleSet.getFieldPaths().resolveMap(Map.of()),
+                ValidationOptions.DEFAULT, ValidationMetrics.NOOP, 0);
+
+        assertTrue(ruleSet.getPlan().isGenerated());
+        assertEquals(List.of("address-required"), result.getErrors().stream().map(ValidationError::getRule).toList());
+        assertEquals(0, lat.calls);
+        ruleSet.getPlan().evaluate(ruleSet.getFieldPaths().resolveMap(Map.of("address", Map.of("geo", Map.of("lat", "1.0")))),
+                ValidationOptions.DEFAULT, ValidationMetrics.NOOP, 0);
+        assertEquals(1, lat.calls);
+    }
+
+    @Test
+    void testLargeRuleSetsStayInterpreted() {
+        List<CompiledRule> rules = new ArrayList<>();
+        for (int i = 0; i <= ValidatorGenerator.MAX_RULES; i++) {
+            rules.add(new NotNullRule("rule-" + i, "field" + i, null));
+        }
+        CompiledRuleSet ruleSet = new CompiledRuleSet("large.yml", rules, List.of());
+
+        ValidationResult result = ruleSet.getPlan().evaluate(ruleSet.getFieldPaths().resolveMap(Map.of()),
+                ValidationOptions.DEFAULT, ValidationMetrics.NOOP, 0);
+
+        assertFalse(ruleSet.getPlan().isGenerated());
+        assertEquals(rules.size(), result.getErrors().size());
+    }
+
+    @Test
+    void testEngineWithGeneratedValidators() {
+        ValidationEngine engine = ValidationEngine.builder(new ValidationRuleLoader("classpath:validation/"))
+                .generateAfter(0)
+                .build();
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "");
+        data.put("age", -1);
+
+        assertEquals(List.of("name: must not be blank", "Name must be between 2 and 50 characters",
+                "age: must be greater than or equal to 0"), engine.validate(data, TestEntity.class));
+        data.put("name", "Ada");
+        data.put("age", 36);
+        assertTrue(engine.validate(data, TestEntity.class).isEmpty());
+    }
+
+    private static CompiledRuleSet userRules() {
+        PatternCache patterns = new PatternCache();
+        return new CompiledRuleSet("user.yml", List.of(
+                new PatternRule("username-format", "username", null, patterns.compile("^[a-z_]+$")),
+                new NotBlankRule("username-required", "username", null),
+                new SizeRule("username-size", "username", null, 3, 8),
+                new MinRule("age-minimum", "age", null, 18),
+                new NotNullRule("address-required", "address", null),
+                new EnumRule("address-state", "address.state", null, List.of("CA", "NY")),
+                new NotBlankRule("zip-required", "address.zip", null),
+                new PatternRule("lat-format", "address.geo.lat", null, patterns.compile("^-?\\d+\\.\\d+$"))),
+                List.of());
+    }
+
+    private static List<Map<String, Object>> records() {
+        List<Map<String, Object>> records = new ArrayList<>();
+        records.add(Map.of());
+        records.add(Map.of("username", "ada", "age", 36,
+                "address", Map.of("state", "CA", "zip", "90210", "geo", Map.of("lat", "34.1"))));
+        records.add(Map.of("username", "", "age", 3, "address", Map.of()));
+        records.add(Map.of("username", "Ada Lovelace", "age", "x",
+                "address", Map.of("state", "TX", "zip", " ", "geo", Map.of("lat", "north"))));
+        records.add(Map.of("address", "not a map"));
+        return records;
+    }
+
+    @ValidatedBy("test-validation.yml")
+    private static class TestEntity {
+    }
+
+    /**
+     * Counts the rules timed and failed, by rule id.
+     */
+    private static final class RecordingMetrics implements ValidationMetrics {
+        final Map<String, Integer> timed = new HashMap<>();
+        final Map<String, Integer> failed = new HashMap<>();
+
+        @Override
+        public boolean isRuleTimingEnabled() {
+            return true;
+        }
+
+        @Override
+        public void recordRule(String ruleFile, CompiledRule rule, long nanos) {
+            timed.merge(rule.getName(), 1, Integer::sum);
+        }
+
+        @Override
+        public void recordRuleFailure(String ruleFile, CompiledRule rule) {
+            failed.merge(rule.getName(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Fails every present value; private, so generated code has to call it through {@link CompiledRule}.
+     */
+    private static final class CountingRule extends CompiledRule {
+        int calls;
+
+        CountingRule(String field) {
+            super("counting", "counting", field, null);
+        }
+
+        @Override
+        public ValidationError validate(Object value) {
+            calls++;
+            return value == null ? null : getError();
+        }
+    }
+
+    /**
+     * A presence rule failing every value.
+     */
+    private static final class RejectingPresenceRule extends CompiledRule {
+        RejectingPresenceRule(String field) {
+            super("rejected", "rejected", field, null);
+        }
+
+        @Override
+        public ValidationError validate(Object value) {
+            return getError();
+        }
+
+        @Override
+        public boolean checksPresence() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.datavalidation.engine.rule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumLookupTest {
+    @Test
+    void testCaseSensitiveLookup() {
+        EnumLookup lookup = EnumLookup.of(List.of("NY", "CA", "TX", "NY"), false);
+
+        assertEquals(3, lookup.size(), "Duplicates should be stored once");
+        assertTrue(lookup.contains("NY"));
+        assertTrue(lookup.contains(new StringBuilder("CA")));
+        assertFalse(lookup.contains("ny"));
+        assertFalse(lookup.contains("XX"));
+        assertFalse(lookup.contains(""));
+    }
+
+    @Test
+    void testCaseInsensitiveLookup() {
+        EnumLookup lookup = EnumLookup.of(List.of("Active", "SUSPENDED"), true);
+
+        assertTrue(lookup.contains("active"));
+        assertTrue(lookup.contains("ACTIVE"));
+        assertTrue(lookup.contains(new StringBuilder("Suspended")));
+        assertFalse(lookup.contains("activ"));
+    }
+
+    @Test
+    void testLargeValueSet() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            codes.add("P-" + i);
+        }
+        EnumLookup lookup = EnumLookup.of(codes, false);
+
+        assertEquals(5000, lookup.size());
+        for (String code : codes) {
+            assertTrue(lookup.contains(code), code);
+        }
+        assertFalse(lookup.contains("P-5000"));
+    }
+
+    @Test
+    void testEnumRuleMatchesNonStringValues() {
+        EnumRule rule = new EnumRule("level", "level", "bad level", List.of("1", "2", "3"));
+
+        assertNull(rule.check(2));
+        assertEquals("bad level", rule.check(4));
+        assertNull(rule.check(null));
+    }
+}
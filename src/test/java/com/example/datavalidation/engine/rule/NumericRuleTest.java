@@ -0,0 +1,87 @@
+package com.example.datavalidation.engine.rule;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumericRuleTest {
+
+    @Test
+    void testReadsNumbersAndNumericText() {
+        assertEquals(42L, NumericValue.of("42"));
+        assertEquals(-7L, NumericValue.of("-7"));
+        assertEquals(new BigDecimal("12345678901234567890"), NumericValue.of("12345678901234567890"));
+        assertEquals(new BigDecimal("3.50"), NumericValue.of("3.50"));
+        assertEquals(new BigDecimal("1e3"), NumericValue.of("1e3"));
+        assertEquals(new BigDecimal(".5"), NumericValue.of(".5"));
+        Integer boxed = 5;
+        assertSame(boxed, NumericValue.of(boxed));
+
+        for (String text : new String[] {"", "-", "abc", "1.2.3", "1e", "1e+", " 1", "0x10", "NaN", "Infinity", "."}) {
+            assertNull(NumericValue.of(text), text);
+        }
+        assertNull(NumericValue.of(Double.NaN));
+        assertNull(NumericValue.of(Double.POSITIVE_INFINITY));
+        assertNull(NumericValue.of(true));
+    }
+
+    @Test
+    void testMinComparesLongsAndDecimalsExactly() {
+        MinRule min = new MinRule("big", "n", null, Long.MAX_VALUE);
+        assertNull(min.validate(Long.MAX_VALUE));
+        assertNull(min.validate("9223372036854775808"));
+        assertNotNull(min.validate(Long.MAX_VALUE - 1));
+        assertNotNull(min.validate((double) (Long.MAX_VALUE - 1024)));
+
+        MinRule cents = new MinRule("cents", "n", null, 0.1);
+        assertNull(cents.validate(0.1));
+        assertNull(cents.validate("0.10"));
+        assertNull(cents.validate(new BigDecimal("0.1000")));
+        assertNotNull(cents.validate(0.09999999999999999));
+        assertNotNull(cents.validate(0));
+        assertNull(cents.validate(1));
+
+        assertEquals("min.format", min.validate("abc").getCode());
+        assertEquals("min.format", min.validate(Double.NaN).getCode());
+        assertNull(min.validate(null));
+        assertEquals("required", new MinRule("age", "age", null, 0, true).validate(null).getCode());
+    }
+
+    @Test
+    void testRangeIntegerDecimalAndPositive() {
+        RangeRule range = new RangeRule("score", "score", null, -1, 9.5, false);
+        assertNull(range.validate(-1));
+        assertNull(range.validate("9.5"));
+        assertNotNull(range.validate(9.51f));
+        assertNotNull(range.validate(BigInteger.TEN));
+        assertThrows(IllegalArgumentException.class, () -> new RangeRule("r", "r", null, 2, 1, false));
+
+        IntegerRule integer = new IntegerRule("age", "age", null, 0, 120, true);
+        assertNull(integer.validate(120));
+        assertNull(integer.validate(3.0));
+        assertNull(integer.validate("42"));
+        assertNull(integer.validate(new BigDecimal("100.00")));
+        assertNotNull(integer.validate(1.5));
+        assertNotNull(integer.validate("121"));
+        assertEquals("number.format", integer.validate("forty").getCode());
+        assertEquals("required", integer.validate(null).getCode());
+        assertNull(new IntegerRule("id", "id", null, null, null, false).validate("12345678901234567890"));
+
+        DecimalRule price = new DecimalRule("price", "price", null, 0, null, 2, false);
+        assertNull(price.validate("19.99"));
+        assertNull(price.validate("19.990"));
+        assertNull(price.validate(5));
+        assertNotNull(price.validate(19.999));
+        assertNotNull(price.validate(-0.01));
+
+        PositiveRule positive = new PositiveRule("qty", "qty", null, false);
+        assertNull(positive.validate(1));
+        assertNull(positive.validate("0.001"));
+        assertNotNull(positive.validate(0));
+        assertNotNull(positive.validate(-0.0));
+        assertNotNull(positive.validate(new BigDecimal("-1")));
+    }
+}